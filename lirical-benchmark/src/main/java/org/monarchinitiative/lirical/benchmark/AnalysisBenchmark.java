@@ -0,0 +1,60 @@
+package org.monarchinitiative.lirical.benchmark;
+
+import org.monarchinitiative.lirical.core.analysis.AnalysisData;
+import org.monarchinitiative.lirical.core.analysis.AnalysisOptions;
+import org.monarchinitiative.lirical.core.analysis.AnalysisResults;
+import org.monarchinitiative.lirical.core.analysis.LiricalAnalysisException;
+import org.monarchinitiative.lirical.core.analysis.impl.LiricalAnalysisRunnerImpl;
+import org.monarchinitiative.lirical.core.analysis.probability.PretestDiseaseProbabilities;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of a single phenotype-only analysis, once the analysis runner is created.
+ * <p>
+ * Use the {@code parallelism} parameter to measure the scaling with the number of the workers,
+ * e.g. {@code -p parallelism=1,2,4,8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class AnalysisBenchmark {
+
+    @Param({"1"})
+    public int parallelism;
+
+    @Param({"10"})
+    public int observedTermCount;
+
+    @Param({"2"})
+    public int excludedTermCount;
+
+    private LiricalAnalysisRunnerImpl runner;
+    private AnalysisData sample;
+    private AnalysisOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = SyntheticData.of(SyntheticData.DEFAULT_TERM_COUNT, SyntheticData.DEFAULT_DISEASE_COUNT, 42);
+        runner = LiricalAnalysisRunnerImpl.of(data.phenotypeService(), (genomeBuild, frequency) -> Optional.empty(), parallelism);
+        sample = data.sample("Sample", observedTermCount, excludedTermCount);
+        options = AnalysisOptions.builder()
+                .pretestProbability(PretestDiseaseProbabilities.uniform(data.diseases().diseaseIds()))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runner.close();
+    }
+
+    @Benchmark
+    public AnalysisResults run() throws LiricalAnalysisException {
+        return runner.run(sample, options);
+    }
+}
@@ -0,0 +1,34 @@
+package org.monarchinitiative.lirical.benchmark;
+
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLikelihoodRatio;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The startup cost of the phenotype LR evaluator, dominated by the calculation of the background frequencies
+ * of the HPO terms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PhenotypeEvaluatorBenchmark {
+
+    @Param({"12000"})
+    public int diseaseCount;
+
+    private SyntheticData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = SyntheticData.of(SyntheticData.DEFAULT_TERM_COUNT, diseaseCount, 42);
+    }
+
+    @Benchmark
+    public PhenotypeLikelihoodRatio createEvaluator() {
+        return new PhenotypeLikelihoodRatio(data.ontology(), data.diseases());
+    }
+}
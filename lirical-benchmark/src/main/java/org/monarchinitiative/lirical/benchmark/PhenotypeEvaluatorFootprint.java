@@ -0,0 +1,43 @@
+package org.monarchinitiative.lirical.benchmark;
+
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLikelihoodRatio;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Print the heap retained by the phenotype LR evaluator on top of the ontology and the diseases, in total
+ * and by each field of the evaluator, e.g. the background frequencies of the HPO terms.
+ * <p>
+ * The shared objects are subtracted by their addresses, hence the objects must not be moved by the garbage collector
+ * while being walked. Run with the serial collector, which moves the objects to the old generation on the full
+ * collection before the walks, e.g. {@code java -XX:+UseSerialGC -Xmx4g
+ * -cp lirical-benchmark/target/lirical-benchmark-<version>.jar
+ * org.monarchinitiative.lirical.benchmark.PhenotypeEvaluatorFootprint [disease count]}
+ */
+public class PhenotypeEvaluatorFootprint {
+
+    public static void main(String[] args) throws IllegalAccessException {
+        // The ontology graph includes lambdas, whose field offsets are not available through the `Unsafe`.
+        System.setProperty("jol.magicFieldOffset", "true");
+        int diseaseCount = args.length > 0 ? Integer.parseInt(args[0]) : SyntheticData.DEFAULT_DISEASE_COUNT;
+        SyntheticData data = SyntheticData.of(SyntheticData.DEFAULT_TERM_COUNT, diseaseCount, 42);
+        PhenotypeLikelihoodRatio evaluator = new PhenotypeLikelihoodRatio(data.ontology(), data.diseases());
+        System.gc();
+        GraphLayout shared = GraphLayout.parseInstance(data.ontology(), data.diseases());
+
+        GraphLayout retained = GraphLayout.parseInstance(evaluator).subtract(shared);
+        System.out.printf("%-32s %,14d bytes %,10d objects%n", "Total", retained.totalSize(), retained.totalCount());
+        for (Field field : PhenotypeLikelihoodRatio.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive())
+                continue;
+            field.setAccessible(true);
+            Object value = field.get(evaluator);
+            if (value == null)
+                continue;
+            GraphLayout layout = GraphLayout.parseInstance(value).subtract(shared);
+            System.out.printf("%-32s %,14d bytes %,10d objects%n", field.getName(), layout.totalSize(), layout.totalCount());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.monarchinitiative.lirical.benchmark;
+
+import org.monarchinitiative.lirical.core.likelihoodratio.GenotypeLikelihoodRatio;
+import org.monarchinitiative.lirical.core.likelihoodratio.InheritanceModes;
+import org.monarchinitiative.lirical.core.likelihoodratio.poisson.PoissonDistribution;
+import org.monarchinitiative.lirical.core.model.Gene2Genotype;
+import org.monarchinitiative.lirical.core.model.LiricalVariant;
+import org.monarchinitiative.lirical.core.service.BackgroundVariantFrequencyService;
+import org.monarchinitiative.phenol.annotations.formats.GeneIdentifier;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.monarchinitiative.phenol.annotations.constants.hpo.HpoModeOfInheritanceTermIds.AUTOSOMAL_DOMINANT;
+import static org.monarchinitiative.phenol.annotations.constants.hpo.HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE;
+
+/**
+ * The cost of the Poisson probabilities of the genotype LR.
+ * <p>
+ * The genes have the observed weighted counts drawn from {@code distinctCounts} sums of 1 to 4 float pathogenicities,
+ * and random lambda-background. A few distinct counts are typical for the variants with the same scores,
+ * such as the truncating variants, and many distinct counts show the cost of the evaluation without memoization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class PoissonBenchmark {
+
+    private static final String SAMPLE_ID = "Sample";
+    private static final int GENE_COUNT = 2_000;
+    private static final float PATHOGENICITY_THRESHOLD = .8f;
+
+    @Param({"16", "4096"})
+    public int distinctCounts;
+
+    private double[] lambdas;
+    private double[] counts;
+    private GenotypeLikelihoodRatio genotypeLikelihoodRatio;
+    private Gene2Genotype[] genes;
+    private InheritanceModes inheritanceModes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        double[] distinct = new double[distinctCounts];
+        for (int i = 0; i < distinct.length; i++) {
+            double count = 0;
+            int variantCount = 1 + random.nextInt(4);
+            for (int j = 0; j < variantCount; j++)
+                count += PATHOGENICITY_THRESHOLD + (1 - PATHOGENICITY_THRESHOLD) * random.nextFloat();
+            distinct[i] = count;
+        }
+
+        lambdas = new double[GENE_COUNT];
+        counts = new double[GENE_COUNT];
+        genes = new Gene2Genotype[GENE_COUNT];
+        Map<TermId, Double> frequencies = new HashMap<>();
+        for (int i = 0; i < GENE_COUNT; i++) {
+            lambdas[i] = 3 * random.nextDouble();
+            counts[i] = distinct[random.nextInt(distinct.length)];
+            GeneIdentifier geneId = GeneIdentifier.of(TermId.of("NCBIGene:%d".formatted(i + 1)), "GENE" + i);
+            frequencies.put(geneId.id(), lambdas[i]);
+            genes[i] = new WeightedGene(geneId, (int) Math.ceil(counts[i]), counts[i]);
+        }
+        genotypeLikelihoodRatio = new GenotypeLikelihoodRatio(BackgroundVariantFrequencyService.of(frequencies, .1),
+                new GenotypeLikelihoodRatio.Options(PATHOGENICITY_THRESHOLD, false));
+        inheritanceModes = InheritanceModes.of(List.of(AUTOSOMAL_DOMINANT, AUTOSOMAL_RECESSIVE));
+    }
+
+    /**
+     * The background probabilities of all genes, with the lambda-background of each gene.
+     */
+    @Benchmark
+    public void backgroundProbability(Blackhole blackhole) {
+        for (int i = 0; i < GENE_COUNT; i++)
+            blackhole.consume(new PoissonDistribution(lambdas[i]).probability(counts[i]));
+    }
+
+    /**
+     * The genotype LRs of all genes for a disease with both autosomal dominant and recessive inheritance.
+     */
+    @Benchmark
+    public void genotypeLr(Blackhole blackhole) {
+        for (Gene2Genotype gene : genes)
+            blackhole.consume(genotypeLikelihoodRatio.evaluateGenotype(SAMPLE_ID, gene, inheritanceModes));
+    }
+
+    /**
+     * A gene with the summary of the deleterious variants, without the variants.
+     */
+    private record WeightedGene(GeneIdentifier geneId, int deleteriousAlleleCount, double sumOfPathBinScores)
+            implements Gene2Genotype {
+
+        @Override
+        public Stream<LiricalVariant> variants() {
+            return Stream.empty();
+        }
+
+        @Override
+        public int variantCount() {
+            return deleteriousAlleleCount;
+        }
+
+        @Override
+        public int pathogenicClinVarCount(String sampleId) {
+            return 0;
+        }
+
+        @Override
+        public int deleteriousAlleleCount(String sampleId, float pathogenicityThreshold) {
+            return deleteriousAlleleCount;
+        }
+
+        @Override
+        public double getSumOfPathBinScores(String sampleId, float pathogenicityThreshold) {
+            return sumOfPathBinScores;
+        }
+    }
+}
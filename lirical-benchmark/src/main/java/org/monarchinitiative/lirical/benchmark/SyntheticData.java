@@ -0,0 +1,132 @@
+package org.monarchinitiative.lirical.benchmark;
+
+import org.monarchinitiative.lirical.core.analysis.AnalysisData;
+import org.monarchinitiative.lirical.core.model.GenesAndGenotypes;
+import org.monarchinitiative.lirical.core.model.Sex;
+import org.monarchinitiative.lirical.core.service.PhenotypeService;
+import org.monarchinitiative.phenol.annotations.base.Ratio;
+import org.monarchinitiative.phenol.annotations.formats.GeneIdentifiers;
+import org.monarchinitiative.phenol.annotations.formats.hpo.*;
+import org.monarchinitiative.phenol.ontology.data.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Reproducible synthetic HPO and disease annotations for the benchmarks.
+ * <p>
+ * The ontology has the size of the HPO: the terms below <em>Phenotypic abnormality</em> ({@code HP:0000118})
+ * have one or two parents chosen among the preceding terms, hence the terms are about 10 levels deep on average.
+ * The diseases are annotated with 1 to 40 terms with the frequencies similar to the HPO annotations,
+ * including the excluded terms. The data depend only on the {@code seed}.
+ */
+public class SyntheticData {
+
+    public static final int DEFAULT_TERM_COUNT = 17_000;
+    public static final int DEFAULT_DISEASE_COUNT = 12_000;
+    private static final TermId ROOT = TermId.of("HP:0000001");
+    private static final TermId PHENOTYPIC_ABNORMALITY = TermId.of("HP:0000118");
+
+    private final Ontology ontology;
+    private final List<TermId> terms;
+    private final HpoDiseases diseases;
+    private final Random random;
+
+    public static SyntheticData of(int termCount, int diseaseCount, long seed) {
+        return new SyntheticData(termCount, diseaseCount, seed);
+    }
+
+    private SyntheticData(int termCount, int diseaseCount, long seed) {
+        this.random = new Random(seed);
+        this.terms = new ArrayList<>(termCount);
+        List<Term> ontologyTerms = new ArrayList<>(termCount + 2);
+        List<Relationship> relationships = new ArrayList<>();
+        ontologyTerms.add(Term.of(ROOT, "All"));
+        ontologyTerms.add(Term.of(PHENOTYPIC_ABNORMALITY, "Phenotypic abnormality"));
+        relationships.add(Relationship.IS_A(PHENOTYPIC_ABNORMALITY, ROOT, relationships.size()));
+        for (int i = 0; i < termCount; i++) {
+            TermId termId = TermId.of("HP:%07d".formatted(1_000_000 + i));
+            ontologyTerms.add(Term.of(termId, "Term " + i));
+            Set<TermId> parents = new LinkedHashSet<>();
+            parents.add(parent(i));
+            if (random.nextInt(10) < 3)
+                parents.add(parent(i));
+            for (TermId parent : parents)
+                relationships.add(Relationship.IS_A(termId, parent, relationships.size()));
+            terms.add(termId);
+        }
+        this.ontology = ImmutableOntology.builder()
+                .terms(ontologyTerms)
+                .relationships(relationships)
+                .build();
+
+        List<HpoDisease> hpoDiseases = new ArrayList<>(diseaseCount);
+        for (int d = 0; d < diseaseCount; d++) {
+            int annotationCount = 1 + random.nextInt(40);
+            List<HpoDiseaseAnnotation> annotations = new ArrayList<>(annotationCount);
+            Set<TermId> annotated = new LinkedHashSet<>();
+            while (annotated.size() < annotationCount)
+                annotated.add(terms.get(random.nextInt(terms.size())));
+            for (TermId termId : annotated)
+                annotations.add(HpoDiseaseAnnotation.of(termId, List.of(HpoDiseaseAnnotationRecord.of(frequency(), null, List.of(), null, List.of()))));
+            hpoDiseases.add(HpoDisease.of(TermId.of("OMIM:%06d".formatted(100_000 + d)), "Disease " + d, null, annotations, List.of()));
+        }
+        this.diseases = HpoDiseases.of(hpoDiseases);
+    }
+
+    private TermId parent(int i) {
+        return i == 0 ? PHENOTYPIC_ABNORMALITY : terms.get(random.nextInt(i));
+    }
+
+    private Ratio frequency() {
+        int p = random.nextInt(100);
+        if (p < 40)
+            return Ratio.of(1, 1); // No frequency in the HPO annotation file.
+        if (p < 45)
+            return Ratio.of(0, 1); // Excluded.
+        if (p < 75) {
+            int denominator = 1 + random.nextInt(50);
+            return Ratio.of(1 + random.nextInt(denominator), denominator);
+        }
+        // The frequency categories, e.g. `HP:0040282` Frequent, 30% - 79%.
+        int[] categories = {100, 80, 30, 5, 1};
+        return Ratio.of(categories[random.nextInt(categories.length)], 100);
+    }
+
+    public Ontology ontology() {
+        return ontology;
+    }
+
+    public HpoDiseases diseases() {
+        return diseases;
+    }
+
+    /**
+     * @return the phenotype service without gene to disease associations, for the phenotype-only analyses.
+     */
+    public PhenotypeService phenotypeService() {
+        HpoAssociationData associationData = HpoAssociationData.of(GeneIdentifiers.of(List.of()),
+                List.of(),
+                DiseaseToGeneAssociations.of(List.of()));
+        return PhenotypeService.of(ontology, diseases, associationData);
+    }
+
+    /**
+     * @return a phenotype-only analysis subject with random observed and excluded terms.
+     */
+    public AnalysisData sample(String sampleId, int observedTermCount, int excludedTermCount) {
+        Set<TermId> observed = new LinkedHashSet<>();
+        while (observed.size() < observedTermCount)
+            observed.add(terms.get(random.nextInt(terms.size())));
+        Set<TermId> excluded = new LinkedHashSet<>();
+        while (excluded.size() < excludedTermCount) {
+            TermId term = terms.get(random.nextInt(terms.size()));
+            if (!observed.contains(term))
+                excluded.add(term);
+        }
+        return AnalysisData.of(sampleId, null, Sex.UNKNOWN, List.copyOf(observed), List.copyOf(excluded), GenesAndGenotypes.empty());
+    }
+}
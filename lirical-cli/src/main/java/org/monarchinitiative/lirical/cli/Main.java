@@ -39,6 +39,7 @@ public class Main implements Callable<Integer> {
                 .addSubcommand("prioritize", new PrioritizeCommand())
                 .addSubcommand("phenopacket", new PhenopacketCommand())
                 .addSubcommand("yaml", new YamlCommand())
+                .addSubcommand("convert-background", new ConvertBackgroundCommand())
                 // hidden commands
                 .addSubcommand("experimental", new ExperimentalCommand())
                 .addSubcommand("benchmark", new BenchmarkCommand());
@@ -0,0 +1,48 @@
+package org.monarchinitiative.lirical.cli.cmd;
+
+import org.monarchinitiative.lirical.io.background.BinaryBackgroundVariantFrequencies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Convert a background variant frequency file from the TSV format to the binary format
+ * that is memory-mapped by LIRICAL (see {@link BinaryBackgroundVariantFrequencies}).
+ * The binary file can be used with the {@code -b | --background} option.
+ */
+@CommandLine.Command(name = "convert-background",
+        sortOptions = false,
+        mixinStandardHelpOptions = true,
+        description = "Convert a background variant frequency file from TSV to the binary format.")
+public class ConvertBackgroundCommand extends BaseCommand {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConvertBackgroundCommand.class);
+
+    @CommandLine.Option(names = {"-i", "--input"},
+            required = true,
+            description = "Path to the background variant frequency file in the TSV format.")
+    public Path input;
+
+    @CommandLine.Option(names = {"-o", "--output"},
+            required = true,
+            description = "Path to the binary file to write.")
+    public Path output;
+
+    @Override
+    public Integer execute() {
+        LOGGER.info("Converting the background variant frequencies from {} to {}", input.toAbsolutePath(), output.toAbsolutePath());
+        try (BufferedReader reader = Files.newBufferedReader(input)) {
+            BinaryBackgroundVariantFrequencies.convert(reader, output);
+        } catch (IOException e) {
+            LOGGER.error("Unable to convert the background variant frequencies: {}", e.getMessage(), e);
+            return 1;
+        }
+        LOGGER.info("Done!");
+        return 0;
+    }
+}
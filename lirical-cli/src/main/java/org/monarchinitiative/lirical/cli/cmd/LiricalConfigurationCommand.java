@@ -78,7 +78,7 @@ abstract class LiricalConfigurationCommand extends BaseCommand {
         public Path exomiserHg38ClinVarDatabase = null;
 
         @CommandLine.Option(names = {"-b", "--background"},
-                description = "Path to non-default background frequency file.")
+                description = "Path to non-default background frequency file (TSV or binary).")
         public Path backgroundFrequencyFile = null;
 
         @CommandLine.Option(names = "--parallelism",
@@ -89,6 +89,15 @@ abstract class LiricalConfigurationCommand extends BaseCommand {
                 }
         )
         public int parallelism = 1;
+
+        @CommandLine.Option(names = "--phenotype-lr-cache-size",
+                description = {
+                        "The maximum number of phenotype likelihood ratios to cache for reuse across the analyses.",
+                        "Use 0 to disable the cache.",
+                        "Default: ${DEFAULT-VALUE}"
+                }
+        )
+        public int phenotypeLrCacheSize = 0;
     }
 
 
@@ -132,6 +141,22 @@ abstract class LiricalConfigurationCommand extends BaseCommand {
         )
         public List<String> targetDiseases= null;
 
+        @CommandLine.Option(names = {"--top-results"},
+                description = {
+                        "Retain only the given number of diseases with the highest post-test probabilities.",
+                        "Use 0 to retain all results.",
+                        "(default: ${DEFAULT-VALUE})."
+                })
+        public int topResultCount = 0;
+
+        @CommandLine.Option(names = {"--upper-bound-pruning"},
+                description = {
+                        "Skip the full evaluation of the diseases that cannot rank among the --top-results.",
+                        "The pruning does not change the results.",
+                        "(default: ${DEFAULT-VALUE})."
+                })
+        public boolean useUpperBoundPruning = false;
+
         @CommandLine.Option(names = {"--strict"},
                 description = "Use strict penalties if the genotype does not match the disease model in terms " +
                         "of number of called pathogenic alleles. (default: ${DEFAULT-VALUE}).")
@@ -211,6 +236,16 @@ abstract class LiricalConfigurationCommand extends BaseCommand {
             errors.add(msg);
         }
 
+        if (dataSection.phenotypeLrCacheSize < 0) {
+            String msg = "Phenotype LR cache size must not be negative but was %d".formatted(dataSection.phenotypeLrCacheSize);
+            errors.add(msg);
+        }
+
+        if (runConfiguration.topResultCount < 0) {
+            String msg = "Top result count must not be negative but was %d".formatted(runConfiguration.topResultCount);
+            errors.add(msg);
+        }
+
         if (runConfiguration.targetDiseases != null
                 && !runConfiguration.targetDiseases.stream()
                 .allMatch(DISEASE_ID.asMatchPredicate())) {
@@ -270,6 +305,7 @@ abstract class LiricalConfigurationCommand extends BaseCommand {
 
         return builder.shouldLoadOrpha2Gene(runConfiguration.useOrphanet)
                 .parallelism(dataSection.parallelism)
+                .phenotypeLrCacheSize(dataSection.phenotypeLrCacheSize)
                 .build();
     }
 
@@ -459,6 +495,13 @@ abstract class LiricalConfigurationCommand extends BaseCommand {
         LOGGER.debug("Showing diseases with no deleterious variants in the gene associated with the disease? {}", runConfiguration.showDiseasesWithNoDeleteriousVariants);
         builder.includeDiseasesWithNoDeleteriousVariants(!runConfiguration.showDiseasesWithNoDeleteriousVariants);
 
+        if (runConfiguration.topResultCount > 0)
+            LOGGER.debug("Retaining {} results with the highest post-test probabilities", runConfiguration.topResultCount);
+        builder.topResultCount(runConfiguration.topResultCount);
+
+        LOGGER.debug("Pruning the diseases that cannot rank among the top results? {}", runConfiguration.useUpperBoundPruning);
+        builder.useUpperBoundPruning(runConfiguration.useUpperBoundPruning);
+
         return builder.build();
     }
 
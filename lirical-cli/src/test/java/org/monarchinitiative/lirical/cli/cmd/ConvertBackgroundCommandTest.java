@@ -0,0 +1,49 @@
+package org.monarchinitiative.lirical.cli.cmd;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.lirical.core.service.BackgroundVariantFrequencyService;
+import org.monarchinitiative.lirical.io.background.BinaryBackgroundVariantFrequencies;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ConvertBackgroundCommandTest {
+
+    private static final String TSV = """
+            Gene\tEntrezId\tAFR\tAMR\tASJ\tEAS\tFIN\tNFE\tSAS\tMean
+            A1BG\t1\t0.1\t0.1\t0.1\t0.1\t0.1\t0.1\t0.1\t0.1
+            NAT2\t10\t0.2\t0.2\t0.2\t0.2\t0.2\t0.2\t0.2\t0.2
+            """;
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void convert() throws Exception {
+        ConvertBackgroundCommand cmd = new ConvertBackgroundCommand();
+        cmd.input = Files.writeString(tempDir.resolve("background.tsv"), TSV);
+        cmd.output = tempDir.resolve("background.bin");
+
+        assertThat(cmd.execute(), equalTo(0));
+
+        assertThat(BinaryBackgroundVariantFrequencies.isBinaryFormat(cmd.output), equalTo(true));
+        BackgroundVariantFrequencyService service = BinaryBackgroundVariantFrequencies.load(cmd.output, .5);
+        assertThat(service.frequencyForGeneOrDefault(TermId.of("NCBIGene:10")), equalTo(.2));
+        assertThat(service.frequencyForGeneOrDefault(TermId.of("NCBIGene:2")), equalTo(.5));
+    }
+
+    @Test
+    public void missingInput() {
+        ConvertBackgroundCommand cmd = new ConvertBackgroundCommand();
+        cmd.input = tempDir.resolve("missing.tsv");
+        cmd.output = tempDir.resolve("background.bin");
+
+        assertThat(cmd.execute(), equalTo(1));
+        assertThat(Files.exists(cmd.output), equalTo(false));
+    }
+}
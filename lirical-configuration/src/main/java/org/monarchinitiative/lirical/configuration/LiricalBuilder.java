@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -59,6 +60,8 @@ public class LiricalBuilder {
     private FunctionalVariantAnnotatorService functionalVariantAnnotatorService = null;
 
     private int parallelism = 1;
+    private int phenotypeLrCacheSize = 0;
+    private ForkJoinPool executor = null;
 
     public static LiricalBuilder builder(Path liricalDataDirectory) throws LiricalDataException {
         return new LiricalBuilder(liricalDataDirectory);
@@ -135,6 +138,27 @@ public class LiricalBuilder {
         return this;
     }
 
+    /**
+     * Set the maximum number of phenotype likelihood ratios to cache for reuse in the subsequent analyses.
+     * The likelihood ratios are not cached if the size is {@code 0} (default).
+     */
+    public LiricalBuilder phenotypeLrCacheSize(int phenotypeLrCacheSize) {
+        if (phenotypeLrCacheSize < 0)
+            throw new IllegalArgumentException("Phenotype LR cache size %d must not be negative".formatted(phenotypeLrCacheSize));
+        this.phenotypeLrCacheSize = phenotypeLrCacheSize;
+        return this;
+    }
+
+    /**
+     * Set the pool to run the analyses in, e.g. a pool shared by several LIRICAL instances.
+     * The {@link #parallelism(int)} is ignored if the pool is set, and the pool is not shut down
+     * when LIRICAL is closed. A new pool is created if the pool is {@code null} (default).
+     */
+    public LiricalBuilder executor(ForkJoinPool executor) {
+        this.executor = executor;
+        return this;
+    }
+
     public Lirical build() throws LiricalDataException {
         if (phenotypeService == null) {
             Set<DiseaseDatabase> databases;
@@ -182,7 +206,7 @@ public class LiricalBuilder {
         AnalysisResultWriterFactory analysisResultWriterFactory = new AnalysisResultWriterFactoryImpl(phenotypeService.hpo(), phenotypeService.diseases());
 
         // Last, the global options.
-        LiricalOptions options = new LiricalOptions(LIRICAL_VERSION, parallelism);
+        LiricalOptions options = new LiricalOptions(LIRICAL_VERSION, parallelism, phenotypeLrCacheSize, executor);
 
         return Lirical.of(
                 variantParserFactory,
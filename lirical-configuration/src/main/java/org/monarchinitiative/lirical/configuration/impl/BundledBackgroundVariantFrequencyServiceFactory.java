@@ -15,7 +15,14 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * A {@link BackgroundVariantFrequencyServiceFactory} that uses the frequency files bundled with LIRICAL.
+ * <p>
+ * The frequency file of a genome build is parsed on the first request, and the service is cached
+ * for the subsequent requests with the same default frequency.
+ */
 public class BundledBackgroundVariantFrequencyServiceFactory implements BackgroundVariantFrequencyServiceFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BundledBackgroundVariantFrequencyServiceFactory.class);
@@ -26,18 +33,27 @@ public class BundledBackgroundVariantFrequencyServiceFactory implements Backgrou
         return INSTANCE;
     }
 
+    private final Map<CacheKey, BackgroundVariantFrequencyService> services = new ConcurrentHashMap<>();
+
     private BundledBackgroundVariantFrequencyServiceFactory() {
     }
 
     @Override
     public Optional<BackgroundVariantFrequencyService> forGenomeBuild(GenomeBuild genomeBuild,
                                                                       double defaultVariantBackgroundFrequency) {
+        // The services that cannot be created are not cached.
+        return Optional.ofNullable(services.computeIfAbsent(new CacheKey(genomeBuild, defaultVariantBackgroundFrequency),
+                key -> createService(key.genomeBuild(), key.defaultVariantBackgroundFrequency())));
+    }
+
+    private static BackgroundVariantFrequencyService createService(GenomeBuild genomeBuild,
+                                                                   double defaultVariantBackgroundFrequency) {
         try (BufferedReader br = openBundledBackgroundFrequencyFile(genomeBuild)) {
             Map<TermId, Double> frequencyMap = BackgroundVariantFrequencyParser.parse(br);
-            return Optional.of(BackgroundVariantFrequencyService.of(frequencyMap, defaultVariantBackgroundFrequency));
+            return BackgroundVariantFrequencyService.of(frequencyMap, defaultVariantBackgroundFrequency);
         } catch (IOException e) {
             LOGGER.warn("Cannot configure background variant frequency service for {}: {}", genomeBuild, e.getMessage(), e);
-            return Optional.empty();
+            return null;
         }
     }
 
@@ -52,4 +68,7 @@ public class BundledBackgroundVariantFrequencyServiceFactory implements Backgrou
         LOGGER.debug("Loading bundled background variant frequencies from {}", name);
         return new BufferedReader(new InputStreamReader(is));
     }
+
+    private record CacheKey(GenomeBuild genomeBuild, double defaultVariantBackgroundFrequency) {
+    }
 }
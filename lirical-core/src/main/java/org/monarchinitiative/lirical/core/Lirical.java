@@ -47,7 +47,7 @@ public class Lirical {
         this.variantMetadataServiceFactory = Objects.requireNonNull(variantMetadataServiceFactory);
         this.functionalVariantAnnotatorService = Objects.requireNonNull(functionalVariantAnnotatorService);
         this.options = Objects.requireNonNull(options);
-        this.analysisRunner = LiricalAnalysisRunnerImpl.of(phenotypeService, backgroundVariantFrequencyServiceFactory, options.parallelism());
+        this.analysisRunner = LiricalAnalysisRunnerImpl.of(phenotypeService, backgroundVariantFrequencyServiceFactory, options);
         this.analysisResultWriterFactory = Objects.requireNonNull(analysisResultWriterFactory);
     }
 
@@ -1,6 +1,7 @@
 package org.monarchinitiative.lirical.core;
 
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Global options to parameterize LIRICAL execution.
@@ -11,10 +12,31 @@ public class LiricalOptions {
 
     private final String version; // nullable
     private final int parallelism;
+    private final int phenotypeLrCacheSize;
+    private final ForkJoinPool executor; // nullable
 
     public LiricalOptions(String version, int parallelism) {
+        this(version, parallelism, 0);
+    }
+
+    /**
+     * @param phenotypeLrCacheSize the maximum number of phenotype likelihood ratios to cache for reuse
+     *                             in the subsequent analyses or {@code 0} if the likelihood ratios should not be cached.
+     */
+    public LiricalOptions(String version, int parallelism, int phenotypeLrCacheSize) {
+        this(version, parallelism, phenotypeLrCacheSize, null);
+    }
+
+    /**
+     * @param executor the pool to run the analyses in or {@code null} if LIRICAL should create its own pool
+     *                 with {@code parallelism} workers. The pool can be shared with other components,
+     *                 and it is not shut down when LIRICAL is closed.
+     */
+    public LiricalOptions(String version, int parallelism, int phenotypeLrCacheSize, ForkJoinPool executor) {
         this.version = version;
         this.parallelism = parallelism;
+        this.phenotypeLrCacheSize = phenotypeLrCacheSize;
+        this.executor = executor;
     }
 
     public Optional<String> version() {
@@ -24,4 +46,12 @@ public class LiricalOptions {
     public int parallelism() {
         return parallelism;
     }
+
+    public int phenotypeLrCacheSize() {
+        return phenotypeLrCacheSize;
+    }
+
+    public Optional<ForkJoinPool> executor() {
+        return Optional.ofNullable(executor);
+    }
 }
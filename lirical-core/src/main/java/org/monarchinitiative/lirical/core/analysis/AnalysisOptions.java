@@ -8,6 +8,7 @@ import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -19,6 +20,13 @@ public interface AnalysisOptions {
         return new Builder();
     }
 
+    /**
+     * @return a builder initialized with the values of the {@code options}.
+     */
+    static Builder builder(AnalysisOptions options) {
+        return new Builder(options);
+    }
+
     /**
      * @return genome build to use in the analysis
      * or {@code null} to run a phenotype-only analysis.
@@ -79,6 +87,58 @@ public interface AnalysisOptions {
      */
     boolean includeDiseasesWithNoDeleteriousVariants();
 
+    /**
+     * Limit the analysis results to the diseases with the highest posttest probabilities.
+     * <p>
+     * The results that do not rank among the top results are discarded during the analysis
+     * and only their count is reported in the {@link AnalysisSummary}.
+     *
+     * @return the maximum number of results to retain or {@code 0} if all results should be retained.
+     */
+    default int topResultCount() {
+        return 0;
+    }
+
+    /**
+     * Skip the full evaluation of the diseases whose upper bound of the posttest probability cannot reach
+     * the {@link #topResultCount()} best results. The pruning does not change the results.
+     * The option is used only if the {@link #topResultCount()} is set.
+     *
+     * @return <code>true</code> if the diseases should be pruned.
+     */
+    default boolean useUpperBoundPruning() {
+        return false;
+    }
+
+    /**
+     * Limit the duration of the analysis. The deadline is checked before evaluating each disease.
+     *
+     * @return the maximum duration of the analysis or {@code null} if the analysis is not time-boxed.
+     */
+    default Duration timeout() {
+        return null;
+    }
+
+    /**
+     * Return the results of the diseases evaluated before the {@link #timeout()} expired instead of failing
+     * the analysis. The {@link AnalysisSummary} of the partial results reports the number of the evaluated diseases.
+     *
+     * @return <code>true</code> if the partial results should be returned.
+     */
+    default boolean returnPartialResults() {
+        return false;
+    }
+
+    /**
+     * Limit the number of the workers that evaluate the diseases of the analysis. The limit allows several
+     * concurrent analyses to share the workers of a single pool fairly.
+     *
+     * @return the maximum number of the workers or {@code 0} if the analysis can use all workers of the pool.
+     */
+    default int parallelism() {
+        return 0;
+    }
+
     /**
      * A builder for {@link AnalysisOptions}.
      * <p>
@@ -97,10 +157,34 @@ public interface AnalysisOptions {
         private boolean useGlobal = false;
         private PretestDiseaseProbability pretestDiseaseProbability = null;
         private boolean includeDiseasesWithNoDeleteriousVariants = false;
+        private int topResultCount = 0; // 0 = retain all results
+        private boolean useUpperBoundPruning = false;
+        private Duration timeout = null; // null = no timeout
+        private boolean returnPartialResults = false;
+        private int parallelism = 0; // 0 = use all workers
 
         private Builder() {
         }
 
+        private Builder(AnalysisOptions options) {
+            this.genomeBuild = options.genomeBuild();
+            this.transcriptDatabase = options.transcriptDatabase();
+            this.diseaseDatabases.clear();
+            this.diseaseDatabases.addAll(options.diseaseDatabases());
+            this.targetDiseases = options.targetDiseases() == null ? null : new HashSet<>(options.targetDiseases());
+            this.variantDeleteriousnessThreshold = options.variantDeleteriousnessThreshold();
+            this.defaultVariantBackgroundFrequency = options.defaultVariantBackgroundFrequency();
+            this.useStrictPenalties = options.useStrictPenalties();
+            this.useGlobal = options.useGlobal();
+            this.pretestDiseaseProbability = options.pretestDiseaseProbability();
+            this.includeDiseasesWithNoDeleteriousVariants = options.includeDiseasesWithNoDeleteriousVariants();
+            this.topResultCount = options.topResultCount();
+            this.useUpperBoundPruning = options.useUpperBoundPruning();
+            this.timeout = options.timeout();
+            this.returnPartialResults = options.returnPartialResults();
+            this.parallelism = options.parallelism();
+        }
+
         public Builder genomeBuild(GenomeBuild genomeBuild) {
             this.genomeBuild = genomeBuild;
             return this;
@@ -209,6 +293,43 @@ public interface AnalysisOptions {
             return this;
         }
 
+        public Builder topResultCount(int topResultCount) {
+            if (topResultCount < 0) {
+                LOGGER.warn("Top result count must not be negative: {}. Retaining {}", topResultCount, this.topResultCount);
+                return this;
+            }
+            this.topResultCount = topResultCount;
+            return this;
+        }
+
+        public Builder useUpperBoundPruning(boolean useUpperBoundPruning) {
+            this.useUpperBoundPruning = useUpperBoundPruning;
+            return this;
+        }
+
+        public Builder timeout(Duration timeout) {
+            if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+                LOGGER.warn("Timeout must be positive: {}. Retaining {}", timeout, this.timeout);
+                return this;
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder returnPartialResults(boolean returnPartialResults) {
+            this.returnPartialResults = returnPartialResults;
+            return this;
+        }
+
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 0) {
+                LOGGER.warn("Parallelism must not be negative: {}. Retaining {}", parallelism, this.parallelism);
+                return this;
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
         public AnalysisOptions build() {
             return new AnalysisOptionsDefault(genomeBuild,
                     transcriptDatabase,
@@ -219,7 +340,12 @@ public interface AnalysisOptions {
                     useStrictPenalties,
                     useGlobal,
                     pretestDiseaseProbability,
-                    includeDiseasesWithNoDeleteriousVariants);
+                    includeDiseasesWithNoDeleteriousVariants,
+                    topResultCount,
+                    useUpperBoundPruning,
+                    timeout,
+                    returnPartialResults,
+                    parallelism);
         }
     }
 
@@ -6,6 +6,7 @@ import org.monarchinitiative.lirical.core.model.TranscriptDatabase;
 import org.monarchinitiative.phenol.annotations.io.hpo.DiseaseDatabase;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Set;
 
@@ -19,6 +20,11 @@ record AnalysisOptionsDefault(
         boolean useStrictPenalties,
         boolean useGlobal,
         PretestDiseaseProbability pretestDiseaseProbability,
-        boolean includeDiseasesWithNoDeleteriousVariants
+        boolean includeDiseasesWithNoDeleteriousVariants,
+        int topResultCount,
+        boolean useUpperBoundPruning,
+        Duration timeout,
+        boolean returnPartialResults,
+        int parallelism
 ) implements AnalysisOptions {
 }
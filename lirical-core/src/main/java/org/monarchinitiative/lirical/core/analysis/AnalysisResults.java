@@ -19,9 +19,13 @@ public interface AnalysisResults extends Iterable<TestResult> {
     }
 
     static AnalysisResults of(List<TestResult> results) {
-        if (results.isEmpty())
+        return of(results, AnalysisSummary.of(results.size()));
+    }
+
+    static AnalysisResults of(List<TestResult> results, AnalysisSummary summary) {
+        if (results.isEmpty() && summary.evaluatedDiseaseCount() == 0)
             return AnalysisResultsDefault.empty();
-        return new AnalysisResultsDefault(results);
+        return new AnalysisResultsDefault(results, summary);
     }
 
     /**
@@ -43,9 +47,21 @@ public interface AnalysisResults extends Iterable<TestResult> {
         return StreamSupport.stream(spliterator(), false);
     }
 
+    /**
+     * @return the results sorted by the posttest probability in descending order. The results
+     * with the same posttest probability are kept in the order of {@link #results()}.
+     */
     @JsonIgnore
     default Stream<TestResult> resultsWithDescendingPostTestProbability() {
         return results().sorted(Comparator.comparingDouble(TestResult::posttestProbability).reversed());
     }
 
+    /**
+     * @return the summary of the analysis that produced the results.
+     */
+    @JsonIgnore
+    default AnalysisSummary summary() {
+        return AnalysisSummary.of(size());
+    }
+
 }
@@ -5,10 +5,11 @@ import org.monarchinitiative.phenol.ontology.data.TermId;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 final class AnalysisResultsDefault implements AnalysisResults {
 
-    private static final AnalysisResultsDefault EMPTY = new AnalysisResultsDefault(List.of());
+    private static final AnalysisResultsDefault EMPTY = new AnalysisResultsDefault(List.of(), AnalysisSummary.of(0));
 
     static AnalysisResultsDefault empty() {
         return EMPTY;
@@ -18,10 +19,16 @@ final class AnalysisResultsDefault implements AnalysisResults {
 
     private final Map<TermId, TestResult> resultByDiseaseId;
 
-    AnalysisResultsDefault(List<TestResult> results) {
+    private final AnalysisSummary summary;
+
+    // The results are sorted on the first request and the sorted list is reused by the subsequent requests.
+    private volatile List<TestResult> resultsWithDescendingPostTestProbability;
+
+    AnalysisResultsDefault(List<TestResult> results, AnalysisSummary summary) {
         this.results = Objects.requireNonNull(results);
         this.resultByDiseaseId = results.stream()
                 .collect(Collectors.toMap(TestResult::diseaseId, Function.identity()));
+        this.summary = Objects.requireNonNull(summary);
     }
 
     @Override
@@ -39,6 +46,21 @@ final class AnalysisResultsDefault implements AnalysisResults {
         return Optional.ofNullable(resultByDiseaseId.get(diseaseId));
     }
 
+    @Override
+    public Stream<TestResult> resultsWithDescendingPostTestProbability() {
+        List<TestResult> sorted = resultsWithDescendingPostTestProbability;
+        if (sorted == null) {
+            sorted = AnalysisResults.super.resultsWithDescendingPostTestProbability().toList();
+            resultsWithDescendingPostTestProbability = sorted;
+        }
+        return sorted.stream();
+    }
+
+    @Override
+    public AnalysisSummary summary() {
+        return summary;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) return true;
@@ -55,7 +77,8 @@ final class AnalysisResultsDefault implements AnalysisResults {
     @Override
     public String toString() {
         return "AnalysisResultsDefault[" +
-                "results=" + results + ']';
+                "results=" + results +
+                ", summary=" + summary + ']';
     }
 
 }
@@ -0,0 +1,64 @@
+package org.monarchinitiative.lirical.core.analysis;
+
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+/**
+ * A stateful analysis of a single subject, where the phenotype terms are added or removed one at a time,
+ * e.g. during the curation of the case, and the results are updated after each change.
+ * <p>
+ * The implementations can keep the likelihood ratios of the current terms for each evaluated disease, so that adding
+ * a term calculates the likelihood ratios of the new term only, and removing a term discards its likelihood ratios.
+ * The {@link #results()} are the same as the results of
+ * {@link LiricalAnalysisRunner#run(AnalysisData, AnalysisOptions)} with the current {@link #analysisData()}.
+ * The session does not use the upper-bound pruning, as it needs the LRs of all diseases, hence the diseases
+ * outside of the top results are reported as discarded rather than pruned.
+ * <p>
+ * The session is <em>NOT</em> thread safe.
+ */
+public interface AnalysisSession {
+
+    /**
+     * @return the analysis subject with the current phenotype terms.
+     */
+    AnalysisData analysisData();
+
+    AnalysisOptions analysisOptions();
+
+    /**
+     * Add an observed phenotype term to the analysis.
+     *
+     * @return {@code true} if the term was added or {@code false} if the term is already present.
+     * @throws LiricalAnalysisException if the likelihood ratios of the term cannot be calculated.
+     */
+    boolean addObservedTerm(TermId termId) throws LiricalAnalysisException;
+
+    /**
+     * Remove an observed phenotype term from the analysis.
+     *
+     * @return {@code true} if the term was removed or {@code false} if the term is not present.
+     * @throws LiricalAnalysisException if the analysis cannot be updated.
+     */
+    boolean removeObservedTerm(TermId termId) throws LiricalAnalysisException;
+
+    /**
+     * Add an excluded phenotype term to the analysis.
+     *
+     * @return {@code true} if the term was added or {@code false} if the term is already present.
+     * @throws LiricalAnalysisException if the likelihood ratios of the term cannot be calculated.
+     */
+    boolean addExcludedTerm(TermId termId) throws LiricalAnalysisException;
+
+    /**
+     * Remove an excluded phenotype term from the analysis.
+     *
+     * @return {@code true} if the term was removed or {@code false} if the term is not present.
+     * @throws LiricalAnalysisException if the analysis cannot be updated.
+     */
+    boolean removeExcludedTerm(TermId termId) throws LiricalAnalysisException;
+
+    /**
+     * @return the results of the analysis with the current phenotype terms.
+     */
+    AnalysisResults results();
+
+}
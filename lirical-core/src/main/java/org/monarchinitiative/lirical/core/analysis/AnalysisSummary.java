@@ -0,0 +1,27 @@
+package org.monarchinitiative.lirical.core.analysis;
+
+/**
+ * A compact summary of an analysis run with the counts of the diseases that did not make it
+ * into the {@link AnalysisResults}.
+ *
+ * @param evaluatedDiseaseCount the number of diseases that passed the disease database and target disease filters.
+ * @param genotypeFilteredDiseaseCount the number of diseases discarded by the genotype checks, e.g. due to no
+ *                                     deleterious variants in the associated genes or no associated gene.
+ * @param discardedResultCount the number of test results discarded because they did not rank
+ *                             among the {@link AnalysisOptions#topResultCount()} best results.
+ * @param prunedDiseaseCount the number of diseases that were not fully evaluated because their upper bound
+ *                           could not rank among the {@link AnalysisOptions#topResultCount()} best results.
+ */
+public record AnalysisSummary(int evaluatedDiseaseCount,
+                              int genotypeFilteredDiseaseCount,
+                              int discardedResultCount,
+                              int prunedDiseaseCount) {
+
+    /**
+     * @return a summary of an analysis where all {@code resultCount} results were retained.
+     */
+    public static AnalysisSummary of(int resultCount) {
+        return new AnalysisSummary(resultCount, 0, 0, 0);
+    }
+
+}
@@ -1,6 +1,12 @@
 package org.monarchinitiative.lirical.core.analysis;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The analysis runner runs LIRICAL analysis on provided analysis subject ({@link AnalysisData}). The analysis
@@ -18,8 +24,114 @@ public interface LiricalAnalysisRunner extends Closeable {
      * @throws LiricalAnalysisException if the analysis cannot be run, e.g. due to missing resource,
      * such as {@linkplain org.monarchinitiative.lirical.core.service.FunctionalVariantAnnotator} for a combination
      * of {@linkplain org.monarchinitiative.lirical.core.model.GenomeBuild}
-     * and {@linkplain org.monarchinitiative.lirical.core.model.TranscriptDatabase}
+     * and {@linkplain org.monarchinitiative.lirical.core.model.TranscriptDatabase},
+     * or if the {@link AnalysisOptions#timeout()} expired and the partial results were not requested
      */
     AnalysisResults run(AnalysisData analysisData, AnalysisOptions analysisOptions) throws LiricalAnalysisException;
 
+    /**
+     * Run analysis parametrized by {@code analysisOptions} on {@code analysisData} asynchronously.
+     * <p>
+     * The implementations can stop the analysis if the returned future is cancelled or completed exceptionally,
+     * e.g. by {@link CompletableFuture#orTimeout(long, TimeUnit)}. The default implementation runs
+     * {@link #run(AnalysisData, AnalysisOptions)} in the {@link ForkJoinPool#commonPool()}
+     * and does not stop the analysis.
+     *
+     * @param analysisData data representing the analysis subject.
+     * @param analysisOptions analysis parameters.
+     * @return a future with the results, completed exceptionally with {@link LiricalAnalysisException}
+     * if the analysis cannot be run (see {@link #run(AnalysisData, AnalysisOptions)})
+     */
+    default CompletableFuture<AnalysisResults> runAsync(AnalysisData analysisData, AnalysisOptions analysisOptions) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return run(analysisData, analysisOptions);
+            } catch (LiricalAnalysisException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Run analysis parametrized by {@code analysisOptions} on each of the {@code analysisData}.
+     * <p>
+     * The results are the same as if {@link #run(AnalysisData, AnalysisOptions)} was called for each subject.
+     * However, the implementations can share the per-disease work among the subjects of the batch. The default
+     * implementation analyzes the subjects one by one.
+     *
+     * @param analysisData data representing the analysis subjects.
+     * @param analysisOptions analysis parameters shared by all subjects.
+     * @return a list with a container with results for each subject, in the order of {@code analysisData}
+     * @throws LiricalAnalysisException if the analysis cannot be run (see {@link #run(AnalysisData, AnalysisOptions)})
+     */
+    default List<AnalysisResults> runBatch(List<AnalysisData> analysisData, AnalysisOptions analysisOptions) throws LiricalAnalysisException {
+        List<AnalysisResults> results = new ArrayList<>(analysisData.size());
+        for (AnalysisData data : analysisData)
+            results.add(run(data, analysisOptions));
+        return results;
+    }
+
+    /**
+     * Run analysis of the {@code analysisData} parametrized by each of the {@code analysisOptions}.
+     * <p>
+     * The results are the same as if {@link #run(AnalysisData, AnalysisOptions)} was called with each options.
+     * However, the implementations can calculate the phenotype likelihood ratios once per disease and only
+     * re-derive the option-dependent genotype likelihood ratios and filters. The default implementation
+     * runs the analyses one by one.
+     *
+     * @param analysisData data representing the analysis subject.
+     * @param analysisOptions the variants of the analysis parameters.
+     * @return a list with a container with results for each options, in the order of {@code analysisOptions}
+     * @throws LiricalAnalysisException if the analysis cannot be run (see {@link #run(AnalysisData, AnalysisOptions)})
+     */
+    default List<AnalysisResults> runWithOptions(AnalysisData analysisData, List<AnalysisOptions> analysisOptions) throws LiricalAnalysisException {
+        List<AnalysisResults> results = new ArrayList<>(analysisOptions.size());
+        for (AnalysisOptions options : analysisOptions)
+            results.add(run(analysisData, options));
+        return results;
+    }
+
+    /**
+     * Run analysis of the {@code analysisData} parametrized by {@code analysisOptions} with each of the variant
+     * deleteriousness {@code thresholds}, e.g. to assess the sensitivity of the results to the threshold.
+     * <p>
+     * The results are the same as if {@link #runWithOptions(AnalysisData, List)} was called with the options
+     * that differ only in {@link AnalysisOptions#variantDeleteriousnessThreshold()}, and the default implementation
+     * does exactly that. Hence, the thresholds share the work that the implementation of
+     * {@link #runWithOptions(AnalysisData, List)} shares among the options, e.g. the phenotype likelihood ratios.
+     *
+     * @param analysisData data representing the analysis subject.
+     * @param analysisOptions analysis parameters shared by all thresholds.
+     * @param thresholds the variant deleteriousness thresholds.
+     * @return a list with a container with results for each threshold, in the order of {@code thresholds}
+     * @throws LiricalAnalysisException if the analysis cannot be run (see {@link #run(AnalysisData, AnalysisOptions)})
+     */
+    default List<AnalysisResults> runThresholdSweep(AnalysisData analysisData,
+                                                    AnalysisOptions analysisOptions,
+                                                    List<Float> thresholds) throws LiricalAnalysisException {
+        List<AnalysisOptions> options = new ArrayList<>(thresholds.size());
+        for (float threshold : thresholds)
+            options.add(AnalysisOptions.builder(analysisOptions)
+                    .variantDeleteriousnessThreshold(threshold)
+                    .build());
+        return runWithOptions(analysisData, options);
+    }
+
+    /**
+     * Start an {@link AnalysisSession} for re-analyzing the {@code analysisData} incrementally, as the phenotype terms
+     * are added or removed.
+     * <p>
+     * The session may use the resources of the runner, hence it must not be used after the runner is closed.
+     * The default implementation runs {@link #run(AnalysisData, AnalysisOptions)} again after each change
+     * of the phenotype terms.
+     *
+     * @param analysisData data representing the analysis subject with the initial phenotype terms.
+     * @param analysisOptions analysis parameters.
+     * @return the session with the results of the initial phenotype terms
+     * @throws LiricalAnalysisException if the analysis cannot be run (see {@link #run(AnalysisData, AnalysisOptions)})
+     */
+    default AnalysisSession startSession(AnalysisData analysisData, AnalysisOptions analysisOptions) throws LiricalAnalysisException {
+        return new RerunAnalysisSession(this, analysisData, analysisOptions);
+    }
+
 }
@@ -0,0 +1,110 @@
+package org.monarchinitiative.lirical.core.analysis;
+
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An {@link AnalysisSession} that runs the analysis again with all current phenotype terms after each change.
+ * <p>
+ * The session is used by the runners that cannot update the results incrementally. The analysis runs without
+ * the upper-bound pruning, as required by the {@link AnalysisSession}. The terms are changed only if the analysis
+ * with the changed terms succeeds.
+ */
+final class RerunAnalysisSession implements AnalysisSession {
+
+    private final LiricalAnalysisRunner runner;
+    private final AnalysisOptions options;
+    private final AnalysisOptions runOptions;
+    private AnalysisData analysisData;
+    private AnalysisResults results;
+
+    RerunAnalysisSession(LiricalAnalysisRunner runner,
+                         AnalysisData analysisData,
+                         AnalysisOptions options) throws LiricalAnalysisException {
+        this.runner = Objects.requireNonNull(runner);
+        this.options = Objects.requireNonNull(options);
+        this.runOptions = options.useUpperBoundPruning()
+                ? AnalysisOptions.builder(options).useUpperBoundPruning(false).build()
+                : options;
+        this.analysisData = Objects.requireNonNull(analysisData);
+        this.results = runner.run(analysisData, runOptions);
+    }
+
+    @Override
+    public AnalysisData analysisData() {
+        return analysisData;
+    }
+
+    @Override
+    public AnalysisOptions analysisOptions() {
+        return options;
+    }
+
+    @Override
+    public boolean addObservedTerm(TermId termId) throws LiricalAnalysisException {
+        List<TermId> observed = analysisData.presentPhenotypeTerms();
+        if (observed.contains(termId))
+            return false;
+        update(added(observed, termId), analysisData.negatedPhenotypeTerms());
+        return true;
+    }
+
+    @Override
+    public boolean removeObservedTerm(TermId termId) throws LiricalAnalysisException {
+        List<TermId> observed = analysisData.presentPhenotypeTerms();
+        if (!observed.contains(termId))
+            return false;
+        update(removed(observed, termId), analysisData.negatedPhenotypeTerms());
+        return true;
+    }
+
+    @Override
+    public boolean addExcludedTerm(TermId termId) throws LiricalAnalysisException {
+        List<TermId> excluded = analysisData.negatedPhenotypeTerms();
+        if (excluded.contains(termId))
+            return false;
+        update(analysisData.presentPhenotypeTerms(), added(excluded, termId));
+        return true;
+    }
+
+    @Override
+    public boolean removeExcludedTerm(TermId termId) throws LiricalAnalysisException {
+        List<TermId> excluded = analysisData.negatedPhenotypeTerms();
+        if (!excluded.contains(termId))
+            return false;
+        update(analysisData.presentPhenotypeTerms(), removed(excluded, termId));
+        return true;
+    }
+
+    @Override
+    public AnalysisResults results() {
+        return results;
+    }
+
+    private void update(List<TermId> observed, List<TermId> excluded) throws LiricalAnalysisException {
+        AnalysisData updated = AnalysisData.of(analysisData.sampleId(),
+                analysisData.age().orElse(null),
+                analysisData.sex(),
+                observed,
+                excluded,
+                analysisData.genes());
+        results = runner.run(updated, runOptions);
+        analysisData = updated;
+    }
+
+    private static List<TermId> added(List<TermId> terms, TermId termId) {
+        List<TermId> added = new ArrayList<>(terms.size() + 1);
+        added.addAll(terms);
+        added.add(termId);
+        return added;
+    }
+
+    private static List<TermId> removed(List<TermId> terms, TermId termId) {
+        List<TermId> removed = new ArrayList<>(terms);
+        removed.remove(termId);
+        return removed;
+    }
+}
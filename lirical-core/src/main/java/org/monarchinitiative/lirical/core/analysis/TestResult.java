@@ -3,8 +3,10 @@ package org.monarchinitiative.lirical.core.analysis;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.monarchinitiative.lirical.core.likelihoodratio.CompositeLikelihoodRatio;
 import org.monarchinitiative.lirical.core.likelihoodratio.GenotypeLrWithExplanation;
 import org.monarchinitiative.lirical.core.likelihoodratio.LrWithExplanation;
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLrList;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
 import java.util.List;
@@ -21,6 +23,12 @@ import java.util.stream.Collectors;
  * This object can include the result of a likelihood ratio for a genotype test. However,
  * not every disease is associated with a known disease gene. Therefore, if no genotype is available,
  * {@link #genotypeLr} is null.
+ * <p>
+ * The phenotype results are usually provided as {@link PhenotypeLrList}s that keep the likelihood ratios
+ * in primitive arrays and create the {@link LrWithExplanation} elements on demand.
+ * <p>
+ * The composite LR and the posttest probability are calculated in the log-space if the product
+ * of the LRs overflows or underflows (see {@link CompositeLikelihoodRatio}).
  *
  * @author <a href="mailto:peter.robinson@jax.org">Peter Robinson</a>
  * @version 0.4.5 (2019-10-28)
@@ -36,6 +44,7 @@ public class TestResult implements Comparable<TestResult> {
     private final double pretestProbability;
     /**
      * A list of results for the tests performed on observed phenotypes for {@link #diseaseId}.
+     * The list is usually a {@link PhenotypeLrList}.
      */
     private final List<LrWithExplanation> observedResults;
     /**
@@ -82,27 +91,73 @@ public class TestResult implements Comparable<TestResult> {
         this.pretestProbability = pretestProbability;
         this.observedResults = Objects.requireNonNull(observedResults);
         this.excludedResults = Objects.requireNonNull(excludedResults);
-        this.compositeLR = calculateCompositeLR(observedResults, excludedResults, genotypeLr);
-        this.posttestProbability = calculatePosttestProbability();
+        double compositeLR = calculateCompositeLR(observedResults, excludedResults, genotypeLr);
+        double posttestOdds = pretestOdds() * compositeLR;
+        if (!CompositeLikelihoodRatio.isOutOfRange(compositeLR) && !CompositeLikelihoodRatio.isOutOfRange(posttestOdds)) {
+            this.compositeLR = compositeLR;
+            this.posttestProbability = posttestOdds / (1 + posttestOdds);
+        } else {
+            double logLr = calculateLogCompositeLR(observedResults, excludedResults, genotypeLr);
+            this.compositeLR = CompositeLikelihoodRatio.isOutOfRange(compositeLR) ? Math.exp(logLr) : compositeLR;
+            this.posttestProbability = CompositeLikelihoodRatio.posttestProbability(pretestProbability, logLr);
+        }
         this.genotypeLr = genotypeLr; // nullable
     }
 
     private static double calculateCompositeLR(List<LrWithExplanation> observed, List<LrWithExplanation> excluded, GenotypeLrWithExplanation genotypeLR) {
         // the composite ratio is equal to the product of the phenotype LR's
         // multiplied by the genotype LR.
-        double observedLr = observed.stream().map(LrWithExplanation::lr).reduce(1.0, (a, b) -> a * b);
-        double excludedLr = excluded.stream().map(LrWithExplanation::lr).reduce(1.0, (a, b) -> a * b);
+        double observedLr = lrProduct(observed);
+        double excludedLr = lrProduct(excluded);
         double genotypeLrForCalculationOfCompositeLr = genotypeLR == null ? 1 : genotypeLR.lr();
         return observedLr * excludedLr * genotypeLrForCalculationOfCompositeLr;
     }
 
+    private static double calculateLogCompositeLR(List<LrWithExplanation> observed, List<LrWithExplanation> excluded, GenotypeLrWithExplanation genotypeLR) {
+        double genotypeLogLr = genotypeLR == null ? 0. : Math.log(genotypeLR.lr());
+        return logLrSum(observed) + logLrSum(excluded) + genotypeLogLr;
+    }
+
+    private static double logLrSum(List<LrWithExplanation> results) {
+        if (results instanceof PhenotypeLrList lrs)
+            return lrs.logLrSum();
+        double sum = 0.;
+        for (LrWithExplanation result : results)
+            sum += Math.log(result.lr());
+        return sum;
+    }
+
+    private static double lrProduct(List<LrWithExplanation> results) {
+        if (results instanceof PhenotypeLrList lrs)
+            return lrs.lrProduct();
+        double product = 1.0;
+        for (LrWithExplanation result : results)
+            product *= result.lr();
+        return product;
+    }
+
+    private static double maximumAbsoluteLr(List<LrWithExplanation> results) {
+        if (results instanceof PhenotypeLrList lrs)
+            return lrs.maximumAbsoluteLr();
+        double max = 0.0;
+        for (LrWithExplanation result : results)
+            max = Math.max(max, Math.abs(result.lr()));
+        return max;
+    }
+
+    private static List<TermId> queryTerms(List<LrWithExplanation> results) {
+        if (results instanceof PhenotypeLrList lrs)
+            return lrs.queryTerms();
+        return results.stream().map(LrWithExplanation::queryTerm).toList();
+    }
+
     @JsonGetter(value = "observedPhenotypicFeatures")
     public List<LrWithExplanation> observedResults() {
         return observedResults;
     }
 
     public List<TermId> observedTerms() {
-        return observedResults.stream().map(LrWithExplanation::queryTerm).toList();
+        return queryTerms(observedResults);
     }
 
     @JsonGetter(value = "excludedPhenotypicFeatures")
@@ -111,7 +166,7 @@ public class TestResult implements Comparable<TestResult> {
     }
 
     public List<TermId> excludedTerms() {
-        return excludedResults.stream().map(LrWithExplanation::queryTerm).toList();
+        return queryTerms(excludedResults);
     }
 
     /**
@@ -149,11 +204,6 @@ public class TestResult implements Comparable<TestResult> {
         return pretestProbability;
     }
 
-    private double calculatePosttestProbability() {
-        double po = posttestOdds();
-        return po / (1 + po);
-    }
-
     @JsonGetter
     public double posttestProbability() {
         return posttestProbability;
@@ -182,7 +232,9 @@ public class TestResult implements Comparable<TestResult> {
      * @return the likelihood ratio of the i'th test
      */
     public double getObservedPhenotypeRatio(int i) {
-        return this.observedResults.get(i).lr();
+        return observedResults instanceof PhenotypeLrList lrs
+                ? lrs.lr(i)
+                : observedResults.get(i).lr();
     }
 
     /**
@@ -190,7 +242,9 @@ public class TestResult implements Comparable<TestResult> {
      * @return the likelihood ratio of the i'th test
      */
     public double getExcludedPhenotypeRatio(int i) {
-        return this.excludedResults.get(i).lr();
+        return excludedResults instanceof PhenotypeLrList lrs
+                ? lrs.lr(i)
+                : excludedResults.get(i).lr();
     }
 
     /**
@@ -213,16 +267,8 @@ public class TestResult implements Comparable<TestResult> {
      */
     @JsonIgnore
     public double getMaximumIndividualLR() {
-        double m1 = this.observedResults.stream()
-                .map(LrWithExplanation::lr)
-                .map(Math::abs)
-                .max(Double::compare)
-                .orElse(0.0);
-        double m2 = this.excludedResults.stream()
-                .map(LrWithExplanation::lr)
-                .map(Math::abs)
-                .max(Double::compare)
-                .orElse(0.0);
+        double m1 = maximumAbsoluteLr(observedResults);
+        double m2 = maximumAbsoluteLr(excludedResults);
         double m3 = this.genotypeLr != null ? Math.abs(genotypeLr.lr()) : 0.0;
 
         return Math.max(m1, Math.max(m2, m3));
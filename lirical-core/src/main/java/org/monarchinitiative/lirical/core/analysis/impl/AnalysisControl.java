@@ -0,0 +1,85 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.monarchinitiative.lirical.core.analysis.AnalysisOptions;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The control for stopping an analysis before all diseases are evaluated, either due to a cancellation
+ * or because the {@link AnalysisOptions#timeout()} expired.
+ * <p>
+ * The workers check {@link #shouldStop()} before evaluating each disease, hence the analysis stops
+ * after the diseases that are being evaluated are done. The class is thread safe.
+ */
+class AnalysisControl {
+
+    private final Duration timeout; // nullable
+    private final long deadline;
+    private final boolean returnPartialResults;
+    private volatile boolean cancelled = false;
+    private volatile boolean timedOut = false;
+
+    /**
+     * Start the control of an analysis with the {@code options}. If more than one options is analyzed,
+     * the analysis is time-boxed by the shortest timeout and the partial results are returned
+     * only if all options allow that.
+     */
+    static AnalysisControl start(List<AnalysisOptions> options) {
+        Duration timeout = options.stream()
+                .map(AnalysisOptions::timeout)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        boolean returnPartialResults = options.stream().allMatch(AnalysisOptions::returnPartialResults);
+        return new AnalysisControl(timeout, returnPartialResults);
+    }
+
+    private AnalysisControl(Duration timeout, boolean returnPartialResults) {
+        this.timeout = timeout;
+        this.deadline = timeout == null ? 0L : System.nanoTime() + timeout.toNanos();
+        this.returnPartialResults = returnPartialResults;
+    }
+
+    /**
+     * Cancel the analysis. The workers skip the remaining diseases.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return {@code true} if the analysis was cancelled or the timeout expired.
+     */
+    boolean shouldStop() {
+        if (cancelled || timedOut)
+            return true;
+        // The difference handles the overflow of `System.nanoTime()`.
+        if (timeout != null && System.nanoTime() - deadline >= 0) {
+            timedOut = true;
+            return true;
+        }
+        return false;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return {@code true} if the timeout expired before all diseases were evaluated.
+     */
+    boolean isTimedOut() {
+        return timedOut;
+    }
+
+    Duration timeout() {
+        return timeout;
+    }
+
+    boolean returnPartialResults() {
+        return returnPartialResults;
+    }
+}
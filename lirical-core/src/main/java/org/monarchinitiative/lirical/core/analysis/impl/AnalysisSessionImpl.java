@@ -0,0 +1,268 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.monarchinitiative.lirical.core.analysis.*;
+import org.monarchinitiative.lirical.core.likelihoodratio.CompiledDisease;
+import org.monarchinitiative.lirical.core.likelihoodratio.GenotypeLrWithExplanation;
+import org.monarchinitiative.lirical.core.likelihoodratio.LrWithExplanation;
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLikelihoodRatio;
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLrList;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * An {@link AnalysisSession} that keeps a column of the phenotype LRs of each term for the diseases that passed
+ * the disease filters and the genotype checks of the initial analysis, along with the sums of the log LRs
+ * of each disease.
+ * <p>
+ * The sums are updated incrementally as the terms are added or removed, and they are used to find the candidates
+ * for the top results. The columns are {@link PhenotypeLrList}s with the LRs, the match types and the matching
+ * terms, hence the test results of the candidates are assembled from the columns, without evaluating the LRs
+ * again, and the results are the same as the results of a fresh analysis.
+ */
+class AnalysisSessionImpl implements AnalysisSession {
+
+    /**
+     * The incrementally updated sums drift by a few ulps from the LRs combined in a fresh analysis.
+     * The diseases within the tolerance of the worst top result are ranked by their test results.
+     */
+    private static final double LOG_ODDS_TOLERANCE = 1e-6;
+
+    private final PhenotypeLikelihoodRatio phenotypeLrEvaluator;
+    private final ForkJoinPool pool;
+    private final AnalysisData analysisData;
+    private final AnalysisOptions options;
+    private final AnalysisSummary initialSummary;
+    private final List<CompiledDisease> diseases;
+    private final double[] pretestProbabilities;
+    private final GenotypeLrWithExplanation[] genotypeLrs;
+    /**
+     * The log pretest odds and the log genotype LR of each disease.
+     */
+    private final double[] logPriorOdds;
+    /**
+     * The sum of the log phenotype LRs of each disease.
+     */
+    private final double[] logPhenotypeLrs;
+    private final TermColumns observed;
+    private final TermColumns excluded;
+
+    /**
+     * @param pool the pool for evaluating the LRs of the added terms and for assembling the test results.
+     * @param initialResults the results of all diseases that passed the filters and the genotype checks,
+     *                       in the order of the analysis.
+     * @param diseases the compiled diseases of the {@code initialResults}.
+     */
+    AnalysisSessionImpl(PhenotypeLikelihoodRatio phenotypeLrEvaluator,
+                        ForkJoinPool pool,
+                        AnalysisData analysisData,
+                        AnalysisOptions options,
+                        AnalysisResults initialResults,
+                        List<CompiledDisease> diseases) {
+        this.phenotypeLrEvaluator = Objects.requireNonNull(phenotypeLrEvaluator);
+        this.pool = Objects.requireNonNull(pool);
+        this.analysisData = Objects.requireNonNull(analysisData);
+        this.options = Objects.requireNonNull(options);
+        this.initialSummary = initialResults.summary();
+        this.diseases = List.copyOf(diseases);
+
+        List<TestResult> results = initialResults.results().toList();
+        int n = results.size();
+        this.pretestProbabilities = new double[n];
+        this.genotypeLrs = new GenotypeLrWithExplanation[n];
+        this.logPriorOdds = new double[n];
+        this.logPhenotypeLrs = new double[n];
+        this.observed = new TermColumns(analysisData.presentPhenotypeTerms());
+        this.excluded = new TermColumns(analysisData.negatedPhenotypeTerms());
+        for (int d = 0; d < n; d++) {
+            TestResult result = results.get(d);
+            pretestProbabilities[d] = result.pretestProbability();
+            genotypeLrs[d] = result.genotypeLr().orElse(null);
+            double genotypeLogLr = genotypeLrs[d] == null ? 0. : Math.log(genotypeLrs[d].lr());
+            logPriorOdds[d] = Math.log(pretestProbabilities[d]) - Math.log1p(-pretestProbabilities[d]) + genotypeLogLr;
+        }
+        List<List<LrWithExplanation>> observedLrs = results.stream().map(TestResult::observedResults).toList();
+        for (int i = 0; i < observed.terms.size(); i++)
+            observed.add(phenotypeLrEvaluator.select(observedLrs, i));
+        List<List<LrWithExplanation>> excludedLrs = results.stream().map(TestResult::excludedResults).toList();
+        for (int i = 0; i < excluded.terms.size(); i++)
+            excluded.add(phenotypeLrEvaluator.select(excludedLrs, i));
+        for (int d = 0; d < n; d++)
+            logPhenotypeLrs[d] = sumLogLrs(d);
+    }
+
+    @Override
+    public AnalysisData analysisData() {
+        return AnalysisData.of(analysisData.sampleId(),
+                analysisData.age().orElse(null),
+                analysisData.sex(),
+                observed.terms,
+                excluded.terms,
+                analysisData.genes());
+    }
+
+    @Override
+    public AnalysisOptions analysisOptions() {
+        return options;
+    }
+
+    @Override
+    public boolean addObservedTerm(TermId termId) throws LiricalAnalysisException {
+        return addTerm(observed, termId, phenotypeLrEvaluator::evaluateObservedTerm);
+    }
+
+    @Override
+    public boolean removeObservedTerm(TermId termId) {
+        return removeTerm(observed, termId);
+    }
+
+    @Override
+    public boolean addExcludedTerm(TermId termId) throws LiricalAnalysisException {
+        return addTerm(excluded, termId, phenotypeLrEvaluator::evaluateExcludedTerm);
+    }
+
+    @Override
+    public boolean removeExcludedTerm(TermId termId) {
+        return removeTerm(excluded, termId);
+    }
+
+    private boolean addTerm(TermColumns columns, TermId termId, TermEvaluator evaluator) throws LiricalAnalysisException {
+        if (columns.terms.contains(termId))
+            return false;
+        // Each disease stores its LR into its own position of the column.
+        PhenotypeLrList column = phenotypeLrEvaluator.newLrList(Collections.nCopies(diseases.size(), termId));
+        try {
+            pool.submit(() -> IntStream.range(0, diseases.size())
+                    .parallel()
+                    .forEach(d -> evaluator.evaluate(column, d, diseases.get(d)))).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new LiricalAnalysisException("Unable to calculate the likelihood ratios of %s".formatted(termId.getValue()), e);
+        }
+        columns.terms.add(termId);
+        double[] logLrs = columns.add(column);
+        for (int d = 0; d < logLrs.length; d++)
+            logPhenotypeLrs[d] += logLrs[d];
+        return true;
+    }
+
+    private boolean removeTerm(TermColumns columns, TermId termId) {
+        int i = columns.terms.indexOf(termId);
+        if (i < 0)
+            return false;
+        columns.terms.remove(i);
+        columns.lrs.remove(i);
+        double[] logLrs = columns.logLrs.remove(i);
+        for (int d = 0; d < logLrs.length; d++) {
+            logPhenotypeLrs[d] -= logLrs[d];
+            // E.g. after removing the only term with a zero LR.
+            if (!Double.isFinite(logPhenotypeLrs[d]))
+                logPhenotypeLrs[d] = sumLogLrs(d);
+        }
+        return true;
+    }
+
+    private double sumLogLrs(int d) {
+        double sum = 0.;
+        for (double[] column : observed.logLrs)
+            sum += column[d];
+        for (double[] column : excluded.logLrs)
+            sum += column[d];
+        return sum;
+    }
+
+    @Override
+    public AnalysisResults results() {
+        int n = diseases.size();
+        int topResultCount = options.topResultCount();
+        if (topResultCount <= 0 || topResultCount >= n) {
+            List<TestResult> results = testResults(IntStream.range(0, n).toArray()).stream()
+                    .map(TopResults.RankedResult::result)
+                    .toList();
+            return AnalysisResults.of(results, summary(0));
+        }
+
+        double[] logPosttestOdds = new double[n];
+        for (int d = 0; d < n; d++)
+            logPosttestOdds[d] = logPriorOdds[d] + logPhenotypeLrs[d];
+        double[] sorted = logPosttestOdds.clone();
+        Arrays.sort(sorted);
+        double threshold = sorted[n - topResultCount] - LOG_ODDS_TOLERANCE;
+
+        // The `NaN`s are ranked by the test results.
+        int[] candidates = IntStream.range(0, n)
+                .filter(d -> Double.isNaN(threshold) || !(logPosttestOdds[d] < threshold))
+                .toArray();
+        TopResults top = new TopResults(topResultCount);
+        testResults(candidates).forEach(top::add);
+        List<TestResult> results = top.results();
+        return AnalysisResults.of(results, summary(n - results.size()));
+    }
+
+    /**
+     * Assemble the test results of the {@code diseases} from the columns, using the workers of the pool.
+     *
+     * @return the test results in the order of the {@code diseases}.
+     */
+    private List<TopResults.RankedResult> testResults(int[] diseases) {
+        return pool.invoke(ForkJoinTask.adapt(() -> Arrays.stream(diseases)
+                .parallel()
+                .mapToObj(d -> new TopResults.RankedResult(d, testResult(d)))
+                .toList()));
+    }
+
+    private TestResult testResult(int d) {
+        PhenotypeLrList observedLrs = phenotypeLrEvaluator.select(observed.lrs, d);
+        PhenotypeLrList excludedLrs = phenotypeLrEvaluator.select(excluded.lrs, d);
+        return TestResult.of(diseases.get(d).id(), pretestProbabilities[d], observedLrs, excludedLrs, genotypeLrs[d]);
+    }
+
+    private AnalysisSummary summary(int discardedResultCount) {
+        return new AnalysisSummary(initialSummary.evaluatedDiseaseCount(),
+                initialSummary.genotypeFilteredDiseaseCount(),
+                discardedResultCount,
+                0);
+    }
+
+    /**
+     * Evaluates the {@code i}-th query term of the LR list in the disease,
+     * e.g. {@link PhenotypeLikelihoodRatio#evaluateObservedTerm(PhenotypeLrList, int, CompiledDisease)}.
+     */
+    @FunctionalInterface
+    private interface TermEvaluator {
+        double evaluate(PhenotypeLrList lrs, int i, CompiledDisease disease);
+    }
+
+    /**
+     * The current terms along with the column of the LRs and the column of the log LRs of each term.
+     */
+    private static final class TermColumns {
+
+        private final List<TermId> terms;
+        private final List<PhenotypeLrList> lrs;
+        private final List<double[]> logLrs;
+
+        private TermColumns(List<TermId> terms) {
+            this.terms = new ArrayList<>(terms);
+            this.lrs = new ArrayList<>(terms.size());
+            this.logLrs = new ArrayList<>(terms.size());
+        }
+
+        /**
+         * Add the column of the LRs of the last term.
+         *
+         * @return the column of the log LRs.
+         */
+        private double[] add(PhenotypeLrList column) {
+            double[] logs = new double[column.size()];
+            for (int d = 0; d < logs.length; d++)
+                logs[d] = Math.log(column.lr(d));
+            lrs.add(column);
+            logLrs.add(logs);
+            return logs;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.monarchinitiative.lirical.core.analysis.TestResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-analysis containers for the test results of a batch analysis, where each disease is scored
+ * against all samples of the batch, possibly with several variants of the analysis options.
+ * <p>
+ * The results of an analysis are either retained in a {@link TopResults} or all of them are kept in the order
+ * of the diseases. The containers of an analysis are created on the first result of the analysis.
+ * <p>
+ * The class is <em>NOT</em> thread safe. Each worker collects the results of its own share of the diseases
+ * into a separate container, and the containers are combined with {@link #merge(BatchResults)}.
+ */
+class BatchResults {
+
+    private final List<UpperBoundPruning> prunings;
+    private final int[] topResultCounts;
+    private final List<TopResults> topResults;
+    private final List<List<TestResult>> allResults;
+
+    /**
+     * @param prunings the pruning of each analysis or {@code null}s if the pruning is not used.
+     * @param topResultCounts the number of the top results to retain for each analysis or {@code 0} to retain all results.
+     */
+    BatchResults(List<UpperBoundPruning> prunings, int[] topResultCounts) {
+        this.prunings = prunings;
+        this.topResultCounts = topResultCounts;
+        this.topResults = new ArrayList<>(Collections.nCopies(prunings.size(), null));
+        this.allResults = new ArrayList<>(Collections.nCopies(prunings.size(), null));
+    }
+
+    void add(AnalysisResult result) {
+        int analysis = result.analysis();
+        if (topResultCounts[analysis] > 0) {
+            TopResults top = topResults.get(analysis);
+            if (top == null) {
+                top = new TopResults(topResultCounts[analysis], prunings.get(analysis));
+                topResults.set(analysis, top);
+            }
+            top.add(result.result());
+        } else {
+            List<TestResult> all = allResults.get(analysis);
+            if (all == null) {
+                all = new ArrayList<>();
+                allResults.set(analysis, all);
+            }
+            all.add(result.result().result());
+        }
+    }
+
+    /**
+     * Merge the {@code other} results, which follow the results of this container in the order of the diseases.
+     */
+    BatchResults merge(BatchResults other) {
+        for (int analysis = 0; analysis < prunings.size(); analysis++) {
+            TopResults top = other.topResults.get(analysis);
+            if (top != null) {
+                TopResults current = topResults.get(analysis);
+                topResults.set(analysis, current == null ? top : current.merge(top));
+            }
+            List<TestResult> all = other.allResults.get(analysis);
+            if (all != null) {
+                List<TestResult> current = allResults.get(analysis);
+                if (current == null)
+                    allResults.set(analysis, all);
+                else
+                    current.addAll(all);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the retained results of the {@code analysis}.
+     */
+    List<TestResult> results(int analysis) {
+        if (topResultCounts[analysis] > 0) {
+            TopResults top = topResults.get(analysis);
+            return top == null ? List.of() : top.results();
+        }
+        List<TestResult> all = allResults.get(analysis);
+        return all == null ? List.of() : all;
+    }
+
+    /**
+     * @return the number of results of the {@code analysis} that did not rank among the top results.
+     */
+    int discardedCount(int analysis) {
+        TopResults top = topResults.get(analysis);
+        return top == null ? 0 : top.discardedCount();
+    }
+
+    /**
+     * A test result of the analysis with the index {@code analysis} in the batch.
+     */
+    record AnalysisResult(int analysis, TopResults.RankedResult result) {
+    }
+}
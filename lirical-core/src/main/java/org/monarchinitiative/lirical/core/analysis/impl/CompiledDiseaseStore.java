@@ -0,0 +1,75 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.monarchinitiative.lirical.core.likelihoodratio.CompiledDisease;
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLikelihoodRatio;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseases;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable container with {@link CompiledDisease}s of all diseases.
+ * <p>
+ * The compiled disease depends only on the HPO and on the disease. Therefore, we compile the diseases once,
+ * when the analysis runner is created, and share them among all analysis runs.
+ */
+class CompiledDiseaseStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledDiseaseStore.class);
+
+    private final PhenotypeLikelihoodRatio phenotypeLrEvaluator;
+    private final Map<TermId, CompiledDisease> diseases;
+
+    /**
+     * Compile all {@code diseases} using the workers of the {@code pool}.
+     * <p>
+     * Each disease ID gets a single ordinal, the position of its first disease in {@code diseases},
+     * hence the cached likelihood ratios of the disease are reused by all analysis runs.
+     */
+    static CompiledDiseaseStore of(HpoDiseases diseases, PhenotypeLikelihoodRatio phenotypeLrEvaluator, ForkJoinPool pool) {
+        Instant start = Instant.now();
+        // Keep the first disease if the disease is present more than once.
+        Map<TermId, HpoDisease> unique = new LinkedHashMap<>();
+        diseases.hpoDiseases().forEach(disease -> unique.putIfAbsent(disease.id(), disease));
+        List<HpoDisease> toCompile = List.copyOf(unique.values());
+
+        Map<TermId, CompiledDisease> compiled = pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, toCompile.size())
+                .parallel()
+                .mapToObj(ordinal -> phenotypeLrEvaluator.compileDisease(toCompile.get(ordinal), ordinal))
+                .collect(Collectors.toUnmodifiableMap(disease -> disease.disease().id(), Function.identity()))));
+        LOGGER.debug("Compiled {} diseases in {} ms", compiled.size(), Duration.between(start, Instant.now()).toMillis());
+        return new CompiledDiseaseStore(phenotypeLrEvaluator, compiled);
+    }
+
+    private CompiledDiseaseStore(PhenotypeLikelihoodRatio phenotypeLrEvaluator, Map<TermId, CompiledDisease> diseases) {
+        this.phenotypeLrEvaluator = Objects.requireNonNull(phenotypeLrEvaluator);
+        this.diseases = Objects.requireNonNull(diseases);
+    }
+
+    /**
+     * Get the compiled {@code disease}.
+     * <p>
+     * The disease is compiled on the fly if the store does not include the disease. The likelihood ratios
+     * of such disease are not cached, since the disease has no ordinal.
+     */
+    CompiledDisease compiledDisease(HpoDisease disease) {
+        CompiledDisease compiled = diseases.get(disease.id());
+        // The identity check protects against using another disease with the same ID.
+        if (compiled == null || compiled.disease() != disease)
+            return phenotypeLrEvaluator.compileDisease(disease);
+        return compiled;
+    }
+}
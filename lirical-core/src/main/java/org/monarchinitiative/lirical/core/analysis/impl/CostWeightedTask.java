@@ -0,0 +1,168 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A fork/join task for processing a range of items with a highly variable cost, such as the diseases
+ * of an analysis.
+ * <p>
+ * The range is split at the midpoint of the estimated cost rather than at the midpoint of the item count,
+ * until the cost of a range falls below {@code 1 / (4 * parallelism)} of the total cost. The leaf ranges
+ * are processed by at most {@code parallelism} workers, each claiming the next unprocessed leaf range
+ * until there is none left. Therefore, the task does not use more than {@code parallelism} workers
+ * even if it runs in a larger, shared pool.
+ * <p>
+ * Each leaf range is accumulated into a new container, and the containers are combined in the order of the items.
+ *
+ * @param <A> the type of the container.
+ */
+class CostWeightedTask<A> extends RecursiveTask<A> {
+
+    /**
+     * The number of the leaf ranges per worker, to balance the load if the estimated costs are off.
+     */
+    private static final int LEAVES_PER_WORKER = 4;
+
+    private final int[] bounds;
+    private final int lanes;
+    private final Supplier<A> supplier;
+    private final ObjIntConsumer<A> accumulator;
+    private final BinaryOperator<A> combiner;
+
+    /**
+     * @param costs the estimated cost of each item, must not be negative.
+     * @param parallelism the maximum number of workers to split the work among.
+     * @param supplier the supplier of new containers.
+     * @param accumulator the function for adding the item with the given index into a container.
+     * @param combiner the function for combining two containers, where the items of the second container
+     *                 follow the items of the first container.
+     */
+    static <A> CostWeightedTask<A> of(long[] costs,
+                                      int parallelism,
+                                      Supplier<A> supplier,
+                                      ObjIntConsumer<A> accumulator,
+                                      BinaryOperator<A> combiner) {
+        long[] cumulativeCosts = new long[costs.length + 1];
+        for (int i = 0; i < costs.length; i++) {
+            if (costs[i] < 0)
+                throw new IllegalArgumentException("Cost of item %d must not be negative: %d".formatted(i, costs[i]));
+            cumulativeCosts[i + 1] = cumulativeCosts[i] + costs[i];
+        }
+        int workers = Math.max(1, parallelism);
+        long threshold = Math.max(1L, cumulativeCosts[costs.length] / ((long) workers * LEAVES_PER_WORKER));
+
+        List<Integer> starts = new ArrayList<>();
+        if (costs.length > 0)
+            split(cumulativeCosts, threshold, 0, costs.length, starts);
+        int[] bounds = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++)
+            bounds[i] = starts.get(i);
+        bounds[starts.size()] = costs.length;
+
+        return new CostWeightedTask<>(bounds, Math.min(workers, starts.size()), supplier, accumulator, combiner);
+    }
+
+    /**
+     * Add the first indices of the leaf ranges of the range from {@code start} (inclusive) to {@code end} (exclusive)
+     * into {@code starts}.
+     */
+    private static void split(long[] cumulativeCosts, long threshold, int start, int end, List<Integer> starts) {
+        if (end - start <= 1 || cumulativeCosts[end] - cumulativeCosts[start] <= threshold) {
+            starts.add(start);
+            return;
+        }
+        int split = splitIndex(cumulativeCosts, start, end);
+        split(cumulativeCosts, threshold, start, split, starts);
+        split(cumulativeCosts, threshold, split, end, starts);
+    }
+
+    /**
+     * @return the first index of the second half of the range, such that both halves are non-empty
+     * and the first half includes at least a half of the cost of the range.
+     */
+    private static int splitIndex(long[] cumulativeCosts, int start, int end) {
+        long half = cumulativeCosts[start] + (cumulativeCosts[end] - cumulativeCosts[start]) / 2;
+        // Find the smallest `i` with `cumulativeCosts[i] >= half`.
+        int low = start + 1, high = end - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeCosts[mid] < half)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private CostWeightedTask(int[] bounds,
+                             int lanes,
+                             Supplier<A> supplier,
+                             ObjIntConsumer<A> accumulator,
+                             BinaryOperator<A> combiner) {
+        this.bounds = bounds;
+        this.lanes = lanes;
+        this.supplier = supplier;
+        this.accumulator = accumulator;
+        this.combiner = combiner;
+    }
+
+    @Override
+    protected A compute() {
+        int leafCount = bounds.length - 1;
+        if (leafCount == 0)
+            return supplier.get();
+
+        List<A> containers = new ArrayList<>(leafCount);
+        for (int i = 0; i < leafCount; i++)
+            containers.add(null);
+        AtomicInteger nextLeaf = new AtomicInteger();
+
+        List<ForkJoinTask<Void>> forked = new ArrayList<>(lanes - 1);
+        for (int lane = 1; lane < lanes; lane++)
+            forked.add(new Lane(nextLeaf, containers).fork());
+        // The current worker is a lane too.
+        new Lane(nextLeaf, containers).compute();
+        for (ForkJoinTask<Void> task : forked)
+            task.join();
+
+        A result = containers.get(0);
+        for (int i = 1; i < leafCount; i++)
+            result = combiner.apply(result, containers.get(i));
+        return result;
+    }
+
+    /**
+     * A worker that processes the unclaimed leaf ranges one by one. The container of each leaf range
+     * is stored at the index of the leaf range.
+     */
+    private final class Lane extends RecursiveAction {
+
+        private final AtomicInteger nextLeaf;
+        private final List<A> containers;
+
+        private Lane(AtomicInteger nextLeaf, List<A> containers) {
+            this.nextLeaf = nextLeaf;
+            this.containers = containers;
+        }
+
+        @Override
+        protected void compute() {
+            int leaf;
+            while ((leaf = nextLeaf.getAndIncrement()) < containers.size()) {
+                A container = supplier.get();
+                for (int i = bounds[leaf]; i < bounds[leaf + 1]; i++)
+                    accumulator.accept(container, i);
+                // Each leaf is claimed by one lane, and `join` publishes the containers to the task.
+                containers.set(leaf, container);
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.monarchinitiative.lirical.core.likelihoodratio.InheritanceModes;
+import org.monarchinitiative.lirical.core.model.Gene2Genotype;
+import org.monarchinitiative.lirical.core.model.GenesAndGenotypes;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoAssociationData;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseases;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+
+/**
+ * An immutable index of the associations between the genes and the diseases.
+ * <p>
+ * The diseases are indexed by their position in {@link HpoDiseases#hpoDiseases()} and the genes
+ * are assigned dense indices in the order of their first association. The associations are stored in both directions
+ * in the compressed sparse row layout, i.e. the diseases of the gene {@code g} are at
+ * {@code [geneOffsets[g], geneOffsets[g+1])} of {@code geneDiseases}, and vice versa.
+ * <p>
+ * The index is built once, when the analysis runner is created, and the genes of a sample are grouped
+ * by the diseases with {@link #groupDiseasesByGene(GenesAndGenotypes)}. The index also keeps the modes of inheritance
+ * of the diseases, prepared for calculating the genotype LRs.
+ */
+class GeneDiseaseIndex {
+
+    private final List<HpoDisease> diseases;
+    private final InheritanceModes[] inheritanceModes;
+    private final Map<TermId, Integer> geneToIndex;
+    // The genes with at least one association, including the associations with the diseases that are not indexed.
+    private final BitSet associatedGenes;
+    private final int[] geneOffsets;
+    private final int[] geneDiseases;
+    private final int[] diseaseOffsets;
+    private final int[] diseaseGenes;
+
+    static GeneDiseaseIndex of(HpoDiseases diseases, HpoAssociationData associationData) {
+        List<HpoDisease> diseaseList = diseases.hpoDiseases().toList();
+        // The diseases with the same modes of inheritance share the instance.
+        Map<List<TermId>, InheritanceModes> distinctModes = new HashMap<>();
+        InheritanceModes[] inheritanceModes = new InheritanceModes[diseaseList.size()];
+        for (int d = 0; d < diseaseList.size(); d++)
+            inheritanceModes[d] = distinctModes.computeIfAbsent(diseaseList.get(d).modesOfInheritance(), InheritanceModes::of);
+        // More than one disease can have the same ID.
+        Map<TermId, List<Integer>> diseaseIdToIndices = new HashMap<>(diseaseList.size());
+        for (int d = 0; d < diseaseList.size(); d++)
+            diseaseIdToIndices.computeIfAbsent(diseaseList.get(d).id(), k -> new ArrayList<>(1)).add(d);
+
+        Map<TermId, Integer> geneToIndex = new HashMap<>();
+        BitSet associatedGenes = new BitSet();
+        List<int[]> diseasesOfGenes = new ArrayList<>();
+        for (Map.Entry<TermId, Collection<TermId>> e : associationData.associations().geneIdToDiseaseIds().entrySet()) {
+            int[] indices = e.getValue().stream()
+                    .map(diseaseId -> diseaseIdToIndices.getOrDefault(diseaseId, List.of()))
+                    .flatMap(Collection::stream)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            if (!e.getValue().isEmpty())
+                associatedGenes.set(diseasesOfGenes.size());
+            geneToIndex.put(e.getKey(), diseasesOfGenes.size());
+            diseasesOfGenes.add(indices);
+        }
+
+        int geneCount = diseasesOfGenes.size();
+        int[] geneOffsets = new int[geneCount + 1];
+        for (int g = 0; g < geneCount; g++)
+            geneOffsets[g + 1] = geneOffsets[g] + diseasesOfGenes.get(g).length;
+        int[] geneDiseases = new int[geneOffsets[geneCount]];
+        int[] diseaseOffsets = new int[diseaseList.size() + 1];
+        for (int g = 0; g < geneCount; g++) {
+            int[] indices = diseasesOfGenes.get(g);
+            System.arraycopy(indices, 0, geneDiseases, geneOffsets[g], indices.length);
+            for (int d : indices)
+                diseaseOffsets[d + 1]++;
+        }
+
+        // The reverse mapping.
+        for (int d = 0; d < diseaseList.size(); d++)
+            diseaseOffsets[d + 1] += diseaseOffsets[d];
+        int[] diseaseGenes = new int[geneDiseases.length];
+        int[] next = Arrays.copyOf(diseaseOffsets, diseaseList.size());
+        for (int g = 0; g < geneCount; g++)
+            for (int i = geneOffsets[g]; i < geneOffsets[g + 1]; i++)
+                diseaseGenes[next[geneDiseases[i]]++] = g;
+
+        return new GeneDiseaseIndex(diseaseList, inheritanceModes, geneToIndex, associatedGenes, geneOffsets, geneDiseases, diseaseOffsets, diseaseGenes);
+    }
+
+    private GeneDiseaseIndex(List<HpoDisease> diseases,
+                             InheritanceModes[] inheritanceModes,
+                             Map<TermId, Integer> geneToIndex,
+                             BitSet associatedGenes,
+                             int[] geneOffsets,
+                             int[] geneDiseases,
+                             int[] diseaseOffsets,
+                             int[] diseaseGenes) {
+        this.diseases = diseases;
+        this.inheritanceModes = inheritanceModes;
+        this.geneToIndex = geneToIndex;
+        this.associatedGenes = associatedGenes;
+        this.geneOffsets = geneOffsets;
+        this.geneDiseases = geneDiseases;
+        this.diseaseOffsets = diseaseOffsets;
+        this.diseaseGenes = diseaseGenes;
+    }
+
+    /**
+     * @return all diseases in the order of their indices.
+     */
+    List<HpoDisease> diseases() {
+        return diseases;
+    }
+
+    /**
+     * @return the modes of inheritance of the disease with a valid {@code disease} index.
+     */
+    InheritanceModes inheritanceModes(int disease) {
+        return inheritanceModes[disease];
+    }
+
+    /**
+     * @return the index of the {@code geneId} or {@code -1} if the gene is not associated with any disease.
+     */
+    int geneIndex(TermId geneId) {
+        Integer index = geneToIndex.get(geneId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return the number of the diseases associated with the gene with a valid {@code gene} index.
+     */
+    int diseaseCount(int gene) {
+        return geneOffsets[gene + 1] - geneOffsets[gene];
+    }
+
+    /**
+     * @return the index of the {@code i}-th disease associated with the gene with a valid {@code gene} index.
+     */
+    int disease(int gene, int i) {
+        return geneDiseases[geneOffsets[gene] + i];
+    }
+
+    /**
+     * @return the number of the genes associated with the disease with a valid {@code disease} index.
+     */
+    int geneCount(int disease) {
+        return diseaseOffsets[disease + 1] - diseaseOffsets[disease];
+    }
+
+    /**
+     * @return the index of the {@code i}-th gene associated with the disease with a valid {@code disease} index.
+     */
+    int gene(int disease, int i) {
+        return diseaseGenes[diseaseOffsets[disease] + i];
+    }
+
+    /**
+     * Group the {@code genes} of a sample by the associated diseases.
+     */
+    SampleGenes groupDiseasesByGene(GenesAndGenotypes genes) {
+        // Look up each gene once, and count the genes of each disease.
+        int[] geneIndices = new int[genes.size()];
+        int[] offsets = new int[diseases.size() + 1];
+        boolean hasAssociatedGenes = false;
+        int i = 0;
+        for (Gene2Genotype gene : genes) {
+            int g = geneIndex(gene.geneId().id());
+            geneIndices[i++] = g;
+            if (g >= 0) {
+                hasAssociatedGenes |= associatedGenes.get(g);
+                for (int j = geneOffsets[g]; j < geneOffsets[g + 1]; j++)
+                    offsets[geneDiseases[j] + 1]++;
+            }
+        }
+        for (int d = 0; d < diseases.size(); d++)
+            offsets[d + 1] += offsets[d];
+
+        // Fill the genes of each disease in the order of the sample genes.
+        Gene2Genotype[] grouped = new Gene2Genotype[offsets[diseases.size()]];
+        int[] next = Arrays.copyOf(offsets, diseases.size());
+        i = 0;
+        for (Gene2Genotype gene : genes) {
+            int g = geneIndices[i++];
+            if (g >= 0)
+                for (int j = geneOffsets[g]; j < geneOffsets[g + 1]; j++)
+                    grouped[next[geneDiseases[j]]++] = gene;
+        }
+        return new SampleGenes(hasAssociatedGenes, offsets, grouped);
+    }
+
+    /**
+     * The genes of a sample grouped by the disease indices. The genes of the disease {@code d}
+     * are at {@code [offsets[d], offsets[d+1])} of {@code genes}.
+     */
+    static final class SampleGenes {
+
+        private final boolean hasAssociatedGenes;
+        private final int[] offsets;
+        private final Gene2Genotype[] genes;
+
+        private SampleGenes(boolean hasAssociatedGenes, int[] offsets, Gene2Genotype[] genes) {
+            this.hasAssociatedGenes = hasAssociatedGenes;
+            this.offsets = offsets;
+            this.genes = genes;
+        }
+
+        /**
+         * @return {@code true} if any sample gene is associated with any disease, including the diseases
+         * that are not indexed, e.g. the diseases missing from {@link HpoDiseases}.
+         */
+        boolean hasAssociatedGenes() {
+            return hasAssociatedGenes;
+        }
+
+        /**
+         * @return the number of the sample genes associated with the disease with a valid {@code disease} index.
+         */
+        int geneCount(int disease) {
+            return offsets[disease + 1] - offsets[disease];
+        }
+
+        /**
+         * @return an unmodifiable view of the sample genes associated with the disease with a valid {@code disease} index.
+         */
+        List<Gene2Genotype> genes(int disease) {
+            return geneCount(disease) == 0
+                    ? List.of()
+                    : Collections.unmodifiableList(Arrays.asList(genes).subList(offsets[disease], offsets[disease + 1]));
+        }
+    }
+}
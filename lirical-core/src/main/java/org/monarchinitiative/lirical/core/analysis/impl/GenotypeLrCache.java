@@ -0,0 +1,122 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.monarchinitiative.lirical.core.likelihoodratio.GenotypeLikelihoodRatio;
+import org.monarchinitiative.lirical.core.likelihoodratio.GenotypeLrWithExplanation;
+import org.monarchinitiative.lirical.core.likelihoodratio.InheritanceModes;
+import org.monarchinitiative.lirical.core.model.Gene2Genotype;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoized genotype LRs of the genes of a single sample, evaluated with a single {@link GenotypeLikelihoodRatio}.
+ * <p>
+ * The genotype LR depends only on the gene and on the modes of inheritance of the disease. Therefore, the LR
+ * of a gene associated with many diseases is calculated once for each distinct {@link InheritanceModes}.
+ * The genes are compared by identity, since they are the genes of the same sample.
+ * <p>
+ * The pathogenicity threshold only changes the LR through the deleterious allele count and the sum
+ * of the path bin scores of the gene. The LRs are keyed by both, hence the caches created by
+ * {@link #withEvaluator(GenotypeLikelihoodRatio)} for the evaluators that differ only in the threshold
+ * share the LRs of the genes whose summaries are the same for the thresholds.
+ * <p>
+ * The cache lives as long as the analysis run, and it is shared by all workers. The class is thread safe.
+ */
+class GenotypeLrCache {
+
+    private final GenotypeLikelihoodRatio genotypeLikelihoodRatio;
+    private final String sampleId;
+    private final ConcurrentHashMap<Key, GenotypeLrWithExplanation> lrs;
+    private final LongAdder evaluationCount = new LongAdder();
+    private final LongAdder computedCount = new LongAdder();
+
+    GenotypeLrCache(GenotypeLikelihoodRatio genotypeLikelihoodRatio, String sampleId) {
+        this(genotypeLikelihoodRatio, sampleId, new ConcurrentHashMap<>());
+    }
+
+    private GenotypeLrCache(GenotypeLikelihoodRatio genotypeLikelihoodRatio,
+                            String sampleId,
+                            ConcurrentHashMap<Key, GenotypeLrWithExplanation> lrs) {
+        this.genotypeLikelihoodRatio = Objects.requireNonNull(genotypeLikelihoodRatio);
+        this.sampleId = sampleId;
+        this.lrs = lrs;
+    }
+
+    /**
+     * Create a cache for the same sample that shares the memoized LRs with this cache.
+     *
+     * @param genotypeLikelihoodRatio the evaluator with the same background frequencies and strictness
+     *                                as the evaluator of this cache, but possibly with another pathogenicity threshold.
+     */
+    GenotypeLrCache withEvaluator(GenotypeLikelihoodRatio genotypeLikelihoodRatio) {
+        return new GenotypeLrCache(genotypeLikelihoodRatio, sampleId, lrs);
+    }
+
+    /**
+     * Get the genotype LR of the gene for a disease with the {@code inheritanceModes}.
+     *
+     * @see GenotypeLikelihoodRatio#evaluateGenotype(String, Gene2Genotype, InheritanceModes)
+     */
+    GenotypeLrWithExplanation evaluateGenotype(Gene2Genotype g2g, InheritanceModes inheritanceModes) {
+        evaluationCount.increment();
+        float threshold = genotypeLikelihoodRatio.pathogenicityThreshold();
+        Key key = new Key(g2g, inheritanceModes,
+                g2g.deleteriousAlleleCount(sampleId, threshold),
+                g2g.getSumOfPathBinScores(sampleId, threshold));
+        return lrs.computeIfAbsent(key, k -> {
+            computedCount.increment();
+            return genotypeLikelihoodRatio.evaluateGenotype(sampleId, g2g, inheritanceModes);
+        });
+    }
+
+    /**
+     * @return the number of the requested genotype LRs.
+     */
+    long evaluationCount() {
+        return evaluationCount.sum();
+    }
+
+    /**
+     * @return the number of the genotype LRs calculated for the requests of this cache.
+     */
+    long computedCount() {
+        return computedCount.sum();
+    }
+
+    /**
+     * The key with the gene compared by identity. The order of the modes of inheritance matters,
+     * since it breaks the ties of the LRs of the modes.
+     */
+    private static final class Key {
+
+        private final Gene2Genotype g2g;
+        private final InheritanceModes inheritanceModes;
+        private final int deleteriousAlleleCount;
+        private final double sumOfPathBinScores;
+        private final int hash;
+
+        private Key(Gene2Genotype g2g, InheritanceModes inheritanceModes, int deleteriousAlleleCount, double sumOfPathBinScores) {
+            this.g2g = g2g;
+            this.inheritanceModes = inheritanceModes;
+            this.deleteriousAlleleCount = deleteriousAlleleCount;
+            this.sumOfPathBinScores = sumOfPathBinScores;
+            this.hash = 31 * (31 * System.identityHashCode(g2g) + Objects.hashCode(inheritanceModes)) + deleteriousAlleleCount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return g2g == other.g2g
+                    && deleteriousAlleleCount == other.deleteriousAlleleCount
+                    && Double.compare(sumOfPathBinScores, other.sumOfPathBinScores) == 0
+                    && Objects.equals(inheritanceModes, other.inheritanceModes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
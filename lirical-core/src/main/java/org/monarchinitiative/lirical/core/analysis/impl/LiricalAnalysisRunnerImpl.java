@@ -1,9 +1,9 @@
 package org.monarchinitiative.lirical.core.analysis.impl;
 
+import org.monarchinitiative.lirical.core.LiricalOptions;
 import org.monarchinitiative.lirical.core.analysis.*;
 import org.monarchinitiative.lirical.core.likelihoodratio.*;
 import org.monarchinitiative.lirical.core.model.Gene2Genotype;
-import org.monarchinitiative.lirical.core.model.GenesAndGenotypes;
 import org.monarchinitiative.lirical.core.model.GenomeBuild;
 import org.monarchinitiative.lirical.core.service.BackgroundVariantFrequencyServiceFactory;
 import org.monarchinitiative.lirical.core.service.PhenotypeService;
@@ -13,10 +13,15 @@ import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -27,55 +32,313 @@ public class LiricalAnalysisRunnerImpl implements LiricalAnalysisRunner {
     private final PhenotypeService phenotypeService;
     private final BackgroundVariantFrequencyServiceFactory bgFreqFactory;
     private final PhenotypeLikelihoodRatio phenotypeLrEvaluator;
-    private final ExecutorService pool;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final CompiledDiseaseStore diseaseStore;
+    private final GeneDiseaseIndex geneDiseaseIndex;
 
     public static LiricalAnalysisRunnerImpl of(
             PhenotypeService phenotypeService,
             BackgroundVariantFrequencyServiceFactory backgroundVariantFrequencyServiceFactory,
             int parallelism
+    ) {
+        return of(phenotypeService,
+                backgroundVariantFrequencyServiceFactory,
+                new LiricalOptions(null, parallelism));
+    }
+
+    public static LiricalAnalysisRunnerImpl of(
+            PhenotypeService phenotypeService,
+            BackgroundVariantFrequencyServiceFactory backgroundVariantFrequencyServiceFactory,
+            LiricalOptions options
     ) {
         return new LiricalAnalysisRunnerImpl(phenotypeService,
                 backgroundVariantFrequencyServiceFactory,
-                parallelism);
+                options.parallelism(),
+                options.phenotypeLrCacheSize(),
+                options.executor().orElse(null));
     }
 
     private LiricalAnalysisRunnerImpl(PhenotypeService phenotypeService,
                                       BackgroundVariantFrequencyServiceFactory backgroundVariantFrequencyServiceFactory,
-                                      int parallelism) {
+                                      int parallelism,
+                                      int phenotypeLrCacheSize,
+                                      ForkJoinPool executor) {
         this.phenotypeService = Objects.requireNonNull(phenotypeService);
-        this.phenotypeLrEvaluator = new PhenotypeLikelihoodRatio(phenotypeService.hpo(), phenotypeService.diseases());
         this.bgFreqFactory = backgroundVariantFrequencyServiceFactory;
-        LOGGER.debug("Creating LIRICAL pool with {} worker(s).", parallelism);
-        this.pool = new ForkJoinPool(parallelism, LiricalWorkerThread::new, null, false);
+        if (executor == null) {
+            LOGGER.debug("Creating LIRICAL pool with {} worker(s).", parallelism);
+            this.pool = new ForkJoinPool(parallelism, LiricalWorkerThread::new, null, false);
+            this.ownsPool = true;
+        } else {
+            LOGGER.debug("Using a shared pool with {} worker(s).", executor.getParallelism());
+            this.pool = executor;
+            this.ownsPool = false;
+        }
+        // The background frequencies of the HPO terms are calculated by the workers of the pool.
+        Instant start = Instant.now();
+        this.phenotypeLrEvaluator = pool.invoke(ForkJoinTask.adapt(() ->
+                new PhenotypeLikelihoodRatio(phenotypeService.hpo(), phenotypeService.diseases(), phenotypeLrCacheSize)));
+        LOGGER.debug("Initialized the phenotype LR evaluator in {} ms", Duration.between(start, Instant.now()).toMillis());
+        this.diseaseStore = CompiledDiseaseStore.of(phenotypeService.diseases(), phenotypeLrEvaluator, pool);
+        this.geneDiseaseIndex = GeneDiseaseIndex.of(phenotypeService.diseases(), phenotypeService.associationData());
     }
 
     @Override
     public AnalysisResults run(AnalysisData data, AnalysisOptions options) throws LiricalAnalysisException {
-        Map<TermId, List<Gene2Genotype>> diseaseToGenotype = groupDiseasesByGene(data.genes());
+        return runAll(List.of(data), List.of(options), false).get(0);
+    }
+
+    @Override
+    public List<AnalysisResults> runBatch(List<AnalysisData> analysisData, AnalysisOptions options) throws LiricalAnalysisException {
+        return runAll(analysisData, List.of(options), false);
+    }
+
+    @Override
+    public List<AnalysisResults> runWithOptions(AnalysisData data, List<AnalysisOptions> options) throws LiricalAnalysisException {
+        return runAll(List.of(data), options, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The session uses the workers of the runner.
+     */
+    @Override
+    public AnalysisSession startSession(AnalysisData data, AnalysisOptions options) throws LiricalAnalysisException {
+        AnalysisResults results = runAll(List.of(data), List.of(options), true).get(0);
+        Map<TermId, HpoDisease> diseaseById = phenotypeService.diseases().diseaseById();
+        List<CompiledDisease> diseases = results.results()
+                .map(result -> diseaseStore.compiledDisease(diseaseById.get(result.diseaseId())))
+                .toList();
+        return new AnalysisSessionImpl(phenotypeLrEvaluator, pool, data, options, results, diseases);
+    }
+
+    @Override
+    public CompletableFuture<AnalysisResults> runAsync(AnalysisData data, AnalysisOptions options) {
+        AnalysisControl control = AnalysisControl.start(List.of(options));
+        CompletableFuture<AnalysisResults> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return analyze(List.of(data), List.of(options), false, control).get(0);
+            } catch (LiricalAnalysisException e) {
+                throw new CompletionException(e);
+            }
+        }, pool);
+        // Stop the workers if the future is cancelled or completed by the caller, e.g. due to a timeout.
+        future.whenComplete((results, e) -> {
+            if (e != null)
+                control.cancel();
+        });
+        return future;
+    }
+
+    /**
+     * Run {@link #analyze(List, List, boolean, AnalysisControl)} in the pool and wait for the results.
+     */
+    private List<AnalysisResults> runAll(List<AnalysisData> analysisData,
+                                         List<AnalysisOptions> options,
+                                         boolean retainAllResults) throws LiricalAnalysisException {
+        AnalysisControl control = AnalysisControl.start(options);
+        try {
+            return pool.submit(() -> analyze(analysisData, options, retainAllResults, control)).get();
+        } catch (InterruptedException | ExecutionException e) {
+            // The pool wraps the checked exceptions of the task.
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause())
+                if (cause instanceof LiricalAnalysisException lae)
+                    throw lae;
+            control.cancel();
+            LOGGER.error(e.getMessage(), e);
+            return Collections.nCopies(analysisData.size() * options.size(), AnalysisResults.empty());
+        }
+    }
+
+    /**
+     * Analyze each sample with each options. We iterate the diseases once and score all samples against each disease.
+     * The phenotype LRs of a disease and a sample are calculated once and shared by all options. The options
+     * that differ only in the variant deleteriousness threshold, e.g. the options of a threshold sweep,
+     * share the genotype LRs of the sample (see {@link GenotypeLrCache}).
+     * <p>
+     * The method must be run by a worker of the pool.
+     *
+     * @param retainAllResults retain the results of all evaluated diseases, regardless of the top result count
+     *                         and the upper-bound pruning of the options.
+     * @param control the control for stopping the analysis before all diseases are evaluated.
+     * @return the results of the analyses in the sample-major order, i.e. the results of the {@code i}-th options
+     * for the {@code j}-th sample are at {@code j * options.size() + i}.
+     */
+    private List<AnalysisResults> analyze(List<AnalysisData> analysisData,
+                                          List<AnalysisOptions> options,
+                                          boolean retainAllResults,
+                                          AnalysisControl control) throws LiricalAnalysisException {
+        if (analysisData.isEmpty() || options.isEmpty())
+            return List.of();
+
+        List<Predicate<HpoDisease>> diseaseFilters = options.stream()
+                .map(o -> prepareDiseaseFilter(o.diseaseDatabases(), o.targetDiseases()))
+                .toList();
+        // The analysis order of the diseases breaks the ties of the posttest probabilities.
+        List<HpoDisease> allDiseases = geneDiseaseIndex.diseases();
+        List<HpoDisease> diseases = new ArrayList<>();
+        // The indices of the diseases in the `geneDiseaseIndex`.
+        int[] diseaseIndices = new int[allDiseases.size()];
+        for (int d = 0; d < allDiseases.size(); d++) {
+            HpoDisease disease = allDiseases.get(d);
+            if (diseaseFilters.stream().anyMatch(filter -> filter.test(disease))) {
+                diseaseIndices[diseases.size()] = d;
+                diseases.add(disease);
+            }
+        }
+        List<OptionsAnalysis> variants = new ArrayList<>(options.size());
+        for (int i = 0; i < options.size(); i++)
+            variants.add(prepareOptionsAnalysis(options.get(i), diseaseFilters.get(i), diseases));
+
+        List<SampleAnalysis> analyses = new ArrayList<>(analysisData.size() * variants.size());
+        for (AnalysisData data : analysisData) {
+            GeneDiseaseIndex.SampleGenes sampleGenes = geneDiseaseIndex.groupDiseasesByGene(data.genes());
+            Map<GenotypeLrSettings, GenotypeLrCache> sharedGenotypeLrs = new HashMap<>();
+            for (OptionsAnalysis variant : variants)
+                analyses.add(prepareSampleAnalysis(data, sampleGenes, variant, sharedGenotypeLrs, retainAllResults));
+        }
+        int sampleCount = analysisData.size();
+        List<UpperBoundPruning> prunings = analyses.stream().map(SampleAnalysis::pruning).toList();
+        int[] topResultCounts = analyses.stream().mapToInt(a -> retainAllResults ? 0 : a.options().topResultCount()).toArray();
+
+        ProgressReporter progressReporter = new ProgressReporter(1_000, "diseases");
+        // We score all samples against a disease before moving to the next disease.
+        // Each worker retains the results of its own share of the diseases.
+        CostWeightedTask<BatchResults> task = CostWeightedTask.of(
+                estimateCosts(diseases, diseaseIndices, analyses),
+                parallelism(options),
+                () -> new BatchResults(prunings, topResultCounts),
+                (batch, i) -> {
+                    // The analysis is stopped cooperatively, the remaining diseases are skipped.
+                    if (control.shouldStop())
+                        return;
+                    progressReporter.log();
+                    for (int sample = 0; sample < sampleCount; sample++) {
+                        int offset = sample * variants.size();
+                        analyzeDisease(i, diseaseIndices[i], diseases.get(i), analysisData.get(sample), variants, analyses.subList(offset, offset + variants.size()))
+                                .forEach(result -> batch.add(new BatchResults.AnalysisResult(offset + result.analysis(), result.result())));
+                    }
+                },
+                BatchResults::merge);
+        BatchResults batchResults = task.invoke();
+        progressReporter.summarize();
+
+        if (control.isCancelled())
+            throw new LiricalAnalysisException("The analysis was cancelled");
+        if (control.isTimedOut()) {
+            if (!control.returnPartialResults())
+                throw new LiricalAnalysisException("The analysis did not finish in %s".formatted(control.timeout()));
+            LOGGER.warn("The analysis did not finish in {}. Returning the results of the diseases evaluated so far", control.timeout());
+        }
 
+        List<AnalysisResults> results = new ArrayList<>(analyses.size());
+        for (int i = 0; i < analyses.size(); i++) {
+            SampleAnalysis analysis = analyses.get(i);
+            int pruned = analysis.pruning() == null ? 0 : (int) analysis.pruning().prunedDiseaseCount();
+            AnalysisSummary summary = new AnalysisSummary(analysis.evaluatedDiseases().intValue(), analysis.skippedDiseases().intValue(), batchResults.discardedCount(i), pruned);
+            LOGGER.debug("Evaluated {} diseases for {}, skipped {} diseases with no deleterious variants or associated genes, " +
+                    "discarded {} results outside of the top results, pruned {} diseases", summary.evaluatedDiseaseCount(),
+                    analysis.data().sampleId(), summary.genotypeFilteredDiseaseCount(), summary.discardedResultCount(), summary.prunedDiseaseCount());
+            GenotypeLrCache genotypeLrs = analysis.genotypeLrs();
+            if (genotypeLrs != null && genotypeLrs.computedCount() > 0)
+                LOGGER.debug("Genotype LR cache for {}: {} evaluations, {} computed, deduplication ratio {}",
+                        analysis.data().sampleId(), genotypeLrs.evaluationCount(), genotypeLrs.computedCount(),
+                        "%.2f".formatted((double) genotypeLrs.evaluationCount() / genotypeLrs.computedCount()));
+            results.add(AnalysisResults.of(batchResults.results(i), summary));
+        }
+        phenotypeLrEvaluator.cache()
+                .ifPresent(cache -> LOGGER.debug("Phenotype LR cache: {} hits, {} misses, {} entries",
+                        cache.hitCount(), cache.missCount(), cache.size()));
+        return results;
+    }
+
+    /**
+     * @return the number of the pool workers that can evaluate the diseases of the analysis with the {@code options}.
+     * The most restrictive {@link AnalysisOptions#parallelism()} limit applies if more than one options is analyzed.
+     */
+    private int parallelism(List<AnalysisOptions> options) {
+        int parallelism = pool.getParallelism();
+        for (AnalysisOptions o : options)
+            if (o.parallelism() > 0)
+                parallelism = Math.min(parallelism, o.parallelism());
+        return parallelism;
+    }
+
+    /**
+     * Estimate the cost of evaluating each of the {@code diseases} for all {@code analyses}.
+     * <p>
+     * The phenotype LRs dominate the cost, and they scale with the number of the disease annotations
+     * and the number of the query terms. The genotype LRs scale with the number of the genes associated
+     * with the disease.
+     */
+    private static long[] estimateCosts(List<HpoDisease> diseases, int[] diseaseIndices, List<SampleAnalysis> analyses) {
+        long queryTerms = 0;
+        for (SampleAnalysis analysis : analyses)
+            queryTerms += analysis.data().presentPhenotypeTerms().size() + analysis.data().negatedPhenotypeTerms().size();
+
+        long[] costs = new long[diseases.size()];
+        for (int i = 0; i < diseases.size(); i++) {
+            HpoDisease disease = diseases.get(i);
+            long genes = 0;
+            for (SampleAnalysis analysis : analyses)
+                genes += analysis.sampleGenes().geneCount(diseaseIndices[i]);
+            // Each disease costs at least one unit, e.g. if it is discarded by the genotype checks.
+            costs[i] = 1 + (long) disease.annotations().size() * queryTerms + genes;
+        }
+        return costs;
+    }
+
+    private OptionsAnalysis prepareOptionsAnalysis(AnalysisOptions options, Predicate<HpoDisease> diseaseFilter, List<HpoDisease> diseases) {
         GenotypeLikelihoodRatio genotypeLikelihoodRatio = configureGenotypeLikelihoodRatio(
                 options.genomeBuild(),
                 options.variantDeleteriousnessThreshold(),
                 options.defaultVariantBackgroundFrequency(),
                 options.useStrictPenalties()
         );
+        // The pretest probabilities are `NaN` for the diseases that are filtered out or have no pretest probability.
+        double[] pretestProbabilities = new double[diseases.size()];
+        BitSet includedDiseases = new BitSet(diseases.size());
+        for (int i = 0; i < diseases.size(); i++) {
+            HpoDisease disease = diseases.get(i);
+            pretestProbabilities[i] = Double.NaN;
+            if (!diseaseFilter.test(disease))
+                continue;
+            includedDiseases.set(i);
+            Optional<Double> pretest = options.pretestDiseaseProbability().pretestProbability(disease.id());
+            if (pretest.isPresent())
+                pretestProbabilities[i] = pretest.get();
+            else
+                LOGGER.warn("Missing pretest probability for {} ({})", disease.diseaseName(), disease.id());
+        }
+        return new OptionsAnalysis(options, genotypeLikelihoodRatio, includedDiseases, pretestProbabilities);
+    }
 
-        ProgressReporter progressReporter = new ProgressReporter(1_000, "diseases");
-        Stream<TestResult> testResultStream = phenotypeService.diseases().hpoDiseases()
-                .parallel() // why not?
-                .filter(prepareDiseaseFilter(options.diseaseDatabases(), options.targetDiseases()))
-                .peek(d -> progressReporter.log())
-                .map(disease -> analyzeDisease(genotypeLikelihoodRatio, disease, data, options, diseaseToGenotype))
-                .flatMap(Optional::stream);
-
-        try {
-            List<TestResult> results = pool.submit(testResultStream::toList).get();
-            progressReporter.summarize();
-            return AnalysisResults.of(results);
-        } catch (InterruptedException | ExecutionException e) {
-            LOGGER.error(e.getMessage(), e);
-            return AnalysisResults.empty();
+    /**
+     * @param sharedGenotypeLrs the genotype LR caches of the sample, created for the previous options.
+     */
+    private SampleAnalysis prepareSampleAnalysis(AnalysisData data,
+                                                 GeneDiseaseIndex.SampleGenes sampleGenes,
+                                                 OptionsAnalysis variant,
+                                                 Map<GenotypeLrSettings, GenotypeLrCache> sharedGenotypeLrs,
+                                                 boolean retainAllResults) {
+        AnalysisOptions options = variant.options();
+        // The pruning only makes sense if we retain the top results.
+        UpperBoundPruning pruning = !retainAllResults && options.topResultCount() > 0 && options.useUpperBoundPruning()
+                ? UpperBoundPruning.of(phenotypeLrEvaluator, data.presentPhenotypeTerms(), data.negatedPhenotypeTerms())
+                : null;
+        GenotypeLrCache genotypeLrs = null;
+        if (variant.genotypeLikelihoodRatio() != null) {
+            GenotypeLrSettings settings = new GenotypeLrSettings(options.genomeBuild(),
+                    options.defaultVariantBackgroundFrequency(), options.useStrictPenalties());
+            GenotypeLrCache shared = sharedGenotypeLrs.get(settings);
+            genotypeLrs = shared == null
+                    ? new GenotypeLrCache(variant.genotypeLikelihoodRatio(), data.sampleId())
+                    : shared.withEvaluator(variant.genotypeLikelihoodRatio());
+            sharedGenotypeLrs.putIfAbsent(settings, genotypeLrs);
         }
+        return new SampleAnalysis(data, options, sampleGenes, genotypeLrs, pruning, new LongAdder(), new LongAdder());
     }
 
     private static Predicate<HpoDisease> prepareDiseaseFilter(
@@ -94,88 +357,106 @@ public class LiricalAnalysisRunnerImpl implements LiricalAnalysisRunner {
         }
     }
 
-    private Map<TermId, List<Gene2Genotype>> groupDiseasesByGene(GenesAndGenotypes genes) {
-        Map<TermId, Collection<TermId>> geneToDisease = phenotypeService.associationData().associations().geneIdToDiseaseIds();
-        Map<TermId, List<Gene2Genotype>> diseaseToGenotype = new HashMap<>(genes.size());
-
-        for (Gene2Genotype gene : genes) {
-            Collection<TermId> diseaseIds = geneToDisease.getOrDefault(gene.geneId().id(), List.of());
-            for (TermId diseaseId : diseaseIds) {
-                diseaseToGenotype.computeIfAbsent(diseaseId, k -> new ArrayList<>())
-                        .add(gene);
-            }
+    /**
+     * Analyze the {@code i}-th disease with each of the {@code variants} of the analysis options.
+     *
+     * @param diseaseIndex the index of the disease in the {@link GeneDiseaseIndex}.
+     * @param analyses the analyses of the sample, one for each variant.
+     * @return the results with the index of the variant.
+     */
+    private Stream<BatchResults.AnalysisResult> analyzeDisease(int i,
+                                                               int diseaseIndex,
+                                                               HpoDisease disease,
+                                                               AnalysisData analysisData,
+                                                               List<OptionsAnalysis> variants,
+                                                               List<SampleAnalysis> analyses) {
+        PhenotypeScores scores = new PhenotypeScores(disease, analysisData);
+        Stream.Builder<BatchResults.AnalysisResult> results = Stream.builder();
+        for (int v = 0; v < variants.size(); v++) {
+            OptionsAnalysis variant = variants.get(v);
+            if (!variant.includedDiseases().get(i))
+                continue;
+            analyses.get(v).evaluatedDiseases().increment();
+            double pretestProbability = variant.pretestProbabilities()[i];
+            if (Double.isNaN(pretestProbability))
+                // The disease has no pretest probability.
+                continue;
+            Optional<TestResult> result = analyzeDisease(diseaseIndex, disease, pretestProbability, analyses.get(v), scores);
+            if (result.isPresent())
+                results.add(new BatchResults.AnalysisResult(v, new TopResults.RankedResult(i, result.get())));
         }
-
-        return diseaseToGenotype;
+        return results.build();
     }
 
     private Optional<TestResult> analyzeDisease(
-            GenotypeLikelihoodRatio genotypeLikelihoodRatio,
+            int diseaseIndex,
             HpoDisease disease,
-            AnalysisData analysisData,
-            AnalysisOptions options,
-            Map<TermId, List<Gene2Genotype>> diseaseToGenotype
+            double pretestProbability,
+            SampleAnalysis analysis,
+            PhenotypeScores scores
     ) {
-        Optional<Double> pretestOptional = options.pretestDiseaseProbability().pretestProbability(disease.id());
-        if (pretestOptional.isEmpty()) {
-            LOGGER.warn("Missing pretest probability for {} ({})", disease.diseaseName(), disease.id());
-            return Optional.empty();
-        }
-        double pretestProbability = pretestOptional.get();
-
-        InducedDiseaseGraph idg = InducedDiseaseGraph.create(disease, phenotypeService.hpo());
-        List<LrWithExplanation> observed = observedPhenotypesLikelihoodRatios(analysisData.presentPhenotypeTerms(), idg);
-        List<LrWithExplanation> excluded = excludedPhenotypesLikelihoodRatios(analysisData.negatedPhenotypeTerms(), idg);
+        AnalysisData analysisData = analysis.data();
+        AnalysisOptions options = analysis.options();
+        GeneDiseaseIndex.SampleGenes sampleGenes = analysis.sampleGenes();
 
         // The GT LR stays `null` if no genotype data is available.
         GenotypeLrWithExplanation bestGenotypeLr = null;
-        if (genotypeLikelihoodRatio != null && !diseaseToGenotype.isEmpty()) {
+        if (analysis.genotypeLrs() != null && sampleGenes.hasAssociatedGenes()) {
             // The variant/genotype data is available for the individual,
             // and we do *not* run a phenotype-only analysis.
-            boolean noPredictedDeleteriousVariantsWereFound = true;
-            for (Gene2Genotype g2g : diseaseToGenotype.getOrDefault(disease.id(), List.of())) {
-                // Find the gene with the best LR match
-                GenotypeLrWithExplanation candidate = genotypeLikelihoodRatio.evaluateGenotype(analysisData.sampleId(), g2g, disease.modesOfInheritance());
-                bestGenotypeLr = takeNonNullOrGreaterLr(bestGenotypeLr, candidate);
-
-                if (!options.includeDiseasesWithNoDeleteriousVariants()) {
-                    // has at least one pathogenic clinvar variant or predicted pathogenic variant?
-                    if (g2g.pathogenicClinVarCount(analysisData.sampleId()) > 0
-                            || g2g.deleteriousAlleleCount(analysisData.sampleId(), options.variantDeleteriousnessThreshold()) > 0) {
-                        noPredictedDeleteriousVariantsWereFound = false;
-                    }
-                }
-            }
+            List<Gene2Genotype> genes = sampleGenes.genes(diseaseIndex);
 
-            if (!options.includeDiseasesWithNoDeleteriousVariants() && noPredictedDeleteriousVariantsWereFound)
+            // We check the cheap conditions for discarding the disease first,
+            // to avoid calculating the likelihood ratios of the discarded diseases.
+            if (!options.includeDiseasesWithNoDeleteriousVariants()
+                    && noPredictedDeleteriousVariantsWereFound(genes, analysisData.sampleId(), options.variantDeleteriousnessThreshold())) {
+                analysis.skippedDiseases().increment();
                 return Optional.empty();
+            }
 
             /*
-             At this point, the `bestGenotypeLr` is null iff no gene is associated with a disease.
+             If no gene is associated with the disease, the `bestGenotypeLr` stays null.
              If the global mode is on, we keep the differentials with no associated gene. In this case,
              `bestGenotypeLr` stays null, and it's used downstream.
 
              However, if the global mode is off, we skip the differential diagnosis as there is no known gene associated
              with the disease, and we return an empty optional.
             */
-            if (bestGenotypeLr == null && !options.useGlobal())
+            if (genes.isEmpty() && !options.useGlobal()) {
+                analysis.skippedDiseases().increment();
                 return Optional.empty();
-        }
+            }
 
-        return Optional.of(TestResult.of(disease.id(), pretestProbability, observed, excluded, bestGenotypeLr));
-    }
+            for (Gene2Genotype g2g : genes) {
+                // Find the gene with the best LR match
+                GenotypeLrWithExplanation candidate = analysis.genotypeLrs().evaluateGenotype(g2g, geneDiseaseIndex.inheritanceModes(diseaseIndex));
+                bestGenotypeLr = takeNonNullOrGreaterLr(bestGenotypeLr, candidate);
+            }
+        }
 
+        // The disease passed the genotype checks, hence we score the phenotype terms,
+        // unless they have been scored for another variant of the analysis options.
+        if (!scores.isScored() && analysis.pruning() != null) {
+            Optional<TestResult> result = analysis.pruning().evaluate(scores.compiledDisease(), pretestProbability, bestGenotypeLr);
+            result.ifPresent(scores::reuse);
+            return result;
+        }
 
-    private List<LrWithExplanation> observedPhenotypesLikelihoodRatios(List<TermId> phenotypes, InducedDiseaseGraph idg) {
-        return phenotypes.stream()
-                .map(phenotype -> phenotypeLrEvaluator.lrForObservedTerm(phenotype, idg))
-                .toList();
+        return Optional.of(TestResult.of(disease.id(), pretestProbability, scores.observed(), scores.excluded(), bestGenotypeLr));
     }
 
-    private List<LrWithExplanation> excludedPhenotypesLikelihoodRatios(List<TermId> phenotypes, InducedDiseaseGraph idg) {
-        return phenotypes.stream()
-                .map(phenotype -> phenotypeLrEvaluator.lrForExcludedTerm(phenotype, idg))
-                .toList();
+    /**
+     * @return {@code true} if none of the {@code genes} has a pathogenic ClinVar variant or a predicted pathogenic variant.
+     */
+    private static boolean noPredictedDeleteriousVariantsWereFound(List<Gene2Genotype> genes,
+                                                                   String sampleId,
+                                                                   float variantDeleteriousnessThreshold) {
+        for (Gene2Genotype g2g : genes) {
+            if (g2g.pathogenicClinVarCount(sampleId) > 0
+                    || g2g.deleteriousAlleleCount(sampleId, variantDeleteriousnessThreshold) > 0)
+                return false;
+        }
+        return true;
     }
 
     /**
@@ -208,10 +489,105 @@ public class LiricalAnalysisRunnerImpl implements LiricalAnalysisRunner {
                 }).orElse(null);
     }
 
+    /**
+     * The inputs of the analyses with the given options, shared by all samples.
+     *
+     * @param genotypeLikelihoodRatio the genotype LR evaluator or {@code null} for a phenotype-only analysis.
+     * @param includedDiseases the indices of the diseases that passed the disease filters of the options.
+     * @param pretestProbabilities the pretest probabilities of the diseases or {@code NaN}s if the disease is not evaluated.
+     */
+    private record OptionsAnalysis(AnalysisOptions options,
+                                   GenotypeLikelihoodRatio genotypeLikelihoodRatio,
+                                   BitSet includedDiseases,
+                                   double[] pretestProbabilities) {
+    }
+
+    /**
+     * The options of the genotype LR evaluator, except for the variant deleteriousness threshold.
+     * The genotype LRs of a sample are shared by the options with the same settings.
+     */
+    private record GenotypeLrSettings(GenomeBuild genomeBuild,
+                                      double defaultVariantBackgroundFrequency,
+                                      boolean strict) {
+    }
+
+    /**
+     * The state of the analysis of a single sample with the given options.
+     *
+     * @param sampleGenes the genes of the sample grouped by the associated diseases.
+     * @param genotypeLrs the genotype LRs of the sample genes or {@code null} for a phenotype-only analysis.
+     * @param pruning the pruning of the analysis or {@code null} if the pruning is not used.
+     * @param evaluatedDiseases the number of diseases that passed the disease filters and were evaluated.
+     * @param skippedDiseases the number of diseases discarded by the genotype checks before scoring the phenotype terms.
+     */
+    private record SampleAnalysis(AnalysisData data,
+                                  AnalysisOptions options,
+                                  GeneDiseaseIndex.SampleGenes sampleGenes,
+                                  GenotypeLrCache genotypeLrs,
+                                  UpperBoundPruning pruning,
+                                  LongAdder evaluatedDiseases,
+                                  LongAdder skippedDiseases) {
+    }
+
+    /**
+     * The phenotype LRs of a disease and a sample, calculated on the first request and shared by the analyses
+     * with different options. The instance is confined to a single thread.
+     */
+    private final class PhenotypeScores {
+
+        private final HpoDisease disease;
+        private final AnalysisData analysisData;
+        private CompiledDisease compiledDisease;
+        private List<LrWithExplanation> observed;
+        private List<LrWithExplanation> excluded;
+
+        private PhenotypeScores(HpoDisease disease, AnalysisData analysisData) {
+            this.disease = disease;
+            this.analysisData = analysisData;
+        }
+
+        private CompiledDisease compiledDisease() {
+            if (compiledDisease == null)
+                compiledDisease = diseaseStore.compiledDisease(disease);
+            return compiledDisease;
+        }
+
+        private boolean isScored() {
+            return observed != null;
+        }
+
+        /**
+         * Reuse the phenotype LRs of the {@code result} calculated for the disease and the sample.
+         */
+        private void reuse(TestResult result) {
+            observed = result.observedResults();
+            excluded = result.excludedResults();
+        }
+
+        private List<LrWithExplanation> observed() {
+            score();
+            return observed;
+        }
+
+        private List<LrWithExplanation> excluded() {
+            score();
+            return excluded;
+        }
+
+        private void score() {
+            if (isScored())
+                return;
+            observed = phenotypeLrEvaluator.lrsForObservedTerms(analysisData.presentPhenotypeTerms(), compiledDisease());
+            excluded = phenotypeLrEvaluator.lrsForExcludedTerms(analysisData.negatedPhenotypeTerms(), compiledDisease());
+        }
+    }
+
     @Override
     public void close() {
         LOGGER.debug("Shutting down the analysis runner");
-        // TODO - use close after updating Java to 19+
-        pool.shutdownNow();
+        // The shared pool is managed by its owner.
+        if (ownsPool)
+            // TODO - use close after updating Java to 19+
+            pool.shutdownNow();
     }
 }
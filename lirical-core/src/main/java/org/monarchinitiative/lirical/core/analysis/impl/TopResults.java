@@ -0,0 +1,97 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.monarchinitiative.lirical.core.analysis.TestResult;
+
+import java.util.*;
+
+/**
+ * A bounded container that retains the test results with the highest posttest probabilities.
+ * <p>
+ * The results are ranked by the posttest probability and then by the order in which the diseases were submitted
+ * for the analysis. Therefore, the retained results are exactly the first results of sorting all results
+ * with a stable sort, regardless of how the work was split among the workers.
+ * <p>
+ * The container is <em>NOT</em> thread safe. Each worker fills its own container and the containers are combined
+ * with {@link #merge(TopResults)} at the end (see {@link BatchResults}).
+ * <p>
+ * Once full, the container reports the posttest probability of its worst result to the {@link UpperBoundPruning},
+ * if any. The value is a lower bound of the posttest probability of the worst result of the merged containers.
+ */
+class TopResults {
+
+    /**
+     * The worst retained result is at the head of the queue.
+     */
+    private static final Comparator<RankedResult> WORST_FIRST = Comparator.comparingDouble(RankedResult::posttestProbability)
+            .thenComparing(Comparator.comparingInt(RankedResult::order).reversed());
+
+    private final int capacity;
+    private final UpperBoundPruning pruning; // nullable
+    private final PriorityQueue<RankedResult> heap;
+    private int discardedCount = 0;
+
+    TopResults(int capacity) {
+        this(capacity, null);
+    }
+
+    TopResults(int capacity, UpperBoundPruning pruning) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity %d must be greater than 0".formatted(capacity));
+        this.capacity = capacity;
+        this.pruning = pruning;
+        this.heap = new PriorityQueue<>(Math.min(capacity, 1_024) + 1, WORST_FIRST);
+    }
+
+    void add(RankedResult result) {
+        if (heap.size() < capacity) {
+            heap.add(result);
+            if (heap.size() < capacity)
+                return;
+        } else {
+            discardedCount++;
+            if (WORST_FIRST.compare(result, heap.peek()) <= 0)
+                return;
+            heap.poll();
+            heap.add(result);
+        }
+        if (pruning != null)
+            pruning.raiseThreshold(heap.peek().posttestProbability());
+    }
+
+    TopResults merge(TopResults other) {
+        TopResults larger = heap.size() >= other.heap.size() ? this : other;
+        TopResults smaller = larger == this ? other : this;
+        for (RankedResult result : smaller.heap)
+            larger.add(result);
+        larger.discardedCount += smaller.discardedCount;
+        return larger;
+    }
+
+    /**
+     * @return the number of results that did not rank among the top results.
+     */
+    int discardedCount() {
+        return discardedCount;
+    }
+
+    /**
+     * @return the retained results sorted by the posttest probability in descending order.
+     */
+    List<TestResult> results() {
+        RankedResult[] ranked = heap.toArray(RankedResult[]::new);
+        Arrays.sort(ranked, WORST_FIRST.reversed());
+        List<TestResult> results = new ArrayList<>(ranked.length);
+        for (RankedResult result : ranked)
+            results.add(result.result());
+        return results;
+    }
+
+    /**
+     * A test result along with the order of the disease in the analysis.
+     */
+    record RankedResult(int order, TestResult result) {
+        double posttestProbability() {
+            return result.posttestProbability();
+        }
+    }
+}
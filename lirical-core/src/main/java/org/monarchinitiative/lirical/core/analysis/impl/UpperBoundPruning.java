@@ -0,0 +1,142 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.monarchinitiative.lirical.core.analysis.TestResult;
+import org.monarchinitiative.lirical.core.likelihoodratio.*;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Skip the evaluation of the diseases that cannot rank among the top results of an analysis.
+ * <p>
+ * The composite likelihood ratio is a product of the likelihood ratios of the phenotype terms and of the genotype.
+ * We multiply the exact genotype LR with the upper bounds of the phenotype LRs to get an upper bound
+ * of the posttest probability of a disease. The observed terms are evaluated one by one and the bounds
+ * are replaced by the exact LRs as we go. We stop evaluating the disease as soon as the bound falls below
+ * the posttest probability threshold, i.e. the worst retained result of a full {@link TopResults}.
+ * <p>
+ * The pruning is exact: a disease is pruned only if its posttest probability is <em>strictly</em> less
+ * than the threshold, hence the disease would have been discarded by the {@link TopResults} anyway.
+ * The bounds are inflated by a small margin to absorb the rounding errors of multiplying the LRs in another order.
+ * <p>
+ * The pruning is created for a single analysis and it is safe for concurrent use.
+ */
+class UpperBoundPruning {
+
+    /**
+     * The relative margin of the bounds that absorbs the rounding errors.
+     */
+    private static final double MARGIN = 1E-9;
+
+    private final PhenotypeLikelihoodRatio phenotypeLrEvaluator;
+    private final List<TermId> observedTerms;
+    private final List<TermId> excludedTerms;
+    private final LrUpperBound[] observedBounds;
+    private final LrUpperBound[] excludedBounds;
+    /**
+     * The positions of the observed terms in the order of evaluation. We evaluate the terms with the loosest
+     * bounds first to tighten the bound of the disease as quickly as possible.
+     */
+    private final int[] evaluationOrder;
+    /**
+     * The bits of the non-negative posttest probability threshold. The order of the bits of non-negative
+     * doubles matches the order of the values.
+     */
+    private final AtomicLong threshold = new AtomicLong(Double.doubleToLongBits(0.));
+    private final LongAdder prunedDiseases = new LongAdder();
+
+    static UpperBoundPruning of(PhenotypeLikelihoodRatio phenotypeLrEvaluator,
+                                List<TermId> observedTerms,
+                                List<TermId> excludedTerms) {
+        LrUpperBound[] observedBounds = observedTerms.stream()
+                .map(phenotypeLrEvaluator::observedTermUpperBound)
+                .toArray(LrUpperBound[]::new);
+        LrUpperBound[] excludedBounds = excludedTerms.stream()
+                .map(phenotypeLrEvaluator::excludedTermUpperBound)
+                .toArray(LrUpperBound[]::new);
+        int[] evaluationOrder = new int[observedBounds.length];
+        Integer[] order = new Integer[observedBounds.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> observedBounds[i].frequencyFactor()).reversed());
+        for (int i = 0; i < order.length; i++)
+            evaluationOrder[i] = order[i];
+        return new UpperBoundPruning(phenotypeLrEvaluator, observedTerms, excludedTerms, observedBounds, excludedBounds, evaluationOrder);
+    }
+
+    private UpperBoundPruning(PhenotypeLikelihoodRatio phenotypeLrEvaluator,
+                              List<TermId> observedTerms,
+                              List<TermId> excludedTerms,
+                              LrUpperBound[] observedBounds,
+                              LrUpperBound[] excludedBounds,
+                              int[] evaluationOrder) {
+        this.phenotypeLrEvaluator = phenotypeLrEvaluator;
+        this.observedTerms = observedTerms;
+        this.excludedTerms = excludedTerms;
+        this.observedBounds = observedBounds;
+        this.excludedBounds = excludedBounds;
+        this.evaluationOrder = evaluationOrder;
+    }
+
+    /**
+     * Raise the posttest probability threshold to {@code posttestProbability}, if greater than the current threshold.
+     */
+    void raiseThreshold(double posttestProbability) {
+        if (posttestProbability > 0.)
+            threshold.accumulateAndGet(Double.doubleToLongBits(posttestProbability), Math::max);
+    }
+
+    /**
+     * @return the number of the diseases whose evaluation was not completed.
+     */
+    long prunedDiseaseCount() {
+        return prunedDiseases.sum();
+    }
+
+    /**
+     * Evaluate the phenotype terms of the {@code disease}, unless the disease cannot rank among the top results.
+     *
+     * @param genotypeLr the genotype LR of the disease or {@code null} if not available.
+     * @return the test result or an empty optional if the disease was pruned.
+     */
+    Optional<TestResult> evaluate(CompiledDisease disease, double pretestProbability, GenotypeLrWithExplanation genotypeLr) {
+        int n = observedBounds.length;
+        // suffix[i] is the bound of the LR product of the observed terms from the evaluation order position `i`,
+        // the excluded terms, and the genotype.
+        double[] suffix = new double[n + 1];
+        suffix[n] = genotypeLr == null ? 1. : genotypeLr.lr();
+        for (LrUpperBound bound : excludedBounds)
+            suffix[n] *= bound.lr(disease);
+        for (int i = n - 1; i >= 0; i--)
+            suffix[i] = suffix[i + 1] * observedBounds[evaluationOrder[i]].lr(disease);
+
+        if (cannotReachThreshold(pretestProbability, suffix[0])) {
+            prunedDiseases.increment();
+            return Optional.empty();
+        }
+
+        PhenotypeLrList observed = phenotypeLrEvaluator.newLrList(observedTerms);
+        double exact = 1.;
+        for (int i = 0; i < n; i++) {
+            exact *= phenotypeLrEvaluator.evaluateObservedTerm(observed, evaluationOrder[i], disease);
+            if (i + 1 < n && cannotReachThreshold(pretestProbability, exact * suffix[i + 1])) {
+                prunedDiseases.increment();
+                return Optional.empty();
+            }
+        }
+
+        PhenotypeLrList excluded = phenotypeLrEvaluator.lrsForExcludedTerms(excludedTerms, disease);
+
+        return Optional.of(TestResult.of(disease.id(), pretestProbability, observed, excluded, genotypeLr));
+    }
+
+    private boolean cannotReachThreshold(double pretestProbability, double lrBound) {
+        double pretestOdds = pretestProbability / (1.0 - pretestProbability);
+        double posttestOdds = pretestOdds * lrBound * (1. + MARGIN);
+        double posttestProbability = posttestOdds / (1 + posttestOdds);
+        // The comparison is false for NaN, hence we do not prune if anything goes wrong.
+        return posttestProbability * (1. + MARGIN) < Double.longBitsToDouble(threshold.get());
+    }
+}
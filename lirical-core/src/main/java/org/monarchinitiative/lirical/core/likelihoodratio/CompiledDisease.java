@@ -0,0 +1,246 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.monarchinitiative.phenol.annotations.constants.hpo.HpoSubOntologyRootTermIds;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseaseAnnotation;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+
+/**
+ * A representation of a {@link HpoDisease} for the phenotype likelihood ratio calculations.
+ * <p>
+ * The disease annotations are stored as the {@link TermIndex} indices and the frequencies in primitive arrays,
+ * in the order of {@link HpoDisease#annotations()}. The compiled disease also contains the data
+ * of the induced disease graph, i.e. the terms that are excluded in the disease and the frequencies
+ * of the ancestors of the annotated terms. Therefore, we can evaluate a query term without traversing the ontology
+ * and without allocating any objects.
+ * <p>
+ * Use {@link PhenotypeLikelihoodRatio#compileDisease(HpoDisease, int)} to create a compiled disease.
+ */
+public final class CompiledDisease {
+
+    private final HpoDisease disease;
+    /**
+     * The ordinal of the disease among the diseases evaluated by a {@link PhenotypeLikelihoodRatio}
+     * or {@code -1} if the likelihood ratios of the disease must not be cached.
+     */
+    private final int ordinal;
+    private final TermId[] annotationIds;
+    private final int[] annotationTerms;
+    private final float[] annotationFrequencies;
+    /**
+     * The greatest frequency of the annotations or {@code 0} if the disease has no annotations.
+     */
+    private final double maximumFrequency;
+    private final int[] presentTerms;
+    private final int[] absentTerms;
+    /**
+     * Bitset with the absent annotations and their ancestors.
+     * The bitset is trimmed after the highest excluded term.
+     */
+    private final long[] excludedTerms;
+    /**
+     * Sorted indices of the ancestors of the annotated terms and the corresponding frequencies. The frequency is
+     * weighted down by a factor of 10 for each step of the shortest path to the annotated term.
+     */
+    private final int[] inducedTerms;
+    private final double[] inducedFrequencies;
+
+    static CompiledDisease of(HpoDisease disease, TermIndex termIndex, int ordinal) {
+        Collection<HpoDiseaseAnnotation> annotations = disease.annotations();
+        TermId[] annotationIds = new TermId[annotations.size()];
+        int[] annotationTerms = new int[annotations.size()];
+        float[] annotationFrequencies = new float[annotations.size()];
+        double maximumFrequency = 0.;
+        int i = 0;
+        for (HpoDiseaseAnnotation annotation : annotations) {
+            annotationIds[i] = annotation.id();
+            annotationTerms[i] = termIndex.indexOf(annotation.id());
+            annotationFrequencies[i] = annotation.frequency();
+            maximumFrequency = Math.max(maximumFrequency, annotationFrequencies[i]);
+            i++;
+        }
+
+        int[] presentTerms = disease.presentAnnotationsStream()
+                .mapToInt(annotation -> termIndex.indexOf(annotation.id()))
+                .toArray();
+
+        int[] absentTerms = disease.absentAnnotationsStream()
+                .mapToInt(annotation -> termIndex.indexOf(annotation.id()))
+                .toArray();
+        long[] excludedTerms = excludedTerms(absentTerms, termIndex);
+
+        Map<Integer, Double> induced = inducedFrequencies(annotationTerms, annotationFrequencies, termIndex);
+        int[] inducedTerms = induced.keySet().stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        double[] inducedFrequencies = new double[inducedTerms.length];
+        for (int j = 0; j < inducedTerms.length; j++)
+            inducedFrequencies[j] = induced.get(inducedTerms[j]);
+
+        return new CompiledDisease(disease, ordinal, annotationIds, annotationTerms, annotationFrequencies, maximumFrequency,
+                presentTerms, absentTerms, excludedTerms, inducedTerms, inducedFrequencies);
+    }
+
+    private static long[] excludedTerms(int[] absentTerms, TermIndex termIndex) {
+        int highest = Arrays.stream(absentTerms).max().orElse(-1);
+
+        long[] excludedTerms = new long[highest < 0 ? 0 : (highest >>> 6) + 1];
+        for (int absentTerm : absentTerms) {
+            if (absentTerm < 0)
+                continue;
+            for (int term : termIndex.breadthFirstAncestors(absentTerm))
+                excludedTerms[term >>> 6] |= 1L << term;
+        }
+        return excludedTerms;
+    }
+
+    private static Map<Integer, Double> inducedFrequencies(int[] annotationTerms,
+                                                           float[] annotationFrequencies,
+                                                           TermIndex termIndex) {
+        int phenotypicAbnormality = termIndex.indexOf(HpoSubOntologyRootTermIds.PHENOTYPIC_ABNORMALITY);
+        Map<Integer, Double> induced = new HashMap<>();
+        for (int i = 0; i < annotationTerms.length; i++) {
+            if (annotationTerms[i] < 0)
+                continue;
+            double frequency = annotationFrequencies[i];
+            // Breadth-first traversal of the ancestors reaches each ancestor by the shortest path first.
+            // We do not go through the Phenotypic abnormality term.
+            Set<Integer> visited = new HashSet<>();
+            List<Integer> current = List.of(annotationTerms[i]);
+            int distance = 0;
+            while (!current.isEmpty()) {
+                distance++;
+                double adjustedFrequency = frequency / Math.pow(10.0, distance);
+                List<Integer> next = new ArrayList<>();
+                for (int term : current) {
+                    for (int parent : termIndex.parents(term)) {
+                        if (parent == phenotypicAbnormality || !visited.add(parent))
+                            continue;
+                        induced.merge(parent, adjustedFrequency, Math::max);
+                        next.add(parent);
+                    }
+                }
+                current = next;
+            }
+        }
+        return induced;
+    }
+
+    private CompiledDisease(HpoDisease disease,
+                            int ordinal,
+                            TermId[] annotationIds,
+                            int[] annotationTerms,
+                            float[] annotationFrequencies,
+                            double maximumFrequency,
+                            int[] presentTerms,
+                            int[] absentTerms,
+                            long[] excludedTerms,
+                            int[] inducedTerms,
+                            double[] inducedFrequencies) {
+        this.disease = disease;
+        this.ordinal = ordinal;
+        this.annotationIds = annotationIds;
+        this.annotationTerms = annotationTerms;
+        this.annotationFrequencies = annotationFrequencies;
+        this.maximumFrequency = maximumFrequency;
+        this.presentTerms = presentTerms;
+        this.absentTerms = absentTerms;
+        this.excludedTerms = excludedTerms;
+        this.inducedTerms = inducedTerms;
+        this.inducedFrequencies = inducedFrequencies;
+    }
+
+    public HpoDisease disease() {
+        return disease;
+    }
+
+    public TermId id() {
+        return disease.id();
+    }
+
+    int ordinal() {
+        return ordinal;
+    }
+
+    /**
+     * @return the number of the present and absent annotations of the disease.
+     */
+    int annotationCount() {
+        return annotationTerms.length;
+    }
+
+    TermId annotationId(int annotation) {
+        return annotationIds[annotation];
+    }
+
+    /**
+     * @return the index of the term of the {@code annotation} or {@code -1} if the term is not in the {@link TermIndex}.
+     */
+    int annotationTerm(int annotation) {
+        return annotationTerms[annotation];
+    }
+
+    float annotationFrequency(int annotation) {
+        return annotationFrequencies[annotation];
+    }
+
+    /**
+     * @return the position of the first annotation of the {@code term} or {@code -1} if the term does not annotate
+     * the disease.
+     */
+    int firstAnnotationOf(int term) {
+        if (term < 0)
+            return -1;
+        for (int i = 0; i < annotationTerms.length; i++)
+            if (annotationTerms[i] == term)
+                return i;
+        return -1;
+    }
+
+    /**
+     * @return the greatest frequency of the present and absent annotations or {@code 0}
+     * if the disease has no annotations.
+     */
+    double maximumFrequency() {
+        return maximumFrequency;
+    }
+
+    /**
+     * @return the indices of the terms of the present annotations. The array must not be modified.
+     */
+    int[] presentTerms() {
+        return presentTerms;
+    }
+
+    /**
+     * @return the indices of the terms of the absent annotations. The array must not be modified.
+     */
+    int[] absentTerms() {
+        return absentTerms;
+    }
+
+    /**
+     * @return {@code true} if the {@code term} or any of its descendants is an absent annotation of the disease.
+     */
+    boolean isExactExcludedMatch(int term) {
+        int word = term >>> 6;
+        return term >= 0
+                && word < excludedTerms.length
+                && (excludedTerms[word] & (1L << term)) != 0;
+    }
+
+    /**
+     * @return the position of the {@code term} among the induced terms or a negative number if the term
+     * is not an ancestor of any annotated term.
+     */
+    int inducedTermPosition(int term) {
+        return Arrays.binarySearch(inducedTerms, term);
+    }
+
+    double inducedFrequency(int position) {
+        return inducedFrequencies[position];
+    }
+}
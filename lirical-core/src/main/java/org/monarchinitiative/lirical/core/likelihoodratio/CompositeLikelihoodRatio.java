@@ -0,0 +1,64 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+/**
+ * The arithmetic for combining the likelihood ratios of the individual tests into the composite likelihood ratio
+ * and the posttest probability.
+ * <p>
+ * The composite LR is the product of the individual LRs. We multiply the raw LRs as long as the product
+ * and the posttest odds are in the range of the normal {@code double}s. With many terms, the product can overflow
+ * to infinity or underflow to zero, even if the posttest probability is a perfectly normal number.
+ * In that case, the LRs are combined in the log-space and the posttest probability is derived
+ * from the log posttest odds.
+ */
+public final class CompositeLikelihoodRatio {
+
+    private CompositeLikelihoodRatio() {
+        // static utility class
+    }
+
+    /**
+     * @return the product of the {@code lrs}, multiplied from the first to the last,
+     * or {@code 1} if the array is empty.
+     */
+    public static double product(double[] lrs) {
+        double product = 1.0;
+        for (double lr : lrs)
+            product *= lr;
+        return product;
+    }
+
+    /**
+     * @return the sum of the natural logarithms of the {@code lrs} or {@code 0} if the array is empty.
+     */
+    public static double sumOfLogs(double[] lrs) {
+        double sum = 0.;
+        for (double lr : lrs)
+            sum += Math.log(lr);
+        return sum;
+    }
+
+    /**
+     * @return {@code true} if the product of the LRs or the posttest odds overflowed to infinity,
+     * underflowed to zero or to a subnormal number with a reduced precision, or is {@code NaN},
+     * e.g. due to multiplying an overflowed and an underflowed product.
+     */
+    public static boolean isOutOfRange(double value) {
+        double magnitude = Math.abs(value);
+        return !(Double.MIN_NORMAL <= magnitude && magnitude <= Double.MAX_VALUE);
+    }
+
+    /**
+     * @param pretestProbability the pretest probability of the disease.
+     * @param logLr the natural logarithm of the composite likelihood ratio.
+     * @return the posttest probability of the disease.
+     */
+    public static double posttestProbability(double pretestProbability, double logLr) {
+        double logPosttestOdds = Math.log(pretestProbability) - Math.log1p(-pretestProbability) + logLr;
+        // The logistic function, evaluated such that the exponential cannot overflow.
+        if (logPosttestOdds < 0.) {
+            double posttestOdds = Math.exp(logPosttestOdds);
+            return posttestOdds / (1. + posttestOdds);
+        }
+        return 1. / (1. + Math.exp(-logPosttestOdds));
+    }
+}
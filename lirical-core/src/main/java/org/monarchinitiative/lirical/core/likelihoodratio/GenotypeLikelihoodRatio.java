@@ -7,7 +7,6 @@ import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -38,13 +37,13 @@ public class GenotypeLikelihoodRatio {
     /**
      * This is a Poisson distribution object that is used to help calculate the genotype likelihood ratio for cases
      * with autosomal recessive inheritance. We can construct this object once and reuse it. This is
-     * lambda-disease with lambda=2
+     * lambda-disease with lambda=2. The distribution memoizes the probabilities of the observed weighted counts.
      */
     private final PoissonDistribution recessivePoissonDistribution;
     /**
      * This is a Poisson distribution object that is used to help calculate the genotype likelihood ratio for cases
      * with autosomal dominant inheritance. We can construct this object once and reuse it. This is
-     * lambda-disease with lambda=1
+     * lambda-disease with lambda=1. The distribution memoizes the probabilities of the observed weighted counts.
      */
     private final PoissonDistribution dominantPoissonDistribution;
 
@@ -61,23 +60,30 @@ public class GenotypeLikelihoodRatio {
      */
     public GenotypeLikelihoodRatio(BackgroundVariantFrequencyService backgroundVariantFrequencyService, Options options) {
         this.backgroundVariantFrequencyService = Objects.requireNonNull(backgroundVariantFrequencyService);
-        this.recessivePoissonDistribution = new PoissonDistribution(2.0);
-        this.dominantPoissonDistribution = new PoissonDistribution(1.0);
+        this.recessivePoissonDistribution = PoissonDistribution.memoized(2.0);
+        this.dominantPoissonDistribution = PoissonDistribution.memoized(1.0);
         this.strict = Objects.requireNonNull(options).strict;
         this.pathogenicityThreshold = options.pathogenicityThreshold;
     }
 
+    /**
+     * @return the pathogenicity threshold of the deleterious variants.
+     */
+    public float pathogenicityThreshold() {
+        return pathogenicityThreshold;
+    }
+
     /**
      * If no pathogenic variant at all was identified in the gene of interest, we use a heuristic score that
      * intends to represent the probability of missing the variant for technical reasons. We will estimate
      * this probability to be 5%. For autosomal recessive diseases, we will estimate the probability at
      * 5% * 5%.
      *
-     * @param inheritanceModes List of all inheritance modes associated with this disease (usually a single one)
+     * @param inheritanceModes all inheritance modes associated with this disease (usually a single one)
      * @return genotype likelihood ratio for situation where no variant at all was found in a gene
      */
-    private static GenotypeLrWithExplanation getLRifNoVariantAtAllWasIdentified(Collection<TermId> inheritanceModes, Gene2Genotype g2g) {
-        if (inheritanceModes.stream().anyMatch(tid -> tid.equals(HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE)))
+    private static GenotypeLrWithExplanation getLRifNoVariantAtAllWasIdentified(InheritanceModes inheritanceModes, Gene2Genotype g2g) {
+        if (inheritanceModes.hasAutosomalRecessive())
             // compatible with autosomal recessive inheritance
             return GenotypeLrWithExplanation.noVariantsDetectedAutosomalRecessive(g2g.geneId(), DEFAULT_GLR * DEFAULT_GLR);
         else
@@ -108,6 +114,16 @@ public class GenotypeLikelihoodRatio {
      * @return likelihood ratio of the genotype given the disease/geniId combination
      */
     public GenotypeLrWithExplanation evaluateGenotype(String sampleId, Gene2Genotype g2g, List<TermId> inheritanceModes) {
+        return evaluateGenotype(sampleId, g2g, InheritanceModes.of(inheritanceModes));
+    }
+
+    /**
+     * Calculate the genotype likelihood ratio with the modes of inheritance prepared in advance,
+     * e.g. once per disease.
+     *
+     * @see #evaluateGenotype(String, Gene2Genotype, List)
+     */
+    public GenotypeLrWithExplanation evaluateGenotype(String sampleId, Gene2Genotype g2g, InheritanceModes inheritanceModes) {
         // special case 1: No variant found in this gene
         if (!g2g.hasVariants()) {
             return getLRifNoVariantAtAllWasIdentified(inheritanceModes, g2g);
@@ -119,7 +135,7 @@ public class GenotypeLikelihoodRatio {
 
         int pathogenicClinVarAlleleCount = g2g.pathogenicClinVarCount(sampleId);
         if (pathogenicClinVarAlleleCount > 0) {
-            if (inheritanceModes.contains(HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE)) {
+            if (inheritanceModes.hasAutosomalRecessive()) {
                 if (pathogenicClinVarAlleleCount == 2) {
                     return GenotypeLrWithExplanation.twoPathClinVarAllelesRecessive(g2g.geneId(),Math.pow(1000d, 2));
                 }
@@ -142,13 +158,12 @@ public class GenotypeLikelihoodRatio {
         // 3. There was no P/LP variant listed in ClinVar or at most one variant but the disease is AR.
         // Therefore, we apply the main algorithm for calculating the LR genotype score.
 
-        double lambda_background = backgroundVariantFrequencyService.frequencyForGene(g2g.geneId().id())
-                .orElse(backgroundVariantFrequencyService.defaultVariantBackgroundFrequency());
-        if (inheritanceModes == null || inheritanceModes.isEmpty()) {
+        double lambda_background = backgroundVariantFrequencyService.frequencyForGeneOrDefault(g2g.geneId().id());
+        if (inheritanceModes.isEmpty()) {
             // This is probably because the HPO annotation file is incomplete
             logger.warn("No inheritance mode annotation found for geneId {}, reverting to default", g2g.geneId().id().getValue());
             // Add a default dominant mode to avoid not ranking this gene at all
-            inheritanceModes = List.of(HpoModeOfInheritanceTermIds.AUTOSOMAL_DOMINANT);
+            inheritanceModes = InheritanceModes.autosomalDominant();
         }
         // The following is a heuristic to avoid giving genes with a high background count
         // a better score for pathogenic than background -- the best explanation for
@@ -166,10 +181,14 @@ public class GenotypeLikelihoodRatio {
         //last if/else
         double B = 1.0; // background
         double D = 1.0; // disease
-        for (TermId inheritanceId : inheritanceModes) {
+        // The background probability does not depend on the mode of inheritance, we calculate it at most once.
+        double backgroundProbability = Double.NaN;
+        for (int i = 0; i < inheritanceModes.size(); i++) {
+            TermId inheritanceId = inheritanceModes.mode(i);
+            // Autosomal recessive or X-linked recessive.
             double lambda_disease;
             PoissonDistribution pdDisease;
-            if (inheritanceId.equals(HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE) || inheritanceId.equals(HpoModeOfInheritanceTermIds.X_LINKED_RECESSIVE)) {
+            if (inheritanceModes.isRecessive(i)) {
                 lambda_disease = 2.0;
                 pdDisease = recessivePoissonDistribution;
             } else {
@@ -189,8 +208,11 @@ public class GenotypeLikelihoodRatio {
             } else { // the following is the general case, where either the variant count
                 // matches or we are not using the strict option.
                 D = pdDisease.probability(observedWeightedDeleteriousVariantCount);
-                PoissonDistribution pdBackground = new PoissonDistribution(lambda_background);
-                B = pdBackground.probability(observedWeightedDeleteriousVariantCount);
+                if (Double.isNaN(backgroundProbability)) {
+                    PoissonDistribution pdBackground = new PoissonDistribution(lambda_background);
+                    backgroundProbability = pdBackground.probability(observedWeightedDeleteriousVariantCount);
+                }
+                B = backgroundProbability;
                 if (B > 0 && D > 0) {
                     double ratio = D / B;
                     if (max != null && ratio > max) {
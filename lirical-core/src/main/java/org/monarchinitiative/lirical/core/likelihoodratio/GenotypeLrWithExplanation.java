@@ -7,6 +7,7 @@ import org.monarchinitiative.phenol.annotations.formats.GeneIdentifier;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Results of genotype likelihood ratio evaluation for a single gene.
@@ -16,34 +17,42 @@ public class GenotypeLrWithExplanation  {
     private final GenotypeLrMatchType matchType;
     /** The untransformed likelihood ratio of the genotype. */
     private final double lr;
-    private final String explanation;
+    /**
+     * Creates the explanation on the first request or {@code null} if the explanation was provided upfront.
+     */
+    private final Supplier<String> explanationSupplier;
+    /**
+     * The explanation or {@code null} if it has not been created yet. The supplier yields the same value
+     * for all threads, hence a racy initialization is harmless.
+     */
+    private String explanation;
 
     static GenotypeLrWithExplanation noVariantsDetectedAutosomalRecessive(GeneIdentifier geneId, double ratio) {
-        final String expl = String.format("log<sub>10</sub>(LR)=%.3f. No variants detected with autosomal recessive disease.", Math.log10(ratio));
-        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.NO_VARIANTS_DETECTED_AR, ratio, expl);
+        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.NO_VARIANTS_DETECTED_AR, ratio,
+                () -> String.format("log<sub>10</sub>(LR)=%.3f. No variants detected with autosomal recessive disease.", Math.log10(ratio)));
     }
 
     static GenotypeLrWithExplanation noVariantsDetectedAutosomalDominant(GeneIdentifier geneId, double ratio) {
-        final String expl = String.format("log<sub>10</sub>(LR)=%.3f. No variants detected.", Math.log10(ratio));
-        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.NO_VARIANTS_DETECTED_AD, ratio, expl);
+        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.NO_VARIANTS_DETECTED_AD, ratio,
+                () -> String.format("log<sub>10</sub>(LR)=%.3f. No variants detected.", Math.log10(ratio)));
     }
 
     static GenotypeLrWithExplanation twoPathClinVarAllelesRecessive(GeneIdentifier geneId, double ratio) {
-        final String expl = String.format("log<sub>10</sub>(LR)=%.3f. Two pathogenic ClinVar variants detected with autosomal recessive disease.",  Math.log10(ratio));
-        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.TWO_P_OR_LP_CLINVAR_ALLELES_IN_AR, ratio, expl);
+        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.TWO_P_OR_LP_CLINVAR_ALLELES_IN_AR, ratio,
+                () -> String.format("log<sub>10</sub>(LR)=%.3f. Two pathogenic ClinVar variants detected with autosomal recessive disease.",  Math.log10(ratio)));
     }
 
     static GenotypeLrWithExplanation pathClinVar(GeneIdentifier geneId, double ratio) {
-        final String expl = String.format("log<sub>10</sub>(LR)=%.3f. Pathogenic ClinVar variant detected.", Math.log10(ratio));
-        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.ONE_P_OR_LP_CLINVAR_ALLELE_IN_AD, ratio, expl);
+        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.ONE_P_OR_LP_CLINVAR_ALLELE_IN_AD, ratio,
+                () -> String.format("log<sub>10</sub>(LR)=%.3f. Pathogenic ClinVar variant detected.", Math.log10(ratio)));
     }
 
      static GenotypeLrWithExplanation explainOneAlleleRecessive(GeneIdentifier geneId, double ratio, double observedWeightedPathogenicVariantCount, double lambda_background) {
         int lambda_disease = 2;
-        String expl = String.format("log<sub>10</sub>(LR)=%.3f. One pathogenic allele detected with autosomal recessive disease. " +
-             "Observed weighted pathogenic variant count: %.2f. &lambda;<sub>disease</sub>=%d. &lambda;<sub>background</sub>=%.4f.",
-                Math.log10(ratio), observedWeightedPathogenicVariantCount, lambda_disease, lambda_background);
-         return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.ONE_DELETERIOUS_VARIANT_IN_AR, ratio, expl);
+        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.ONE_DELETERIOUS_VARIANT_IN_AR, ratio,
+                () -> String.format("log<sub>10</sub>(LR)=%.3f. One pathogenic allele detected with autosomal recessive disease. " +
+                                "Observed weighted pathogenic variant count: %.2f. &lambda;<sub>disease</sub>=%d. &lambda;<sub>background</sub>=%.4f.",
+                        Math.log10(ratio), observedWeightedPathogenicVariantCount, lambda_disease, lambda_background));
     }
 
 
@@ -52,10 +61,11 @@ public class GenotypeLrWithExplanation  {
         if (MoI.equals(HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE) || MoI.equals(HpoModeOfInheritanceTermIds.X_LINKED_RECESSIVE)) {
             lambda_disease = 2;
         }
-        String expl = String.format("log<sub>10</sub>(LR)=%.3f. %s. Heuristic for high number of observed predicted pathogenic variants. "
-                        + "Observed weighted pathogenic variant count: %.2f. &lambda;<sub>disease</sub>=%d. &lambda;<sub>background</sub>=%.4f.",
-                Math.log10(ratio), getMoIString(MoI), observedWeightedPathogenicVariantCount, lambda_disease, lambda_background);
-        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.HIGH_NUMBER_OF_OBSERVED_PREDICTED_PATHOGENIC_VARIANTS, ratio, expl);
+        int lambdaDisease = lambda_disease;
+        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.HIGH_NUMBER_OF_OBSERVED_PREDICTED_PATHOGENIC_VARIANTS, ratio,
+                () -> String.format("log<sub>10</sub>(LR)=%.3f. %s. Heuristic for high number of observed predicted pathogenic variants. "
+                                + "Observed weighted pathogenic variant count: %.2f. &lambda;<sub>disease</sub>=%d. &lambda;<sub>background</sub>=%.4f.",
+                        Math.log10(ratio), getMoIString(MoI), observedWeightedPathogenicVariantCount, lambdaDisease, lambda_background));
     }
 
     static GenotypeLrWithExplanation explanation(GeneIdentifier geneId,
@@ -69,10 +79,12 @@ public class GenotypeLrWithExplanation  {
         if (modeOfInh.equals(HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE) || modeOfInh.equals(HpoModeOfInheritanceTermIds.X_LINKED_RECESSIVE)) {
             lambda_disease = 2;
         }
-        String msg = String.format("P(G|D)=%.4f. P(G|&#172;D)=%.4f", D, B);
-        msg = String.format("log<sub>10</sub>(LR)=%.3f %s. %s. Observed weighted deleterious variant count: %.2f. &lambda;<sub>disease</sub>=%d. &lambda;<sub>background</sub>=%.4f.",
-                Math.log10(ratio), msg, getMoIString(modeOfInh), observedWeightedDeleteriousVariantCount,  lambda_disease, lambda_b);
-        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.LIRICAL_GT_MODEL, ratio, msg);
+        int lambdaDisease = lambda_disease;
+        return new GenotypeLrWithExplanation(geneId, GenotypeLrMatchType.LIRICAL_GT_MODEL, ratio, () -> {
+            String msg = String.format("P(G|D)=%.4f. P(G|&#172;D)=%.4f", D, B);
+            return String.format("log<sub>10</sub>(LR)=%.3f %s. %s. Observed weighted deleterious variant count: %.2f. &lambda;<sub>disease</sub>=%d. &lambda;<sub>background</sub>=%.4f.",
+                    Math.log10(ratio), msg, getMoIString(modeOfInh), observedWeightedDeleteriousVariantCount, lambdaDisease, lambda_b);
+        });
     }
 
     private static String getMoIString(TermId MoI) {
@@ -98,14 +110,27 @@ public class GenotypeLrWithExplanation  {
     }
 
     public static GenotypeLrWithExplanation of(GeneIdentifier geneId, GenotypeLrMatchType matchType, double lr, String explanation) {
-        return new GenotypeLrWithExplanation(geneId, matchType, lr, explanation);
+        Objects.requireNonNull(explanation, "Explanation must not be null");
+        return new GenotypeLrWithExplanation(geneId, matchType, lr, null, explanation);
     }
 
-    private GenotypeLrWithExplanation(GeneIdentifier geneId, GenotypeLrMatchType matchType, double lr, String explanation) {
+    /**
+     * Most genotype LRs are never presented to the user, hence we create the explanation on the first request.
+     */
+    private GenotypeLrWithExplanation(GeneIdentifier geneId, GenotypeLrMatchType matchType, double lr, Supplier<String> explanationSupplier) {
+        this(geneId, matchType, lr, Objects.requireNonNull(explanationSupplier), null);
+    }
+
+    private GenotypeLrWithExplanation(GeneIdentifier geneId,
+                                      GenotypeLrMatchType matchType,
+                                      double lr,
+                                      Supplier<String> explanationSupplier,
+                                      String explanation) {
         this.geneId = Objects.requireNonNull(geneId);
         this.matchType = Objects.requireNonNull(matchType);
         this.lr = lr;
-        this.explanation = Objects.requireNonNull(explanation, "Explanation must not be null");
+        this.explanationSupplier = explanationSupplier;
+        this.explanation = explanation;
     }
 
     /**
@@ -149,6 +174,11 @@ public class GenotypeLrWithExplanation  {
      */
     @JsonGetter
     public String explanation() {
+        String explanation = this.explanation;
+        if (explanation == null) {
+            explanation = Objects.requireNonNull(explanationSupplier.get(), "Explanation must not be null");
+            this.explanation = explanation;
+        }
         return explanation;
     }
 
@@ -157,12 +187,12 @@ public class GenotypeLrWithExplanation  {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         GenotypeLrWithExplanation that = (GenotypeLrWithExplanation) o;
-        return Double.compare(that.lr, lr) == 0 && Objects.equals(geneId, that.geneId) && matchType == that.matchType && Objects.equals(explanation, that.explanation);
+        return Double.compare(that.lr, lr) == 0 && Objects.equals(geneId, that.geneId) && matchType == that.matchType && Objects.equals(explanation(), that.explanation());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(geneId, matchType, lr, explanation);
+        return Objects.hash(geneId, matchType, lr, explanation());
     }
 
     @Override
@@ -171,7 +201,7 @@ public class GenotypeLrWithExplanation  {
                 "geneId=" + geneId +
                 ", matchType=" + matchType +
                 ", lr=" + lr +
-                ", explanation='" + explanation + '\'' +
+                ", explanation='" + explanation() + '\'' +
                 '}';
     }
 }
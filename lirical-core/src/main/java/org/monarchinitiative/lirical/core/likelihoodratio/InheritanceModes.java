@@ -0,0 +1,114 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.monarchinitiative.phenol.annotations.constants.hpo.HpoModeOfInheritanceTermIds;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The modes of inheritance of a disease, prepared for calculating the genotype likelihood ratio.
+ * <p>
+ * The genotype LR only distinguishes the recessive modes ({@link HpoModeOfInheritanceTermIds#AUTOSOMAL_RECESSIVE}
+ * and {@link HpoModeOfInheritanceTermIds#X_LINKED_RECESSIVE}) from the other modes, and the autosomal recessive mode
+ * from the other modes. We compare the terms once, when the modes are created, and keep the results in a bit mask.
+ * The order of the modes is retained, since it breaks the ties of the LRs of the modes.
+ * <p>
+ * Create the instance once per disease, e.g. when preparing the analysis, and reuse it for all genes.
+ */
+public final class InheritanceModes {
+
+    private static final InheritanceModes AUTOSOMAL_DOMINANT = of(List.of(HpoModeOfInheritanceTermIds.AUTOSOMAL_DOMINANT));
+
+    private final List<TermId> modes;
+    // The indices of the recessive modes.
+    private final BitSet recessive;
+    private final boolean autosomalRecessive;
+    private final int hash;
+
+    /**
+     * @param modes the modes of inheritance of a disease, {@code null} is treated as an empty list.
+     */
+    public static InheritanceModes of(List<TermId> modes) {
+        return new InheritanceModes(modes == null ? List.of() : List.copyOf(modes));
+    }
+
+    /**
+     * @return the modes with the autosomal dominant mode, used if the modes of a disease are missing.
+     */
+    static InheritanceModes autosomalDominant() {
+        return AUTOSOMAL_DOMINANT;
+    }
+
+    private InheritanceModes(List<TermId> modes) {
+        this.modes = modes;
+        this.recessive = new BitSet(modes.size());
+        boolean autosomalRecessive = false;
+        for (int i = 0; i < modes.size(); i++) {
+            TermId mode = modes.get(i);
+            if (mode.equals(HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE)) {
+                autosomalRecessive = true;
+                recessive.set(i);
+            } else if (mode.equals(HpoModeOfInheritanceTermIds.X_LINKED_RECESSIVE)) {
+                recessive.set(i);
+            }
+        }
+        this.autosomalRecessive = autosomalRecessive;
+        this.hash = modes.hashCode();
+    }
+
+    /**
+     * @return the modes of inheritance in the original order.
+     */
+    public List<TermId> modes() {
+        return modes;
+    }
+
+    public int size() {
+        return modes.size();
+    }
+
+    public boolean isEmpty() {
+        return modes.isEmpty();
+    }
+
+    /**
+     * @return the {@code i}-th mode of inheritance.
+     */
+    public TermId mode(int i) {
+        return modes.get(i);
+    }
+
+    /**
+     * @return {@code true} if the {@code i}-th mode is autosomal or X-linked recessive.
+     */
+    public boolean isRecessive(int i) {
+        return recessive.get(i);
+    }
+
+    /**
+     * @return {@code true} if the modes include the autosomal recessive mode.
+     */
+    public boolean hasAutosomalRecessive() {
+        return autosomalRecessive;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof InheritanceModes that)) return false;
+        return hash == that.hash && modes.equals(that.modes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "InheritanceModes{" +
+                "modes=" + modes +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+/**
+ * An upper bound of the likelihood ratio of a query term in a disease that can be evaluated in constant time.
+ * <p>
+ * The bound of an observed query term is the greater of a constant and of a factor multiplied by the greatest
+ * annotation frequency of the disease. The bound of an excluded query term is exact if the term is excluded
+ * in the disease and a constant otherwise.
+ * <p>
+ * Use {@link PhenotypeLikelihoodRatio#observedTermUpperBound(TermId)}
+ * or {@link PhenotypeLikelihoodRatio#excludedTermUpperBound(TermId)} to create the bound.
+ */
+public final class LrUpperBound {
+
+    private final TermId queryTerm;
+    private final int query;
+    private final boolean excluded;
+    private final double frequencyFactor;
+    private final double constant;
+    private final double excludedInDisease;
+
+    static LrUpperBound observed(TermId queryTerm, int query, double frequencyFactor, double constant) {
+        return new LrUpperBound(queryTerm, query, false, frequencyFactor, constant, Double.NaN);
+    }
+
+    static LrUpperBound excluded(TermId queryTerm, int query, double constant, double excludedInDisease) {
+        return new LrUpperBound(queryTerm, query, true, 0., constant, excludedInDisease);
+    }
+
+    private LrUpperBound(TermId queryTerm,
+                         int query,
+                         boolean excluded,
+                         double frequencyFactor,
+                         double constant,
+                         double excludedInDisease) {
+        this.queryTerm = queryTerm;
+        this.query = query;
+        this.excluded = excluded;
+        this.frequencyFactor = frequencyFactor;
+        this.constant = constant;
+        this.excludedInDisease = excludedInDisease;
+    }
+
+    public TermId queryTerm() {
+        return queryTerm;
+    }
+
+    /**
+     * @return the factor of the greatest annotation frequency of a disease in the bound of an observed term
+     * or {@code 0} for an excluded term.
+     */
+    public double frequencyFactor() {
+        return frequencyFactor;
+    }
+
+    /**
+     * @return a value that is greater than or equal to the likelihood ratio of the query term in the {@code disease}.
+     */
+    public double lr(CompiledDisease disease) {
+        if (excluded)
+            return disease.isExactExcludedMatch(query) ? excludedInDisease : constant;
+        return Math.max(constant, frequencyFactor * disease.maximumFrequency());
+    }
+
+    @Override
+    public String toString() {
+        return "LrUpperBound{" +
+                "queryTerm=" + queryTerm +
+                ", excluded=" + excluded +
+                ", frequencyFactor=" + frequencyFactor +
+                ", constant=" + constant +
+                '}';
+    }
+}
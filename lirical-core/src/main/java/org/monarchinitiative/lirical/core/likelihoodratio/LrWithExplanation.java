@@ -25,17 +25,35 @@ public class LrWithExplanation implements Comparable<LrWithExplanation> {
     private final TermId matchingTerm;
     private final LrMatchType matchType;
     private final double lr;
-    private final String explanation;
+    /**
+     * The factory for creating the explanation on the first request
+     * or {@code null} if the explanation was provided upfront.
+     */
+    private final LrWithExplanationFactory explanationFactory;
+    /**
+     * The explanation or {@code null} if it has not been created yet. The explanation is a function of the other
+     * fields, hence a racy initialization by several threads yields the same value.
+     */
+    private String explanation;
 
     public static LrWithExplanation of(TermId q, TermId m, LrMatchType mt, double lr, String explanation) {
-        return new LrWithExplanation(q, m, mt, lr, explanation);
+        return new LrWithExplanation(q, m, mt, lr, null, explanation);
+    }
+
+    /**
+     * Create the {@link LrWithExplanation} with the explanation created by the {@code explanationFactory}
+     * when the explanation is requested for the first time.
+     */
+    static LrWithExplanation lazy(TermId q, TermId m, LrMatchType mt, double lr, LrWithExplanationFactory explanationFactory) {
+        return new LrWithExplanation(q, m, mt, lr, explanationFactory, null);
     }
 
-    private LrWithExplanation(TermId q, TermId m, LrMatchType mt, double lr, String explanation) {
+    private LrWithExplanation(TermId q, TermId m, LrMatchType mt, double lr, LrWithExplanationFactory explanationFactory, String explanation) {
         this.queryTerm = q;
         this.matchingTerm = m;
         this.matchType = mt;
         this.lr = lr;
+        this.explanationFactory = explanationFactory;
         this.explanation = explanation;
     }
 
@@ -61,6 +79,11 @@ public class LrWithExplanation implements Comparable<LrWithExplanation> {
 
     @JsonGetter
     public String explanation() {
+        String explanation = this.explanation;
+        if (explanation == null && explanationFactory != null) {
+            explanation = explanationFactory.getExplanation(queryTerm, matchingTerm, matchType, lr);
+            this.explanation = explanation;
+        }
         return explanation;
     }
 
@@ -69,7 +92,7 @@ public class LrWithExplanation implements Comparable<LrWithExplanation> {
      */
     @JsonIgnore
     public String escapedExplanation() {
-        return StringUtils.replaceEach(explanation, EXPLANATION_SEARCH_LIST, EXPLANATION_REPLACEMENT_LIST);
+        return StringUtils.replaceEach(explanation(), EXPLANATION_SEARCH_LIST, EXPLANATION_REPLACEMENT_LIST);
     }
 
     /**
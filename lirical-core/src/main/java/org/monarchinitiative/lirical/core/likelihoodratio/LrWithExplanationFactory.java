@@ -15,12 +15,15 @@ public class LrWithExplanationFactory {
     public LrWithExplanation create(TermId term, LrMatchType matchType, double lr) {
         return create(term, term, matchType, lr);
     }
+    /**
+     * Create the {@link LrWithExplanation}. The explanation is created on the first request, since most
+     * likelihood ratios are never presented to the user.
+     */
     public LrWithExplanation create(TermId queryTerm, TermId matchingTerm, LrMatchType matchType, double lr) {
-        String explanation = getExplanation(queryTerm, matchingTerm, matchType, lr);
-        return LrWithExplanation.of(queryTerm, matchingTerm, matchType, lr, explanation);
+        return LrWithExplanation.lazy(queryTerm, matchingTerm, matchType, lr, this);
     }
 
-    private String getExplanation(TermId queryTerm, TermId matchingTerm, LrMatchType matchType, double lr) {
+    String getExplanation(TermId queryTerm, TermId matchingTerm, LrMatchType matchType, double lr) {
         String queryTermLabel = String.format("%s[%s]", ontology.termForTermId(queryTerm).map(Term::getName).orElse("UNKNOWN"), queryTerm.getValue());
         String matchTermLabel = String.format("%s[%s]", ontology.termForTermId(matchingTerm).map(Term::getName).orElse("UNKNOWN"), matchingTerm.getValue());
         double log10LR = Math.log10(lr);
@@ -2,7 +2,7 @@ package org.monarchinitiative.lirical.core.likelihoodratio;
 
 
 import org.monarchinitiative.lirical.core.analysis.LiricalAnalysisRunner;
-import org.monarchinitiative.phenol.annotations.base.Ratio;
+import org.monarchinitiative.phenol.annotations.constants.hpo.HpoSubOntologyRootTermIds;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseaseAnnotation;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseases;
@@ -13,14 +13,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * This class is designed to calculate the background and foreground frequencies of any HPO term in any disease
- * (This is calculated by {@link #initializeFrequencyMap(MinimalOntology, HpoDiseases)} and stored in {@link #hpoTerm2OverallFrequency}).
- * The main entry point into this class is the function {@link #lrForObservedTerm}, which is called by
- * {@link LiricalAnalysisRunner} once for each HPO term
- * to which the case is annotation; it calls it once for each disease in our
- * database and calculates the likelihood ratio for each HPO term in the query for each of the diseases.
+ * (This is calculated by {@link #initializeBackgroundFrequencies(MinimalOntology, TermIndex, HpoDiseases)}
+ * and stored in {@link #backgroundFrequencies}).
+ * The main entry point into this class is the function {@link #lrsForObservedTerms}, which is called by
+ * {@link LiricalAnalysisRunner} once for each disease in our database and calculates the likelihood ratio
+ * of each HPO term in the query for the disease. The likelihood ratios are returned in a compact
+ * {@link PhenotypeLrList}.
  * @author <a href="mailto:peter.robinson@jax.org">Peter Robinson</a>
  */
 public class PhenotypeLikelihoodRatio {
@@ -39,9 +41,13 @@ public class PhenotypeLikelihoodRatio {
     public static final float DEFAULT_TERM_FREQUENCY = 1.f; // TODO - is this the right thing to do?
     /** The HPO ontology with all of its subontologies. */
     private final MinimalOntology ontology;
+    /** Dense index of the HPO terms for answering the ancestor/descendant questions. */
+    private final TermIndex termIndex;
     private final LrWithExplanationFactory explanationFactory;
-    /** Overall, i.e., background frequency of each HPO term. */
-    private final Map<TermId, Double> hpoTerm2OverallFrequency;
+    /** Overall, i.e., background frequency of each HPO term, indexed by the {@link TermIndex} indices. */
+    private final double[] backgroundFrequencies;
+    /** The cache of the likelihood ratios or {@code null} if the caching is disabled. */
+    private final PhenotypeLrCache cache;
     /**
      * This is the probability of a finding if the disease is not annotated to it and there
      * is no common ancestor except the root. There are many possible causes of findings called
@@ -53,43 +59,181 @@ public class PhenotypeLikelihoodRatio {
      * small probability (one in ten thousand)
      */
     private final double DEFAULT_FALSE_POSITIVE_NO_COMMON_ORGAN_PROBABILITY=0.01;
+    /** The number of diseases whose term frequencies are collected in parallel before being added to the sums. */
+    private static final int BACKGROUND_FREQUENCY_CHUNK_SIZE = 512;
+    /** The number of diseases whose term frequencies are collected by a single worker. */
+    private static final int BACKGROUND_FREQUENCY_BLOCK_SIZE = 32;
 
     /**
      * @param ontology The HPO ontology object
      * @param diseases List of all diseases for this simulation
      */
     public PhenotypeLikelihoodRatio(MinimalOntology ontology, HpoDiseases diseases) {
+        this(ontology, diseases, 0);
+    }
+
+    /**
+     * @param ontology The HPO ontology object
+     * @param diseases List of all diseases for this simulation
+     * @param cacheSize The maximum number of the likelihood ratios to cache or {@code 0} if the likelihood ratios
+     *                  should not be cached
+     */
+    public PhenotypeLikelihoodRatio(MinimalOntology ontology, HpoDiseases diseases, int cacheSize) {
+        if (cacheSize < 0)
+            throw new IllegalArgumentException("Cache size %d must not be negative".formatted(cacheSize));
         this.ontology = ontology;
+        this.termIndex = TermIndex.of(ontology);
         this.explanationFactory = new LrWithExplanationFactory(ontology); // TODO - DI?
-        this.hpoTerm2OverallFrequency = initializeFrequencyMap(ontology, diseases);
+        this.backgroundFrequencies = initializeBackgroundFrequencies(ontology, termIndex, diseases);
+        this.cache = cacheSize == 0 ? null : PhenotypeLrCache.of(cacheSize);
+    }
+
+    /**
+     * @return the cache of the likelihood ratios or an empty optional if the caching is disabled.
+     */
+    public Optional<PhenotypeLrCache> cache() {
+        return Optional.ofNullable(cache);
+    }
+
+    /**
+     * Compile the {@code disease} into a representation that is used to calculate the likelihood ratios
+     * of the query terms.
+     * <p>
+     * The compiled disease depends only on the HPO and on the disease. Therefore, it can be created once
+     * and reused for any number of query terms. The likelihood ratios of the disease are not cached,
+     * use {@link #compileDisease(HpoDisease, int)} to cache them.
+     * @param disease the disease to compile
+     * @return the {@link CompiledDisease}
+     */
+    public CompiledDisease compileDisease(HpoDisease disease) {
+        return compileDisease(disease, -1);
+    }
+
+    /**
+     * Compile the {@code disease} with an {@code ordinal} that identifies the disease in the cache keys.
+     * <p>
+     * The ordinal must be unique among the diseases evaluated by this instance, e.g. the position of the disease
+     * in {@link HpoDiseases}, and the same disease should be compiled only once, so that its cached likelihood ratios
+     * are reused.
+     * @param disease the disease to compile
+     * @param ordinal a non-negative ordinal of the disease or {@code -1} if the likelihood ratios of the disease
+     *                must not be cached
+     * @return the {@link CompiledDisease}
+     */
+    public CompiledDisease compileDisease(HpoDisease disease, int ordinal) {
+        if (ordinal < -1)
+            throw new IllegalArgumentException("Ordinal %d must not be less than -1".formatted(ordinal));
+        return CompiledDisease.of(disease, termIndex, ordinal);
     }
 
     /**
      * Calculate and return the likelihood ratio of observing the HPO feature queryTid in an individual
-     * with the disease idg (note that the InducedDiseaseGraph contains information about the annotations
-     * of the disease that we use to calculate the likelihood ratios).
+     * with the disease idg.
+     * <p>
+     * Prefer using {@link #lrForObservedTerm(TermId, CompiledDisease)} if the likelihood ratios of more than one
+     * query term are calculated for the same disease.
      * @param queryTid An HPO phenotypic abnormality
      * @param idg The {@link InducedDiseaseGraph} of the disease
      * @return A {@link LrWithExplanation} object with an explanation and the likelihood ratio of observing the HPO term in the disease corresponding to idg
      */
     public LrWithExplanation lrForObservedTerm(TermId queryTid, InducedDiseaseGraph idg) {
-        HpoDisease disease = idg.getDisease();
-        Set<TermId> queryAncestors = ontology.graph().extendWithAncestors(queryTid, true, HashSet::new);
-        if (disease.absentAnnotationsStream().anyMatch(a -> queryAncestors.contains(a.id()))) {
+        return lrForObservedTerm(queryTid, CompiledDisease.of(idg.getDisease(), termIndex, -1));
+    }
+
+    /**
+     * Calculate and return the likelihood ratio of observing the HPO feature queryTid in an individual
+     * with the disease (note that the {@link CompiledDisease} contains information about the annotations
+     * of the disease that we use to calculate the likelihood ratios).
+     * @param queryTid An HPO phenotypic abnormality
+     * @param disease The {@link CompiledDisease}
+     * @return A {@link LrWithExplanation} object with an explanation and the likelihood ratio of observing the HPO term in the disease
+     */
+    public LrWithExplanation lrForObservedTerm(TermId queryTid, CompiledDisease disease) {
+        PhenotypeLrList lrs = newLrList(List.of(queryTid));
+        evaluateObservedTerm(lrs, 0, disease);
+        return lrs.get(0);
+    }
+
+    /**
+     * Calculate the likelihood ratios of observing the HPO features {@code queryTerms} in an individual
+     * with the disease.
+     * @param queryTerms HPO phenotypic abnormalities
+     * @param disease The {@link CompiledDisease}
+     * @return a {@link PhenotypeLrList} with the likelihood ratios in the order of the query terms
+     */
+    public PhenotypeLrList lrsForObservedTerms(List<TermId> queryTerms, CompiledDisease disease) {
+        PhenotypeLrList lrs = newLrList(queryTerms);
+        for (int i = 0; i < lrs.size(); i++)
+            evaluateObservedTerm(lrs, i, disease);
+        return lrs;
+    }
+
+    /**
+     * Create a list for storing the likelihood ratios of the {@code queryTerms}. The list can be filled
+     * term by term with {@link #evaluateObservedTerm(PhenotypeLrList, int, CompiledDisease)}
+     * or {@link #evaluateExcludedTerm(PhenotypeLrList, int, CompiledDisease)}.
+     */
+    public PhenotypeLrList newLrList(List<TermId> queryTerms) {
+        return new PhenotypeLrList(queryTerms, termIndex, explanationFactory);
+    }
+
+    /**
+     * Get a list with the {@code i}-th likelihood ratio of each of the {@code lists}, e.g. the likelihood ratios
+     * of a disease from the columns with the likelihood ratios of a query term in many diseases. The likelihood
+     * ratios are copied without being evaluated again.
+     */
+    public PhenotypeLrList select(List<? extends List<LrWithExplanation>> lists, int i) {
+        List<TermId> queryTerms = new ArrayList<>(lists.size());
+        for (List<LrWithExplanation> list : lists)
+            queryTerms.add(list instanceof PhenotypeLrList lrs ? lrs.queryTerm(i) : list.get(i).queryTerm());
+        PhenotypeLrList selected = newLrList(queryTerms);
+        for (int k = 0; k < lists.size(); k++) {
+            // The matching term indices are only valid with the term index of this evaluator.
+            if (lists.get(k) instanceof PhenotypeLrList lrs && lrs.termIndex() == termIndex) {
+                selected.set(k, lrs.matchType(i), lrs.matchingTermIndex(i), lrs.lr(i));
+            } else {
+                LrWithExplanation lr = lists.get(k).get(i);
+                selected.set(k, lr.matchType(), matchingTermIndex(lr), lr.lr());
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Calculate the likelihood ratio of observing the {@code i}-th query term of the {@code lrs} in an individual
+     * with the disease and store the likelihood ratio into the {@code lrs}.
+     * @return the likelihood ratio
+     */
+    public double evaluateObservedTerm(PhenotypeLrList lrs, int i, CompiledDisease disease) {
+        TermId queryTid = lrs.queryTerm(i);
+        int query = termIndex.indexOf(queryTid);
+        if (!isCacheable(query, disease))
+            return observedTermLr(queryTid, query, disease, lrs, i);
+
+        long key = cacheKey(query, disease, false);
+        LrWithExplanation cached = cache.get(key);
+        if (cached == null) {
+            double lr = observedTermLr(queryTid, query, disease, lrs, i);
+            cache.put(key, lrs.get(i));
+            return lr;
+        }
+        return lrs.set(i, cached.matchType(), matchingTermIndex(cached), cached.lr());
+    }
+
+    private double observedTermLr(TermId queryTid, int query, CompiledDisease disease, PhenotypeLrList lrs, int position) {
+        if (isDescendantOrSelfOfAnyAbsentAnnotation(query, disease)) {
             // i.e., the query term is explicitly EXCLUDED in the disease definition
-            return explanationFactory.create(queryTid,
-                    LrMatchType.QUERY_TERM_PRESENT_BUT_EXCLUDED_IN_DISEASE,
+            return lrs.set(position, LrMatchType.QUERY_TERM_PRESENT_BUT_EXCLUDED_IN_DISEASE, PhenotypeLrList.QUERY_TERM,
                     EXCLUDED_IN_DISEASE_BUT_PRESENT_IN_QUERY_PROBABILITY);
         }
 
-        if (disease.isDirectlyAnnotatedTo(queryTid)) {
-            // The optional must be present since the disease is directly annotated to the query term.
-            //noinspection OptionalGetWithoutIsPresent
-            HpoDiseaseAnnotation annotation = disease.getAnnotation(queryTid).get();
-            double numerator = annotation.frequency();
-            double denominator = getBackgroundFrequency(queryTid);
+        // The query term cannot be an absent annotation here, since it would be excluded in the disease.
+        int directAnnotation = disease.firstAnnotationOf(query);
+        if (directAnnotation >= 0) {
+            double numerator = disease.annotationFrequency(directAnnotation);
+            double denominator = getBackgroundFrequency(query, queryTid);
             double lr = numerator / denominator;
-            return explanationFactory.create(queryTid, LrMatchType.EXACT_MATCH, lr);
+            return lrs.set(position, LrMatchType.EXACT_MATCH, PhenotypeLrList.QUERY_TERM, lr);
         } else {
             // there are multiple possibilities
             // 1. the query term is a superclass of at least one disease term. Therefore,
@@ -98,21 +242,21 @@ public class PhenotypeLikelihoodRatio {
             // take the maximum frequency (since the parent term will have at least this frequency)
             double maximumFrequencyOfDescendantTerm = 0.0;
             boolean isAncestor=false;
-            TermId diseaseMatchingTerm=null;
-            for (HpoDiseaseAnnotation annotation : disease.annotations()) {
-                double frequency = annotation.frequency();
+            int diseaseMatchingTerm = PhenotypeLrList.QUERY_TERM;
+            for (int i = 0; i < disease.annotationCount(); i++) {
+                double frequency = disease.annotationFrequency(i);
                 // is query an ancestor of a term that annotates the disease?
-                if (ontology.graph().isAncestorOf(queryTid, annotation.id())) {
+                if (termIndex.isAncestorOf(query, disease.annotationTerm(i))) {
                     maximumFrequencyOfDescendantTerm=Math.max(maximumFrequencyOfDescendantTerm,frequency);
-                    diseaseMatchingTerm=annotation.id();
+                    diseaseMatchingTerm=disease.annotationTerm(i);
                     isAncestor=true;
                 }
             }
             if (isAncestor) {
-                double denominator = getBackgroundFrequency(queryTid);
+                double denominator = getBackgroundFrequency(query, queryTid);
                 double lr = maximumFrequencyOfDescendantTerm/denominator;
-                return explanationFactory.create(queryTid, diseaseMatchingTerm,
-                        LrMatchType.DISEASE_TERM_SUBCLASS_OF_QUERY,
+                return lrs.set(position, LrMatchType.DISEASE_TERM_SUBCLASS_OF_QUERY,
+                        diseaseMatchingTerm,
                         lr);
             }
             // if we get here, then the query term was not a superclass of a disease term
@@ -128,72 +272,126 @@ public class PhenotypeLikelihoodRatio {
 
             boolean hasNonRootCommonAncestor = false;
             double maxF = 0f;
-            TermId bestMatchTermId = null;
-            double denominatorForNonRootCommandAnc = getBackgroundFrequency(queryTid);
-            for (HpoDiseaseAnnotation annotation : disease.annotations()) {
-                if (ontology.graph().isAncestorOf(annotation.id(), queryTid)){
-                    double proportionalFrequency = getProportionInChildren(queryTid,annotation.id());
-                    double queryFrequency = annotation.frequency();
+            int bestMatchTerm = PhenotypeLrList.QUERY_TERM;
+            double denominatorForNonRootCommandAnc = getBackgroundFrequency(query, queryTid);
+            for (int i = 0; i < disease.annotationCount(); i++) {
+                int annotationTerm = disease.annotationTerm(i);
+                if (termIndex.isAncestorOf(annotationTerm, query)) {
+                    double proportionalFrequency = getProportionInChildren(query, annotationTerm);
+                    double queryFrequency = disease.annotationFrequency(i);
                     double f = proportionalFrequency*queryFrequency;
                     if (f > maxF) {
-                        bestMatchTermId = annotation.id();
+                        bestMatchTerm = annotationTerm;
                         maxF = f;
                         hasNonRootCommonAncestor = true;
                     }
                 }
             }
             if (hasNonRootCommonAncestor) {
-                double lr = Math.max(maxF,noCommonOrganProbability(queryTid))/denominatorForNonRootCommandAnc;
-                return explanationFactory.create(queryTid, bestMatchTermId,
-                        LrMatchType.QUERY_TERM_SUBCLASS_OF_DISEASE_TERM,
+                double lr = Math.max(maxF,noCommonOrganProbability(query))/denominatorForNonRootCommandAnc;
+                return lrs.set(position, LrMatchType.QUERY_TERM_SUBCLASS_OF_DISEASE_TERM,
+                        bestMatchTerm,
                         lr);
             }
             // If we get here, queryId is not directly annotated in the disease, and it is not a child
             // of a disease term, nor is a disease term a subclass of queryTid. The next bit of code
             // checks whether they have a common ancestor that is more specific that Phenotypic_Abnormality
-            Term2Freq t2f = idg.getClosestAncestor(queryTid, ontology);
+            Term2Freq t2f = getClosestAncestor(query, disease);
             if (t2f.nonRootCommonAncestor()) {
                 double numerator = t2f.frequency();
                 double denominator = getBackgroundFrequency(t2f.termId());
                 double lr = Math.max(DEFAULT_FALSE_POSITIVE_NO_COMMON_ORGAN_PROBABILITY,numerator/denominator);
-                return explanationFactory.create(queryTid, t2f.termId(), LrMatchType.NON_ROOT_COMMON_ANCESTOR, lr);
+                return lrs.set(position, LrMatchType.NON_ROOT_COMMON_ANCESTOR, termIndex.indexOf(t2f.termId()), lr);
             }
             // If we get here, then the only common ancestor is PHENOTYPIC_ABNORMALITY
             // therefore, return a heuristic penalty score
-            return explanationFactory.create(queryTid, LrMatchType.NO_MATCH_BELOW_ROOT, DEFAULT_FALSE_POSITIVE_NO_COMMON_ORGAN_PROBABILITY);
+            return lrs.set(position, LrMatchType.NO_MATCH_BELOW_ROOT, PhenotypeLrList.QUERY_TERM, DEFAULT_FALSE_POSITIVE_NO_COMMON_ORGAN_PROBABILITY);
         }
     }
 
     /**
      * Calculate and return the likelihood ratio of an EXCLUDED HPO feature tid in an individual
      * with the disease "diseaseId"
+     * <p>
+     * Prefer using {@link #lrForExcludedTerm(TermId, CompiledDisease)} if the likelihood ratios of more than one
+     * query term are calculated for the same disease.
      * @param queryTid An HPO phenotypic abnormality
      * @param idg An {@link InducedDiseaseGraph} created for the disease
      * @return the likelihood ratio of an EXCLUDED HPO term in the diseases
      */
     public LrWithExplanation lrForExcludedTerm(TermId queryTid, InducedDiseaseGraph idg) {
-        HpoDisease disease = idg.getDisease();
+        return lrForExcludedTerm(queryTid, CompiledDisease.of(idg.getDisease(), termIndex, -1));
+    }
+
+    /**
+     * Calculate and return the likelihood ratio of an EXCLUDED HPO feature tid in an individual
+     * with the disease.
+     * @param queryTid An HPO phenotypic abnormality
+     * @param disease The {@link CompiledDisease}
+     * @return the likelihood ratio of an EXCLUDED HPO term in the diseases
+     */
+    public LrWithExplanation lrForExcludedTerm(TermId queryTid, CompiledDisease disease) {
+        PhenotypeLrList lrs = newLrList(List.of(queryTid));
+        evaluateExcludedTerm(lrs, 0, disease);
+        return lrs.get(0);
+    }
+
+    /**
+     * Calculate the likelihood ratios of the EXCLUDED HPO features {@code queryTerms} in an individual
+     * with the disease.
+     * @param queryTerms HPO phenotypic abnormalities
+     * @param disease The {@link CompiledDisease}
+     * @return a {@link PhenotypeLrList} with the likelihood ratios in the order of the query terms
+     */
+    public PhenotypeLrList lrsForExcludedTerms(List<TermId> queryTerms, CompiledDisease disease) {
+        PhenotypeLrList lrs = newLrList(queryTerms);
+        for (int i = 0; i < lrs.size(); i++)
+            evaluateExcludedTerm(lrs, i, disease);
+        return lrs;
+    }
+
+    /**
+     * Calculate the likelihood ratio of the EXCLUDED {@code i}-th query term of the {@code lrs} in an individual
+     * with the disease and store the likelihood ratio into the {@code lrs}.
+     * @return the likelihood ratio
+     */
+    public double evaluateExcludedTerm(PhenotypeLrList lrs, int i, CompiledDisease disease) {
+        TermId queryTid = lrs.queryTerm(i);
+        int query = termIndex.indexOf(queryTid);
+        if (!isCacheable(query, disease))
+            return excludedTermLr(queryTid, query, disease, lrs, i);
+
+        long key = cacheKey(query, disease, true);
+        LrWithExplanation cached = cache.get(key);
+        if (cached == null) {
+            double lr = excludedTermLr(queryTid, query, disease, lrs, i);
+            cache.put(key, lrs.get(i));
+            return lr;
+        }
+        return lrs.set(i, cached.matchType(), matchingTermIndex(cached), cached.lr());
+    }
+
+    private double excludedTermLr(TermId queryTid, int query, CompiledDisease disease, PhenotypeLrList lrs, int position) {
         // check if term excluded in query is also excluded in disease
-        if (idg.isExactExcludedMatch(queryTid)) {
-            return explanationFactory.create(queryTid,
-                    LrMatchType.EXCLUDED_QUERY_TERM_EXCLUDED_IN_DISEASE,
+        if (disease.isExactExcludedMatch(query)) {
+            return lrs.set(position, LrMatchType.EXCLUDED_QUERY_TERM_EXCLUDED_IN_DISEASE, PhenotypeLrList.QUERY_TERM,
                     EXCLUDED_IN_DISEASE_AND_EXCLUDED_IN_QUERY_PROBABILITY);
         }
-        double backgroundFrequency=getBackgroundFrequency(queryTid);
+        double backgroundFrequency=getBackgroundFrequency(query, queryTid);
         // probability a feature is present but not recorded or not noticed.
         if (backgroundFrequency>0.99) {
             logger.error("Warning, unusually high background frequency calculated for {} of {} (should never happen)",
                     backgroundFrequency,queryTid.getValue());
             // should never happen, but protect against divide by zero if there is some error
-            return explanationFactory.create(queryTid, LrMatchType.UNUSUAL_BACKGROUND_FREQUENCY, 1.);
+            return lrs.set(position, LrMatchType.UNUSUAL_BACKGROUND_FREQUENCY, PhenotypeLrList.QUERY_TERM, 1.);
         }
         // The phenotype was excluded in the proband and also the disease
         // is not annotated to the term. This should result in a slight improvement of the LR score.
-        if (!disease.isAnnotatedTo(queryTid, ontology)) {
+        if (!isAnnotatedTo(query, disease)) {
             double lr = 1.0/(1.0-backgroundFrequency); // this is the negative LR if the disease does not have the term
-            return explanationFactory.create(queryTid, LrMatchType.EXCLUDED_QUERY_TERM_NOT_PRESENT_IN_DISEASE, lr);
+            return lrs.set(position, LrMatchType.EXCLUDED_QUERY_TERM_NOT_PRESENT_IN_DISEASE, PhenotypeLrList.QUERY_TERM, lr);
         }
-        double frequency=getFrequencyOfTermInDiseaseWithAnnotationPropagation(queryTid,disease,ontology);
+        double frequency=getFrequencyOfTermInDiseaseWithAnnotationPropagation(query, disease);
         // If the disease actually does have the abnormality in question, but the abnormality was ruled out in
         // the patient, we model this as the 1-F, where F is the frequency of the term in question.
         // We model the frequency of a term "by chance" as one half of its frequency across the entire corpus
@@ -204,52 +402,138 @@ public class PhenotypeLikelihoodRatio {
         double excludedFrequency=Math.max(FALSE_NEGATIVE_OBSERVATION_OF_PHENOTYPE_PROB, 1-frequency);
         // now calculate and return the likelihood ratio
         double lr = excludedFrequency/(1.0-backgroundFrequency);
-        return explanationFactory.create(queryTid, LrMatchType.EXCLUDED_QUERY_TERM_PRESENT_IN_DISEASE, lr);
+        return lrs.set(position, LrMatchType.EXCLUDED_QUERY_TERM_PRESENT_IN_DISEASE, PhenotypeLrList.QUERY_TERM, lr);
+    }
+
+    /**
+     * Get an upper bound of the likelihood ratio of observing the HPO feature queryTid in an individual
+     * with a disease. The bound does not require to traverse the disease annotations and it can be evaluated
+     * for any number of diseases.
+     * @param queryTid An HPO phenotypic abnormality
+     * @return the upper bound of {@link #lrForObservedTerm(TermId, CompiledDisease)}
+     */
+    public LrUpperBound observedTermUpperBound(TermId queryTid) {
+        int query = termIndex.indexOf(queryTid);
+        double backgroundFrequency = backgroundFrequencyOrDefault(query);
+        // The exact match and the disease term being a subclass of the query term yield at most
+        // the annotation frequency divided by the background frequency of the query term.
+        double frequencyFactor = 1. / backgroundFrequency;
+        if (query >= 0) {
+            // The common ancestor frequency is the annotation frequency weighted down by at least a factor of 10.
+            for (int term : termIndex.breadthFirstAncestors(query))
+                frequencyFactor = Math.max(frequencyFactor, .1 / backgroundFrequencyOrDefault(term));
+        }
+        double constant = Math.max(EXCLUDED_IN_DISEASE_BUT_PRESENT_IN_QUERY_PROBABILITY, DEFAULT_FALSE_POSITIVE_NO_COMMON_ORGAN_PROBABILITY);
+        constant = Math.max(constant, noCommonOrganProbability(query) / backgroundFrequency);
+        return LrUpperBound.observed(queryTid, query, frequencyFactor, constant);
+    }
+
+    /**
+     * Get an upper bound of the likelihood ratio of an EXCLUDED HPO feature queryTid in an individual
+     * with a disease. The bound does not require to traverse the disease annotations and it can be evaluated
+     * for any number of diseases.
+     * @param queryTid An HPO phenotypic abnormality
+     * @return the upper bound of {@link #lrForExcludedTerm(TermId, CompiledDisease)}
+     */
+    public LrUpperBound excludedTermUpperBound(TermId queryTid) {
+        int query = termIndex.indexOf(queryTid);
+        double backgroundFrequency = backgroundFrequencyOrDefault(query);
+        // The excluded frequency of a term that annotates the disease is at most 1.
+        double constant = backgroundFrequency > 0.99 ? 1. : 1.0 / (1.0 - backgroundFrequency);
+        return LrUpperBound.excluded(queryTid, query, constant, EXCLUDED_IN_DISEASE_AND_EXCLUDED_IN_QUERY_PROBABILITY);
+    }
+
+    private int matchingTermIndex(LrWithExplanation lr) {
+        return lr.matchingTerm().equals(lr.queryTerm())
+                ? PhenotypeLrList.QUERY_TERM
+                : termIndex.indexOf(lr.matchingTerm());
+    }
+
+    private boolean isCacheable(int query, CompiledDisease disease) {
+        return cache != null && query >= 0 && disease.ordinal() >= 0;
+    }
+
+    private static long cacheKey(int query, CompiledDisease disease, boolean excluded) {
+        return ((long) disease.ordinal() << 32) | ((long) query << 1) | (excluded ? 1L : 0L);
+    }
+
+    /**
+     * @param query index of the query term
+     * @param disease the disease
+     * @return {@code true} if the query term or any of its ancestors is explicitly excluded in the disease
+     */
+    private boolean isDescendantOrSelfOfAnyAbsentAnnotation(int query, CompiledDisease disease) {
+        for (int term : disease.absentTerms()) {
+            if (termIndex.isAncestorOrSelf(term, query))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param query index of the query term
+     * @param disease the disease
+     * @return {@code true} if the disease is annotated to the query term or to any of its descendants
+     */
+    private boolean isAnnotatedTo(int query, CompiledDisease disease) {
+        for (int term : disease.presentTerms()) {
+            if (termIndex.isAncestorOrSelf(query, term))
+                return true;
+        }
+        return false;
     }
 
     /**
      * Get the frequency of a term in the disease. This includes if any disease term is an ancestor of the
      * query term -- we take the maximum of any ancestor term.
-     * @param query Term ID of an HPO term whose frequency we want to know
+     * @param query index of an HPO term whose frequency we want to know
      * @param disease The disease in which we want to know the frequency of tid
-     * @param ontology Reference to the HPO ontology
      * @return frequency of the term in the disease (including annotation propagation)
      */
-    private static double getFrequencyOfTermInDiseaseWithAnnotationPropagation(TermId query, HpoDisease disease, MinimalOntology ontology) {
+    private double getFrequencyOfTermInDiseaseWithAnnotationPropagation(int query, CompiledDisease disease) {
         double maxFrequency = 0.0;
-        for (HpoDiseaseAnnotation annotation : disease.annotations()) {
-            boolean shouldUpdate = false;
-            if (annotation.id().equals(query)) {
-                shouldUpdate = true;
-            } else {
-                for (TermId ancestor : ontology.graph().getAncestors(annotation.id())) {
-                    if (ancestor.equals(query)) {
-                        shouldUpdate = true;
-                        break;
-                    }
-                }
-            }
-            if (shouldUpdate)
-                maxFrequency = Math.max(
-                        maxFrequency,
-                        disease.getFrequencyOfTermInDisease(annotation.id())
-                                .map(Ratio::frequency)
-                                .orElse(DEFAULT_TERM_FREQUENCY)
-                );
+        for (int i = 0; i < disease.annotationCount(); i++) {
+            int term = disease.annotationTerm(i);
+            if (termIndex.isAncestorOrSelf(query, term))
+                // The frequency of the term is the frequency of its first annotation.
+                maxFrequency = Math.max(maxFrequency, disease.annotationFrequency(disease.firstAnnotationOf(term)));
         }
         return maxFrequency;
     }
 
+    /**
+     * Get the term that annotates the disease (or is an ancestor of one of the annotated terms) that is
+     * closest to the query term in terms of path length.
+     *
+     * @param query index of the query term
+     * @param disease the disease
+     * @return The best hit
+     */
+    private Term2Freq getClosestAncestor(int query, CompiledDisease disease) {
+        if (query >= 0) {
+            for (int term : termIndex.breadthFirstAncestors(query)) {
+                int position = disease.inducedTermPosition(term);
+                if (position >= 0)
+                    return new Term2Freq(termIndex.termId(term), disease.inducedFrequency(position));
+            }
+        }
+
+        // if we get here, then something wrong has happened, but we did not find any intersection between the query
+        // term and the disease. Return a term that represents the root of the Phenotype ontology
+        // The frequency of the root is taken to be 1.0
+        return new Term2Freq(HpoSubOntologyRootTermIds.PHENOTYPIC_ABNORMALITY, 1.0);
+    }
+
     /** The intuition is that a patient has been observed to have a phenotype to which the disease
      * is not annotated. We will model this as being more likely if the phenotype is common amongst
      * the entire corpus of diseases. If the feature is maximally rare, i.e., 1/diseases.size(), then
      * we will estimate this frequency as being 1:500. If the feature is very common (at least 10%),
      * then we will estimate it as being 1:10.
-     * @param tid TermId of a term for which the disease has no annotations (nothing in common except root)
+     * @param term index of a term for which the disease has no annotations (nothing in common except root)
      * @return Estimate probability of this ("false-positive") finding
      */
-    private double noCommonOrganProbability(TermId tid) {
-        double f = this.hpoTerm2OverallFrequency.getOrDefault(tid, DEFAULT_FALSE_POSITIVE_NO_COMMON_ORGAN_PROBABILITY);
+    private double noCommonOrganProbability(int term) {
+        double f = term < 0 ? DEFAULT_FALSE_POSITIVE_NO_COMMON_ORGAN_PROBABILITY : backgroundFrequencies[term];
         final double MIN_PROB = 0.002; // lowest prob of 1:500
         final double MAX_PROB = 0.10; // highest prob of 1:10
         final double MAX_MINUS_MIN = MAX_PROB - MIN_PROB;
@@ -267,22 +551,16 @@ public class PhenotypeLikelihoodRatio {
     /**
      * Get the overall proportion of the frequency that is made up by the query term, given that
      * query term is a descendant of the diseaseTerm (which should be checked before this method is called).
-     * @param queryTid A term used in the query (i.e., an annotation of the HpoCase proband)
-     * @param diseaseTid A term that is annotated to the disease we are investigating
+     * @param query index of a term used in the query (i.e., an annotation of the HpoCase proband)
+     * @param diseaseTerm index of a term that is annotated to the disease we are investigating
      * @return the proportion of the frequency of diseaseTerm that is attributable to query
      */
-    private double getProportionInChildren(TermId queryTid, TermId diseaseTid) {
-        if (queryTid.getId().equals(diseaseTid.getId())) {
+    private double getProportionInChildren(int query, int diseaseTerm) {
+        if (query == diseaseTerm) {
             return 1.0;
         }
-        Set<TermId> children = ontology.graph().getChildren(diseaseTid);
-        if (children.isEmpty())
-            return 0.0;
-
-        for (TermId tid : children) {
-            if (queryTid.equals(tid)) {
-                return 1.0/(double) children.size();
-            }
+        if (termIndex.isParentOf(diseaseTerm, query)) {
+            return 1.0/(double) termIndex.childCount(diseaseTerm);
         }
         // if we get here, there was no match
         return 0d;
@@ -296,75 +574,126 @@ public class PhenotypeLikelihoodRatio {
      * @return the estimate background frequency (note: bf \in [0,1])
      */
     double getBackgroundFrequency(TermId termId) {
-        Double backgroundFrequency = hpoTerm2OverallFrequency.get(termId);
-        if (backgroundFrequency == null) {
+        return getBackgroundFrequency(termIndex.indexOf(termId), termId);
+    }
+
+    /**
+     * The same as {@link #getBackgroundFrequency(TermId)} but for the term with the index {@code term}.
+     */
+    private double getBackgroundFrequency(int term, TermId termId) {
+        if (term < 0) {
             logger.error("Map did not contain data for term {}",termId.getValue() );
-            logger.error("hpoTerm2OverallFrequency has total of {} entries", hpoTerm2OverallFrequency.size());
+            logger.error("Background frequencies have total of {} entries", backgroundFrequencies.length);
             // Should never happen!
             return DEFAULT_BACKGROUND_FREQUENCY;
         }
 
-        return Math.max(backgroundFrequency, DEFAULT_BACKGROUND_FREQUENCY);
+        return Math.max(backgroundFrequencies[term], DEFAULT_BACKGROUND_FREQUENCY);
+    }
+
+    /**
+     * The same as {@link #getBackgroundFrequency(TermId)} but without reporting the missing terms.
+     */
+    private double backgroundFrequencyOrDefault(int term) {
+        return term < 0 ? DEFAULT_BACKGROUND_FREQUENCY : Math.max(backgroundFrequencies[term], DEFAULT_BACKGROUND_FREQUENCY);
     }
 
     /**
-     * Initialize the {@link #hpoTerm2OverallFrequency} object that has the background frequencies of each of the
-     * HPO terms in the ontology.
+     * Calculate the background frequencies of each of the HPO terms in the ontology.
+     * <p>
+     * The background frequency of a term is the sum of the frequencies of the term in the diseases divided by
+     * the number of diseases, where the frequency of a term in a disease is the greatest frequency of the disease
+     * annotations that are the term or its descendants. The frequencies of the terms in the diseases are collected
+     * in parallel, a chunk of diseases at a time, and then added to the sums in the order of the diseases.
+     * Therefore, the frequencies are the same as the frequencies summed by a single thread, disease by disease,
+     * regardless of the number of the workers.
      *
-     * @return the frequency map
+     * @return the background frequencies indexed by the {@link TermIndex} indices
      */
-    private static Map<TermId, Double> initializeFrequencyMap(
+    private static double[] initializeBackgroundFrequencies(
             MinimalOntology ontology,
+            TermIndex termIndex,
             HpoDiseases diseases
     ) {
-        Map<TermId, Double> mp = new HashMap<>();
-        for (TermId tid : ontology.nonObsoleteTermIds()) {
-            mp.put(tid, 0.0D);
-        }
-
         Set<TermId> seenDiseases = new HashSet<>(); // Make sure we only see each disease once.
+        List<HpoDisease> uniqueDiseases = new ArrayList<>(diseases.size());
         for (HpoDisease dis : diseases) {
-            if (!seenDiseases.add(dis.id()))
-                // `add` returns true if the ID was added (was new).
-                // Therefore, we continue if the ID was NOT added.
-                continue;
-            // We construct a map in order to get the maximum frequencies for any
-            // given ancestor term, also in order to avoid double counting.
-            Map<TermId, Double> updateMap=new HashMap<>();
+            if (seenDiseases.add(dis.id()))
+                uniqueDiseases.add(dis);
+        }
 
+        double[] frequencies = new double[termIndex.size()];
+        for (int start = 0; start < uniqueDiseases.size(); start += BACKGROUND_FREQUENCY_CHUNK_SIZE) {
+            List<HpoDisease> chunk = uniqueDiseases.subList(start, Math.min(uniqueDiseases.size(), start + BACKGROUND_FREQUENCY_CHUNK_SIZE));
+            int blockCount = (chunk.size() + BACKGROUND_FREQUENCY_BLOCK_SIZE - 1) / BACKGROUND_FREQUENCY_BLOCK_SIZE;
+            TermFrequencies[][] blocks = IntStream.range(0, blockCount)
+                    .parallel()
+                    .mapToObj(block -> termFrequencies(ontology, termIndex, chunk.subList(
+                            block * BACKGROUND_FREQUENCY_BLOCK_SIZE,
+                            Math.min(chunk.size(), (block + 1) * BACKGROUND_FREQUENCY_BLOCK_SIZE))))
+                    .toArray(TermFrequencies[][]::new);
+            for (TermFrequencies[] block : blocks) {
+                for (TermFrequencies disease : block) {
+                    for (int i = 0; i < disease.terms().length; i++)
+                        frequencies[disease.terms()[i]] += disease.frequencies()[i]; // cumulative
+                }
+            }
+        }
+        // Now we need to normalize by the number of diseases.
+        for (int term = 0; term < frequencies.length; term++)
+            frequencies[term] /= diseases.size();
+        logger.trace("Got data on background frequency for {} terms", frequencies.length);
+        return frequencies;
+    }
+
+    /**
+     * @return the frequencies of the terms in each of the {@code diseases}, in the order of the diseases
+     */
+    private static TermFrequencies[] termFrequencies(MinimalOntology ontology, TermIndex termIndex, List<HpoDisease> diseases) {
+        TermFrequencies[] frequencies = new TermFrequencies[diseases.size()];
+        // The maximum frequency of each term in the current disease, in order to avoid double counting,
+        // or `-1` if the term does not annotate the disease.
+        double[] maxFrequencies = new double[termIndex.size()];
+        Arrays.fill(maxFrequencies, -1.);
+        int[] touched = new int[termIndex.size()];
+        for (int d = 0; d < diseases.size(); d++) {
+            HpoDisease dis = diseases.get(d);
+            int touchedCount = 0;
             for (HpoDiseaseAnnotation annotation : dis.annotations()) {
                 Optional<Term> term = ontology.termForTermId(annotation.id());
                 if (term.isEmpty()) {
                     logger.warn("Primary term ID for {} was not found!", annotation.id().getValue());
                     continue;
                 }
+                int index = termIndex.indexOf(term.get().id());
+                if (index < 0)
+                    continue;
 
-                // All the ancestor terms are implicitly annotated to tid
+                // All the ancestor terms are implicitly annotated to the term,
                 // therefore, add this to their background frequencies.
-                // Note we also include the original term here (the 1st compute).
                 // We keep the maximum frequency of each term.
-                TermId termId = term.get().id();
                 double freq = annotation.frequency();
-                updateMap.compute(termId, (k, previous) -> previous == null ? freq : Math.max(freq, previous));
-                for (TermId at : ontology.graph().getAncestors(termId))
-                    updateMap.compute(at, (k, previous) -> previous == null ? freq : Math.max(freq, previous));
+                for (int ancestor : termIndex.breadthFirstAncestors(index)) {
+                    if (maxFrequencies[ancestor] < 0)
+                        touched[touchedCount++] = ancestor;
+                    maxFrequencies[ancestor] = Math.max(freq, maxFrequencies[ancestor]);
+                }
             }
-            for (TermId tid : updateMap.keySet()) {
-                mp.compute(
-                        tid,
-                        (k, previous) -> previous == null
-                                ? 0.
-                                : previous + updateMap.get(tid)); // cumulative
+            int[] terms = Arrays.copyOf(touched, touchedCount);
+            double[] termFrequencies = new double[touchedCount];
+            for (int i = 0; i < touchedCount; i++) {
+                termFrequencies[i] = maxFrequencies[terms[i]];
+                maxFrequencies[terms[i]] = -1.;
             }
+            frequencies[d] = new TermFrequencies(terms, termFrequencies);
         }
-        Map<TermId, Double> builder = new HashMap<>();
-        // Now we need to normalize by the number of diseases.
-        for (Map.Entry<TermId, Double> me : mp.entrySet()) {
-            double f = me.getValue() / diseases.size();
-            builder.put(me.getKey(), f);
-        }
-        logger.trace("Got data on background frequency for {} terms", builder.size());
-        return Map.copyOf(builder);
+        return frequencies;
+    }
+
+    /**
+     * The frequencies of the terms that annotate a disease, directly or through a descendant.
+     */
+    private record TermFrequencies(int[] terms, double[] frequencies) {
     }
 
 }
@@ -0,0 +1,119 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded cache of the phenotype likelihood ratios.
+ * <p>
+ * The likelihood ratio of a query term depends only on the term, on the disease, on the term being observed
+ * or excluded, and on the static HPO data. Therefore, the likelihood ratios can be shared by all analyses
+ * that use the same {@link PhenotypeLikelihoodRatio}.
+ * <p>
+ * The cache is split into segments to reduce the contention among the workers. Each segment evicts
+ * its least recently used entries when it becomes full. The cache is safe for concurrent use.
+ */
+public final class PhenotypeLrCache {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a cache for storing up to {@code maximumSize} likelihood ratios.
+     */
+    public static PhenotypeLrCache of(int maximumSize) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("Maximum size %d must be greater than 0".formatted(maximumSize));
+        return new PhenotypeLrCache(maximumSize);
+    }
+
+    private PhenotypeLrCache(int maximumSize) {
+        int segmentSize = Math.max(1, maximumSize / SEGMENT_COUNT);
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++)
+            segments[i] = new Segment(segmentSize);
+    }
+
+    /**
+     * @return the cached likelihood ratio or {@code null} if the likelihood ratio is not in the cache.
+     */
+    LrWithExplanation get(long key) {
+        Segment segment = segmentFor(key);
+        LrWithExplanation lr;
+        synchronized (segment) {
+            lr = segment.get(key);
+        }
+        if (lr == null)
+            misses.increment();
+        else
+            hits.increment();
+        return lr;
+    }
+
+    void put(long key, LrWithExplanation lr) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, lr);
+        }
+    }
+
+    private Segment segmentFor(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 60) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * @return the number of lookups that found the likelihood ratio in the cache.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that did not find the likelihood ratio in the cache.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of the cached likelihood ratios.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "PhenotypeLrCache{" +
+                "size=" + size() +
+                ", hits=" + hitCount() +
+                ", misses=" + missCount() +
+                '}';
+    }
+
+    private static class Segment extends LinkedHashMap<Long, LrWithExplanation> {
+
+        private final int maximumSize;
+
+        private Segment(int maximumSize) {
+            super(16, .75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, LrWithExplanation> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
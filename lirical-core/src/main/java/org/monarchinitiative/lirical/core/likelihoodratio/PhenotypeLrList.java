@@ -0,0 +1,133 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A compact list of the likelihood ratios of the query terms of a sample in a disease.
+ * <p>
+ * The likelihood ratios are stored in a primitive array aligned with the query terms, along with the match types
+ * and the indices of the matching terms. The {@link LrWithExplanation} elements are created on demand, hence
+ * the list is cheap to retain for each evaluated disease, and the product of the likelihood ratios is calculated
+ * without boxing.
+ * <p>
+ * The list is filled by {@link PhenotypeLikelihoodRatio} and it is not modified after being handed over
+ * to the caller.
+ */
+public final class PhenotypeLrList extends AbstractList<LrWithExplanation> implements RandomAccess {
+
+    private static final LrMatchType[] MATCH_TYPES = LrMatchType.values();
+    /**
+     * The matching term index of the likelihood ratios whose matching term is the query term itself.
+     */
+    static final int QUERY_TERM = -1;
+
+    private final List<TermId> queryTerms;
+    private final TermIndex termIndex;
+    private final LrWithExplanationFactory explanationFactory;
+    private final double[] lrs;
+    private final byte[] matchTypes;
+    private final int[] matchingTerms;
+
+    PhenotypeLrList(List<TermId> queryTerms, TermIndex termIndex, LrWithExplanationFactory explanationFactory) {
+        this.queryTerms = Objects.requireNonNull(queryTerms);
+        this.termIndex = termIndex;
+        this.explanationFactory = explanationFactory;
+        this.lrs = new double[queryTerms.size()];
+        this.matchTypes = new byte[queryTerms.size()];
+        this.matchingTerms = new int[queryTerms.size()];
+    }
+
+    /**
+     * Store the likelihood ratio of the {@code i}-th query term.
+     *
+     * @param matchingTerm the index of the matching term or {@link #QUERY_TERM}.
+     * @return the likelihood ratio.
+     */
+    double set(int i, LrMatchType matchType, int matchingTerm, double lr) {
+        lrs[i] = lr;
+        matchTypes[i] = (byte) matchType.ordinal();
+        matchingTerms[i] = matchingTerm;
+        return lr;
+    }
+
+    /**
+     * @return the query terms, in the order of the likelihood ratios.
+     */
+    public List<TermId> queryTerms() {
+        return queryTerms;
+    }
+
+    public TermId queryTerm(int i) {
+        return queryTerms.get(i);
+    }
+
+    public TermId matchingTerm(int i) {
+        int term = matchingTerms[i];
+        return term == QUERY_TERM ? queryTerms.get(i) : termIndex.termId(term);
+    }
+
+    TermIndex termIndex() {
+        return termIndex;
+    }
+
+    /**
+     * @return the index of the matching term of the {@code i}-th query term or {@link #QUERY_TERM}.
+     */
+    int matchingTermIndex(int i) {
+        return matchingTerms[i];
+    }
+
+    public LrMatchType matchType(int i) {
+        return MATCH_TYPES[matchTypes[i]];
+    }
+
+    /**
+     * @return the likelihood ratio of the {@code i}-th query term.
+     */
+    public double lr(int i) {
+        return lrs[i];
+    }
+
+    /**
+     * @return the product of the likelihood ratios, multiplied in the order of the query terms,
+     * or {@code 1} if the list is empty.
+     */
+    public double lrProduct() {
+        return CompositeLikelihoodRatio.product(lrs);
+    }
+
+    /**
+     * @return the sum of the natural logarithms of the likelihood ratios or {@code 0} if the list is empty.
+     */
+    public double logLrSum() {
+        return CompositeLikelihoodRatio.sumOfLogs(lrs);
+    }
+
+    /**
+     * @return the maximum absolute value of the likelihood ratios or {@code 0} if the list is empty.
+     */
+    public double maximumAbsoluteLr() {
+        double max = 0.0;
+        for (double lr : lrs)
+            max = Math.max(max, Math.abs(lr));
+        return max;
+    }
+
+    /**
+     * @return a new {@link LrWithExplanation} with the likelihood ratio of the {@code i}-th query term.
+     */
+    @Override
+    public LrWithExplanation get(int i) {
+        return LrWithExplanation.lazy(queryTerms.get(i), matchingTerm(i), matchType(i), lrs[i], explanationFactory);
+    }
+
+    @Override
+    public int size() {
+        return lrs.length;
+    }
+}
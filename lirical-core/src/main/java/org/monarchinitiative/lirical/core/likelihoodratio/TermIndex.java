@@ -0,0 +1,210 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.monarchinitiative.phenol.ontology.data.MinimalOntology;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+
+/**
+ * Dense integer index of the ontology terms with precomputed ancestor closures.
+ * <p>
+ * Each term of the ontology graph is assigned an index from {@code [0, size())}. The indices follow a topological
+ * order of the graph, hence the index of a term is always greater than the indices of its ancestors.
+ * The ancestor closure of each term is stored as a bitset that is trimmed after the highest ancestor index.
+ * This lets us answer ancestor/descendant questions with a single bit test and without allocating any objects.
+ * <p>
+ * The terms that are not present in the ontology graph get the index {@code -1}
+ * and are not related to any other term.
+ */
+public class TermIndex {
+
+    private final Map<TermId, Integer> termToIndex;
+    private final TermId[] terms;
+    private final int[][] parents;
+    private final int[] childCounts;
+    /**
+     * The ancestors of each term, including the term itself, in the order of the breadth-first traversal
+     * of the parents.
+     */
+    private final int[][] breadthFirstAncestors;
+    /**
+     * The ancestor bitset of the term {@code i} spans the words {@code [ancestorOffsets[i], ancestorOffsets[i+1])}.
+     */
+    private final int[] ancestorOffsets;
+    private final long[] ancestorWords;
+
+    public static TermIndex of(MinimalOntology ontology) {
+        // Assign the indices in the topological order, i.e. the parents are indexed before their children.
+        List<TermId> order = new ArrayList<>();
+        Set<TermId> visited = new HashSet<>();
+        for (TermId termId : ontology.graph())
+            visitParentsFirst(termId, ontology, visited, order);
+        for (TermId termId : ontology.nonObsoleteTermIds())
+            visitParentsFirst(termId, ontology, visited, order);
+
+        Map<TermId, Integer> termToIndex = new HashMap<>(order.size());
+        for (int i = 0; i < order.size(); i++)
+            termToIndex.put(order.get(i), i);
+
+        int n = order.size();
+        int[][] parents = new int[n][];
+        int[] childCounts = new int[n];
+        long[][] ancestors = new long[n][];
+        int totalWords = 0;
+        for (int i = 0; i < n; i++) {
+            Set<TermId> parentIds = ontology.graph().getParents(order.get(i));
+            int[] p = new int[parentIds.size()];
+            int j = 0;
+            int highestAncestor = -1;
+            for (TermId parentId : parentIds) {
+                int parent = termToIndex.get(parentId);
+                p[j++] = parent;
+                childCounts[parent]++;
+                highestAncestor = Math.max(highestAncestor, parent);
+            }
+            parents[i] = p;
+
+            // The ancestors of a term are its parents and the ancestors of the parents.
+            long[] words = new long[highestAncestor < 0 ? 0 : (highestAncestor >>> 6) + 1];
+            for (int parent : p) {
+                long[] parentWords = ancestors[parent];
+                for (int w = 0; w < parentWords.length; w++)
+                    words[w] |= parentWords[w];
+                words[parent >>> 6] |= 1L << parent;
+            }
+            ancestors[i] = words;
+            totalWords += words.length;
+        }
+
+        int[] ancestorOffsets = new int[n + 1];
+        long[] ancestorWords = new long[totalWords];
+        for (int i = 0; i < n; i++) {
+            long[] words = ancestors[i];
+            System.arraycopy(words, 0, ancestorWords, ancestorOffsets[i], words.length);
+            ancestorOffsets[i + 1] = ancestorOffsets[i] + words.length;
+        }
+
+        int[][] breadthFirstAncestors = new int[n][];
+        int[] visitedBy = new int[n];
+        Arrays.fill(visitedBy, -1);
+        int[] queue = new int[n];
+        for (int i = 0; i < n; i++) {
+            int head = 0, tail = 0;
+            queue[tail++] = i;
+            visitedBy[i] = i;
+            while (head < tail) {
+                for (int parent : parents[queue[head++]]) {
+                    if (visitedBy[parent] != i) {
+                        visitedBy[parent] = i;
+                        queue[tail++] = parent;
+                    }
+                }
+            }
+            breadthFirstAncestors[i] = Arrays.copyOf(queue, tail);
+        }
+
+        return new TermIndex(termToIndex, order.toArray(TermId[]::new), parents, childCounts, breadthFirstAncestors, ancestorOffsets, ancestorWords);
+    }
+
+    private static void visitParentsFirst(TermId termId, MinimalOntology ontology, Set<TermId> visited, List<TermId> order) {
+        if (!visited.add(termId))
+            return;
+        for (TermId parent : ontology.graph().getParents(termId))
+            visitParentsFirst(parent, ontology, visited, order);
+        order.add(termId);
+    }
+
+    private TermIndex(Map<TermId, Integer> termToIndex,
+                      TermId[] terms,
+                      int[][] parents,
+                      int[] childCounts,
+                      int[][] breadthFirstAncestors,
+                      int[] ancestorOffsets,
+                      long[] ancestorWords) {
+        this.termToIndex = termToIndex;
+        this.terms = terms;
+        this.parents = parents;
+        this.childCounts = childCounts;
+        this.breadthFirstAncestors = breadthFirstAncestors;
+        this.ancestorOffsets = ancestorOffsets;
+        this.ancestorWords = ancestorWords;
+    }
+
+    /**
+     * @return the number of indexed terms.
+     */
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * @return the index of the {@code termId} or {@code -1} if the term is not present in the index.
+     */
+    public int indexOf(TermId termId) {
+        Integer index = termToIndex.get(termId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return the term ID for a valid {@code index}.
+     */
+    public TermId termId(int index) {
+        return terms[index];
+    }
+
+    /**
+     * @return {@code true} if the term with index {@code ancestor} is a proper ancestor
+     * of the term with index {@code descendant}.
+     */
+    public boolean isAncestorOf(int ancestor, int descendant) {
+        if (ancestor < 0 || descendant < 0)
+            return false;
+        int word = ancestor >>> 6;
+        int start = ancestorOffsets[descendant];
+        return word < ancestorOffsets[descendant + 1] - start
+                && (ancestorWords[start + word] & (1L << ancestor)) != 0;
+    }
+
+    /**
+     * @return {@code true} if the term with index {@code ancestor} is the same as or an ancestor
+     * of the term with index {@code descendant}.
+     */
+    public boolean isAncestorOrSelf(int ancestor, int descendant) {
+        return ancestor >= 0 && (ancestor == descendant || isAncestorOf(ancestor, descendant));
+    }
+
+    /**
+     * @return {@code true} if the term with index {@code parent} is a parent of the term with index {@code child}.
+     */
+    boolean isParentOf(int parent, int child) {
+        if (parent < 0 || child < 0)
+            return false;
+        for (int p : parents[child])
+            if (p == parent)
+                return true;
+        return false;
+    }
+
+    /**
+     * @return the number of children of the term with a valid {@code index}.
+     */
+    int childCount(int index) {
+        return childCounts[index];
+    }
+
+    /**
+     * @return the indices of the parents of a term with a valid {@code index}, in the order
+     * of the ontology graph. The array must not be modified.
+     */
+    int[] parents(int index) {
+        return parents[index];
+    }
+
+    /**
+     * @return the indices of the term with a valid {@code index} and of all its ancestors, in the order
+     * of the breadth-first traversal of the parents. The array must not be modified.
+     */
+    int[] breadthFirstAncestors(int index) {
+        return breadthFirstAncestors[index];
+    }
+}
@@ -0,0 +1,51 @@
+package org.monarchinitiative.lirical.core.likelihoodratio.poisson;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A bounded memo of a function of a {@code double}, e.g. of the Stirling errors.
+ * <p>
+ * The memo is a direct-mapped table: each argument has a single slot, and a new argument replaces the previous
+ * argument of the slot. Therefore, the memory does not grow with the number of the distinct arguments,
+ * and the memoized values are the values of the function, bit for bit.
+ * <p>
+ * The class is thread safe. The entries are immutable, hence a racy read sees either a complete entry
+ * or no entry, and a lost update only costs another evaluation of the function.
+ */
+final class DoubleMemo {
+
+    private final DoubleUnaryOperator function;
+    private final Entry[] entries;
+    private final int mask;
+
+    /**
+     * @param capacity the number of the slots, a power of two.
+     */
+    DoubleMemo(int capacity, DoubleUnaryOperator function) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity %d must be a positive power of two".formatted(capacity));
+        this.function = function;
+        this.entries = new Entry[capacity];
+        this.mask = capacity - 1;
+    }
+
+    double apply(double x) {
+        long bits = Double.doubleToLongBits(x);
+        int slot = slot(bits);
+        Entry entry = entries[slot];
+        if (entry != null && entry.bits() == bits)
+            return entry.value();
+        double value = function.applyAsDouble(x);
+        entries[slot] = new Entry(bits, value);
+        return value;
+    }
+
+    private int slot(long bits) {
+        // The arguments are often short binary fractions, with the differing bits at the top of the mantissa.
+        int hash = (int) (bits ^ (bits >>> 32));
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private record Entry(long bits, double value) {
+    }
+}
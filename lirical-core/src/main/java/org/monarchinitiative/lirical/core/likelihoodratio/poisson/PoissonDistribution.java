@@ -13,10 +13,40 @@ public class PoissonDistribution {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PoissonDistribution.class);
 
+    /**
+     * The Stirling errors of the values, shared by all distributions. The observed weighted counts of the genotype LR
+     * are sums of the variant pathogenicities, hence the same values recur for many genes.
+     * The failures are stored as {@link Double#NEGATIVE_INFINITY}, which is not a Stirling error of any value.
+     */
+    private static final DoubleMemo STIRLING_ERRORS = new DoubleMemo(1024, PoissonDistribution::computeStirlingError);
+    private static final int PROBABILITY_MEMO_CAPACITY = 64;
+
     private final double mean;
+    /**
+     * The memoized probabilities or {@code null} if the distribution does not memoize the probabilities.
+     */
+    private final DoubleMemo probabilities;
 
     public PoissonDistribution(double mean) {
+        this(mean, false);
+    }
+
+    private PoissonDistribution(double mean, boolean memoize) {
         this.mean=mean;
+        this.probabilities = memoize ? new DoubleMemo(PROBABILITY_MEMO_CAPACITY, this::computeProbability) : null;
+    }
+
+    /**
+     * Get a distribution that memoizes the probabilities of the recently seen values. The probabilities are
+     * the same as the probabilities of {@code new PoissonDistribution(mean)}, bit for bit.
+     * Use the distribution for a fixed mean that is evaluated many times, such as the lambda-disease
+     * of the genotype LR.
+     *
+     * @param mean the mean for the distribution.
+     * @return the distribution.
+     */
+    public static PoissonDistribution memoized(double mean) {
+        return new PoissonDistribution(mean, true);
     }
 
     /**
@@ -29,6 +59,10 @@ public class PoissonDistribution {
     }
 
     public double probability(double x) {
+        return probabilities == null ? computeProbability(x) : probabilities.apply(x);
+    }
+
+    private double computeProbability(double x) {
         final double logProbability = logProbability(x);
         return logProbability == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logProbability);
     }
@@ -40,15 +74,22 @@ public class PoissonDistribution {
         } else if (x == 0) {
             return -mean;
         } else {
-            try {
-                return -SaddlePointExpansion.getStirlingError(x) -
-                                SaddlePointExpansion.getDeviancePart(x, mean) -
-                                0.5 * Math.log(SaddlePointExpansion.TWO_PI) - 0.5 * Math.log(x);
-            } catch (NumberIsTooSmallException | NumberIsTooLargeException e) {
-                LOGGER.warn("{}", e.getMessage());
-                LOGGER.debug("{}", e.getMessage(), e);
+            double stirlingError = STIRLING_ERRORS.apply(x);
+            if (stirlingError == Double.NEGATIVE_INFINITY)
                 return Double.NEGATIVE_INFINITY;
-            }
+            return -stirlingError -
+                            SaddlePointExpansion.getDeviancePart(x, mean) -
+                            0.5 * Math.log(SaddlePointExpansion.TWO_PI) - 0.5 * Math.log(x);
+        }
+    }
+
+    private static double computeStirlingError(double x) {
+        try {
+            return SaddlePointExpansion.getStirlingError(x);
+        } catch (NumberIsTooSmallException | NumberIsTooLargeException e) {
+            LOGGER.warn("{}", e.getMessage());
+            LOGGER.debug("{}", e.getMessage(), e);
+            return Double.NEGATIVE_INFINITY;
         }
     }
 }
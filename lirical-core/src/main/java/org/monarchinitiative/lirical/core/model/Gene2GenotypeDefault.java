@@ -2,6 +2,7 @@ package org.monarchinitiative.lirical.core.model;
 
 import org.monarchinitiative.phenol.annotations.formats.GeneIdentifier;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -14,6 +15,8 @@ class Gene2GenotypeDefault {
         private final GeneIdentifier geneId;
         private final List<LiricalVariant> variants;
         private final int filteredOutVariantCount;
+        // The variant summaries of the queried samples. The array is replaced when a new sample is queried.
+        private volatile SampleVariantSummary[] summaries = new SampleVariantSummary[0];
 
         Gene2GenotypeFull(GeneIdentifier geneId, Collection<LiricalVariant> variants, int filteredOutVariantCount) {
             this.geneId = geneId;
@@ -41,6 +44,41 @@ class Gene2GenotypeDefault {
             return filteredOutVariantCount;
         }
 
+        @Override
+        public int pathogenicClinVarCount(String sampleId) {
+            if (sampleId == null)
+                return 0;
+            return summary(sampleId).pathogenicClinVarCount();
+        }
+
+        @Override
+        public int deleteriousAlleleCount(String sampleId, float pathogenicityThreshold) {
+            if (sampleId == null)
+                return 0;
+            return summary(sampleId).deleteriousAlleleCount(pathogenicityThreshold);
+        }
+
+        @Override
+        public double getSumOfPathBinScores(String sampleId, float pathogenicityThreshold) {
+            if (sampleId == null)
+                return 0.;
+            return summary(sampleId).sumOfPathBinScores(pathogenicityThreshold);
+        }
+
+        private SampleVariantSummary summary(String sampleId) {
+            SampleVariantSummary[] current = summaries;
+            for (SampleVariantSummary summary : current)
+                if (summary.sampleId().equals(sampleId))
+                    return summary;
+
+            // A racing worker can lose its summary. However, the summary is only calculated again.
+            SampleVariantSummary summary = SampleVariantSummary.of(sampleId, variants);
+            SampleVariantSummary[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = summary;
+            summaries = updated;
+            return summary;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -0,0 +1,164 @@
+package org.monarchinitiative.lirical.core.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The aggregates of the variants of a gene that are needed to calculate the genotype LR of a single sample.
+ * <p>
+ * The genotype of the sample and the pathogenicity of the variants are read once. The variants labeled as benign
+ * or likely benign by ClinVar are left out, since they are never deemed deleterious. The remaining variants are sorted
+ * by the pathogenicity score, and the aggregates of the variants at or above each distinct score are stored
+ * in primitive arrays. Therefore, the aggregates for any pathogenicity threshold are found by a binary search,
+ * e.g. when sweeping the thresholds of the analysis.
+ * <p>
+ * The path bin scores of the variants at or above a score are summed in the original order of the variants,
+ * hence the results are the same as the results of the default methods of {@link Gene2Genotype}.
+ * The class is immutable.
+ */
+final class SampleVariantSummary {
+
+    private final String sampleId;
+    private final int pathogenicClinVarCount;
+    // The variants with a pathogenicity score in the ascending order of the scores,
+    // and the sums of the alt allele counts of the variants starting at the index.
+    private final float[] deleteriousScores;
+    private final int[] deleteriousAlleleCounts;
+    // All variants in the ascending order of the scores, with the missing scores treated as 0,
+    // and the sums of the path bin scores of the variants with a score at or above the score at the index.
+    // The sums are only set at the first index of each distinct score and at the end.
+    private final float[] pathBinScores;
+    private final double[] sumsOfPathBinScores;
+
+    static SampleVariantSummary of(String sampleId, List<LiricalVariant> variants) {
+        int pathogenicClinVarCount = 0;
+        byte[] altCounts = new byte[variants.size()];
+        float[] scores = new float[variants.size()];
+        float[] pathogenicities = new float[variants.size()];
+        int n = 0;
+        for (LiricalVariant variant : variants) {
+            byte alt = variant.alleleCount(sampleId).map(AlleleCount::alt).orElse((byte) 0);
+            boolean pathogenic = variant.clinVarAlleleData()
+                    .map(cv -> cv.getClinvarClnSig().isPathogenicOrLikelyPathogenic())
+                    .orElse(false);
+            if (pathogenic)
+                pathogenicClinVarCount += alt;
+
+            boolean notBenign = variant.clinVarAlleleData()
+                    .map(cv -> cv.getClinvarClnSig().notBenignOrLikelyBenign())
+                    .orElse(true);
+            if (notBenign) {
+                altCounts[n] = alt;
+                scores[n] = variant.pathogenicityScore().orElse(Float.NaN);
+                pathogenicities[n] = variant.pathogenicity();
+                n++;
+            }
+        }
+
+        // A variant with no pathogenicity score is not deleterious.
+        int[] scored = IntStream.range(0, n)
+                .filter(i -> !Float.isNaN(scores[i]))
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> scores[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        float[] deleteriousScores = new float[scored.length];
+        int[] deleteriousAlleleCounts = new int[scored.length + 1];
+        for (int i = scored.length - 1; i >= 0; i--) {
+            deleteriousScores[i] = scores[scored[i]];
+            deleteriousAlleleCounts[i] = deleteriousAlleleCounts[i + 1] + altCounts[scored[i]];
+        }
+
+        // However, it is included in the path bin scores with a score of 0.
+        float[] scoresOrZero = new float[n];
+        for (int i = 0; i < n; i++)
+            scoresOrZero[i] = Float.isNaN(scores[i]) ? 0f : scores[i];
+        int[] all = IntStream.range(0, n)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> scoresOrZero[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        float[] pathBinScores = new float[n];
+        for (int i = 0; i < n; i++)
+            pathBinScores[i] = scoresOrZero[all[i]];
+        double[] summands = new double[n];
+        for (int i = 0; i < n; i++)
+            summands[i] = altCounts[i] * pathogenicities[i];
+        double[] sumsOfPathBinScores = new double[n + 1];
+        double[] included = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && pathBinScores[i - 1] == pathBinScores[i])
+                continue;
+            // Sum the variants in the original order, as the default method does.
+            int count = 0;
+            for (int j = 0; j < n; j++)
+                if (scoresOrZero[j] >= pathBinScores[i])
+                    included[count++] = summands[j];
+            sumsOfPathBinScores[i] = Arrays.stream(included, 0, count).sum();
+        }
+
+        return new SampleVariantSummary(sampleId, pathogenicClinVarCount,
+                deleteriousScores, deleteriousAlleleCounts,
+                pathBinScores, sumsOfPathBinScores);
+    }
+
+    private SampleVariantSummary(String sampleId,
+                                 int pathogenicClinVarCount,
+                                 float[] deleteriousScores,
+                                 int[] deleteriousAlleleCounts,
+                                 float[] pathBinScores,
+                                 double[] sumsOfPathBinScores) {
+        this.sampleId = sampleId;
+        this.pathogenicClinVarCount = pathogenicClinVarCount;
+        this.deleteriousScores = deleteriousScores;
+        this.deleteriousAlleleCounts = deleteriousAlleleCounts;
+        this.pathBinScores = pathBinScores;
+        this.sumsOfPathBinScores = sumsOfPathBinScores;
+    }
+
+    String sampleId() {
+        return sampleId;
+    }
+
+    /**
+     * @see Gene2Genotype#pathogenicClinVarCount(String)
+     */
+    int pathogenicClinVarCount() {
+        return pathogenicClinVarCount;
+    }
+
+    /**
+     * @see Gene2Genotype#deleteriousAlleleCount(String, float)
+     */
+    int deleteriousAlleleCount(float pathogenicityThreshold) {
+        return deleteriousAlleleCounts[firstAtOrAbove(deleteriousScores, pathogenicityThreshold)];
+    }
+
+    /**
+     * @see Gene2Genotype#getSumOfPathBinScores(String, float)
+     */
+    double sumOfPathBinScores(float pathogenicityThreshold) {
+        return sumsOfPathBinScores[firstAtOrAbove(pathBinScores, pathogenicityThreshold)];
+    }
+
+    /**
+     * @return the index of the first of the ascending {@code scores} that is at or above the {@code threshold},
+     * or the length of the {@code scores} if there is no such score.
+     */
+    private static int firstAtOrAbove(float[] scores, float threshold) {
+        if (Float.isNaN(threshold))
+            // No score passes the comparison with NaN.
+            return scores.length;
+        int low = 0, high = scores.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (scores[mid] < threshold)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
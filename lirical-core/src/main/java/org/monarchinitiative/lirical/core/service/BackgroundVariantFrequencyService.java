@@ -15,4 +15,12 @@ public interface BackgroundVariantFrequencyService {
 
     Optional<Double> frequencyForGene(TermId geneId);
 
+    /**
+     * @return the frequency of the {@code geneId} or the {@link #defaultVariantBackgroundFrequency()}
+     * if the frequency of the gene is not available.
+     */
+    default double frequencyForGeneOrDefault(TermId geneId) {
+        return frequencyForGene(geneId).orElse(defaultVariantBackgroundFrequency());
+    }
+
 }
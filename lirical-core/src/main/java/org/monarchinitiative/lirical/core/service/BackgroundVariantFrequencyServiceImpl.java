@@ -1,19 +1,43 @@
 package org.monarchinitiative.lirical.core.service;
 
+import org.monarchinitiative.lirical.core.util.GeneIds;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
+/**
+ * The frequencies of the NCBIGene IDs are stored in primitive arrays, sorted by the numeric gene ID,
+ * and looked up by a binary search. The frequencies of the other gene IDs, if any, are stored in a map.
+ */
 class BackgroundVariantFrequencyServiceImpl implements BackgroundVariantFrequencyService {
 
-    private final Map<TermId, Double> frequencyMap;
+    private final int[] geneIds;
+    private final double[] frequencies;
+    private final Map<TermId, Double> otherFrequencies;
     private final double defaultVariantBackgroundFrequency;
 
     BackgroundVariantFrequencyServiceImpl(Map<TermId, Double> frequencyMap,
                                           double defaultVariantBackgroundFrequency) {
-        this.frequencyMap = Objects.requireNonNull(frequencyMap);
+        Objects.requireNonNull(frequencyMap);
+        Map<Integer, Double> ncbiGeneFrequencies = new TreeMap<>();
+        Map<TermId, Double> otherFrequencies = new HashMap<>();
+        for (Map.Entry<TermId, Double> e : frequencyMap.entrySet()) {
+            int geneId = GeneIds.ncbiGeneId(e.getKey());
+            if (geneId < 0)
+                otherFrequencies.put(e.getKey(), e.getValue());
+            else
+                ncbiGeneFrequencies.put(geneId, e.getValue());
+        }
+
+        this.geneIds = new int[ncbiGeneFrequencies.size()];
+        this.frequencies = new double[ncbiGeneFrequencies.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Double> e : ncbiGeneFrequencies.entrySet()) {
+            geneIds[i] = e.getKey();
+            frequencies[i] = e.getValue();
+            i++;
+        }
+        this.otherFrequencies = Map.copyOf(otherFrequencies);
         this.defaultVariantBackgroundFrequency = defaultVariantBackgroundFrequency;
     }
 
@@ -24,6 +48,26 @@ class BackgroundVariantFrequencyServiceImpl implements BackgroundVariantFrequenc
 
     @Override
     public Optional<Double> frequencyForGene(TermId geneId) {
-        return Optional.ofNullable(frequencyMap.get(geneId));
+        int position = position(geneId);
+        if (position >= 0)
+            return Optional.of(frequencies[position]);
+        return Optional.ofNullable(otherFrequencies.get(geneId));
+    }
+
+    @Override
+    public double frequencyForGeneOrDefault(TermId geneId) {
+        int position = position(geneId);
+        if (position >= 0)
+            return frequencies[position];
+        Double frequency = otherFrequencies.get(geneId);
+        return frequency == null ? defaultVariantBackgroundFrequency : frequency;
+    }
+
+    /**
+     * @return the position of the NCBIGene {@code geneId} in the arrays or a negative number if the gene is not present.
+     */
+    private int position(TermId geneId) {
+        int id = GeneIds.ncbiGeneId(geneId);
+        return id < 0 ? -1 : Arrays.binarySearch(geneIds, id);
     }
 }
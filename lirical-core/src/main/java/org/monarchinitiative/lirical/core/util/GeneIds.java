@@ -0,0 +1,36 @@
+package org.monarchinitiative.lirical.core.util;
+
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+/**
+ * Static utility class for working with the gene identifiers.
+ */
+public class GeneIds {
+
+    private static final String NCBI_GENE_PREFIX = "NCBIGene";
+
+    private GeneIds() {
+    }
+
+    /**
+     * Get the numeric ID of an NCBIGene {@code geneId}, e.g. {@code 2200} for {@code NCBIGene:2200}.
+     *
+     * @return the numeric ID or {@code -1} if the ID is not a non-negative NCBIGene integer in the canonical form,
+     * i.e. without leading zeros.
+     */
+    public static int ncbiGeneId(TermId geneId) {
+        if (!NCBI_GENE_PREFIX.equals(geneId.getPrefix()))
+            return -1;
+        String id = geneId.getId();
+        if (id.isEmpty() || id.length() > 9 || (id.length() > 1 && id.charAt(0) == '0'))
+            return -1;
+        int value = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
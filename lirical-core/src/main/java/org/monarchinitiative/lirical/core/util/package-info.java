@@ -1,4 +1,5 @@
 /**
- * Package with utility methods such as binary search with custom comparator for extracting the sorting key.
+ * Package with utility methods such as binary search with custom comparator for extracting the sorting key
+ * or parsing the numeric gene IDs.
  */
 package org.monarchinitiative.lirical.core.util;
\ No newline at end of file
@@ -0,0 +1,156 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.lirical.core.analysis.*;
+import org.monarchinitiative.lirical.core.analysis.probability.PretestDiseaseProbabilities;
+import org.monarchinitiative.lirical.core.likelihoodratio.LrWithExplanation;
+import org.monarchinitiative.lirical.core.model.GenesAndGenotypes;
+import org.monarchinitiative.lirical.core.model.Sex;
+import org.monarchinitiative.lirical.core.service.PhenotypeService;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoAssociationData;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class AnalysisSessionImplTest {
+
+    private static LiricalAnalysisRunnerImpl RUNNER;
+    private static List<TermId> TERMS;
+
+    @BeforeAll
+    public static void setUp() {
+        HpoAssociationData associationData = mock(HpoAssociationData.class, RETURNS_DEEP_STUBS);
+        when(associationData.associations().geneIdToDiseaseIds()).thenReturn(Map.of());
+        PhenotypeService phenotypeService = PhenotypeService.of(TestResources.hpo(), TestResources.hpoDiseases(), associationData);
+        RUNNER = LiricalAnalysisRunnerImpl.of(phenotypeService, (genomeBuild, frequency) -> Optional.empty(), 2);
+        TERMS = new ArrayList<>();
+        TestResources.hpo().nonObsoleteTermIds().forEach(TERMS::add);
+        Collections.sort(TERMS);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        RUNNER.close();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, false",
+            "3, false",
+            "0, true",
+            "3, true",
+    })
+    public void resultsMatchTheResultsOfFreshAnalysis(int topResultCount, boolean defaultSession) throws Exception {
+        Random random = new Random(topResultCount);
+        AnalysisOptions options = AnalysisOptions.builder()
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .topResultCount(topResultCount)
+                .build();
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 3), TERMS.subList(5, 6), GenesAndGenotypes.empty());
+        LiricalAnalysisRunner runner = defaultSession ? withDefaultSessions(RUNNER) : RUNNER;
+        AnalysisSession session = runner.startSession(data, options);
+        assertSameResults(session.results(), RUNNER.run(data, options));
+
+        for (int i = 0; i < 30; i++) {
+            TermId term = TERMS.get(random.nextInt(TERMS.size()));
+            boolean observed = random.nextBoolean();
+            if (random.nextInt(3) == 0) {
+                List<TermId> present = observed
+                        ? session.analysisData().presentPhenotypeTerms()
+                        : session.analysisData().negatedPhenotypeTerms();
+                if (!present.isEmpty())
+                    term = present.get(random.nextInt(present.size()));
+                if (observed)
+                    session.removeObservedTerm(term);
+                else
+                    session.removeExcludedTerm(term);
+            } else if (observed) {
+                session.addObservedTerm(term);
+            } else {
+                session.addExcludedTerm(term);
+            }
+
+            AnalysisResults expected = RUNNER.run(session.analysisData(), options);
+            assertSameResults(session.results(), expected);
+        }
+    }
+
+    @Test
+    public void sessionIsStartedByTheRunnerInterface() throws Exception {
+        LiricalAnalysisRunner runner = RUNNER;
+        AnalysisOptions options = AnalysisOptions.builder()
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .build();
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 2), List.of(), GenesAndGenotypes.empty());
+
+        assertSameResults(runner.startSession(data, options).results(), runner.run(data, options));
+        assertSameResults(withDefaultSessions(runner).startSession(data, options).results(), runner.run(data, options));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void addingPresentTermOrRemovingAbsentTermIsNoOp(boolean defaultSession) throws Exception {
+        AnalysisOptions options = AnalysisOptions.builder()
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .build();
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 2), List.of(), GenesAndGenotypes.empty());
+        LiricalAnalysisRunner runner = defaultSession ? withDefaultSessions(RUNNER) : RUNNER;
+        AnalysisSession session = runner.startSession(data, options);
+
+        assertThat(session.addObservedTerm(TERMS.get(0)), is(false));
+        assertThat(session.removeExcludedTerm(TERMS.get(0)), is(false));
+        assertThat(session.addExcludedTerm(TERMS.get(0)), is(true));
+        assertThat(session.removeObservedTerm(TERMS.get(1)), is(true));
+
+        assertThat(session.analysisData().presentPhenotypeTerms(), equalTo(TERMS.subList(0, 1)));
+        assertThat(session.analysisData().negatedPhenotypeTerms(), equalTo(TERMS.subList(0, 1)));
+    }
+
+    /**
+     * @return a runner that delegates the analyses to the {@code runner} and uses the default sessions.
+     */
+    private static LiricalAnalysisRunner withDefaultSessions(LiricalAnalysisRunner runner) {
+        return new LiricalAnalysisRunner() {
+            @Override
+            public AnalysisResults run(AnalysisData analysisData, AnalysisOptions analysisOptions) throws LiricalAnalysisException {
+                return runner.run(analysisData, analysisOptions);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static void assertSameResults(AnalysisResults actual, AnalysisResults expected) {
+        List<TestResult> actualResults = actual.resultsWithDescendingPostTestProbability().toList();
+        List<TestResult> expectedResults = expected.resultsWithDescendingPostTestProbability().toList();
+        assertThat(actualResults.stream().map(TestResult::diseaseId).toList(),
+                equalTo(expectedResults.stream().map(TestResult::diseaseId).toList()));
+        assertThat(actualResults.stream().map(TestResult::posttestProbability).toList(),
+                equalTo(expectedResults.stream().map(TestResult::posttestProbability).toList()));
+        assertThat(actualResults.stream().map(TestResult::observedTerms).toList(),
+                everyItem(equalTo(expectedResults.get(0).observedTerms())));
+        // The explanations of the session are created on demand, from the LR columns.
+        assertThat(actualResults.stream().map(AnalysisSessionImplTest::explanations).toList(),
+                equalTo(expectedResults.stream().map(AnalysisSessionImplTest::explanations).toList()));
+        assertThat(actual.summary(), equalTo(expected.summary()));
+    }
+
+    private static List<String> explanations(TestResult result) {
+        return Stream.concat(result.observedResults().stream(), result.excludedResults().stream())
+                .map(LrWithExplanation::explanation)
+                .toList();
+    }
+}
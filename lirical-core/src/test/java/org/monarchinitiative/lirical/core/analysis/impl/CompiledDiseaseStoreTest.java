@@ -0,0 +1,54 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.lirical.core.likelihoodratio.CompiledDisease;
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLikelihoodRatio;
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLrCache;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseases;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompiledDiseaseStoreTest {
+
+    private static final TermId TERM = TermId.of("HP:0000028");
+
+    @Test
+    public void storedDiseasesAreCompiledOnceAndCached() {
+        List<HpoDisease> diseases = TestResources.hpoDiseases().hpoDiseases().limit(3).toList();
+        PhenotypeLikelihoodRatio evaluator = new PhenotypeLikelihoodRatio(TestResources.hpo(), TestResources.hpoDiseases(), 1_000);
+        CompiledDiseaseStore store = CompiledDiseaseStore.of(HpoDiseases.of(diseases.subList(0, 2)), evaluator, ForkJoinPool.commonPool());
+        PhenotypeLrCache cache = evaluator.cache().orElseThrow();
+
+        for (HpoDisease disease : diseases.subList(0, 2)) {
+            CompiledDisease compiled = store.compiledDisease(disease);
+            assertThat(store.compiledDisease(disease), is(sameInstance(compiled)));
+            evaluator.lrForObservedTerm(TERM, compiled);
+            evaluator.lrForObservedTerm(TERM, store.compiledDisease(disease));
+        }
+        // Each stored disease has its own ordinal, hence the second evaluation is a hit.
+        assertThat(cache.missCount(), equalTo(2L));
+        assertThat(cache.hitCount(), equalTo(2L));
+    }
+
+    @Test
+    public void diseasesOutsideOfTheStoreAreNotCached() {
+        List<HpoDisease> diseases = TestResources.hpoDiseases().hpoDiseases().limit(2).toList();
+        PhenotypeLikelihoodRatio evaluator = new PhenotypeLikelihoodRatio(TestResources.hpo(), TestResources.hpoDiseases(), 1_000);
+        CompiledDiseaseStore store = CompiledDiseaseStore.of(HpoDiseases.of(diseases.subList(0, 1)), evaluator, ForkJoinPool.commonPool());
+        PhenotypeLrCache cache = evaluator.cache().orElseThrow();
+
+        HpoDisease missing = diseases.get(1);
+        for (int round = 0; round < 3; round++)
+            evaluator.lrForObservedTerm(TERM, store.compiledDisease(missing));
+
+        assertThat(cache.size(), equalTo(0));
+        assertThat(cache.missCount(), equalTo(0L));
+    }
+}
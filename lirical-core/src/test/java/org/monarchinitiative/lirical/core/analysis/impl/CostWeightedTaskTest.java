@@ -0,0 +1,114 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CostWeightedTaskTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 16})
+    public void visitsAllItemsInOrder(int parallelism) {
+        long[] costs = randomCosts(5_000);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Integer> visited = pool.invoke(CostWeightedTask.of(costs, parallelism, ArrayList::new, List::add, (left, right) -> {
+                left.addAll(right);
+                return left;
+            }));
+
+            assertThat(visited, equalTo(IntStream.range(0, costs.length).boxed().toList()));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void splitsExpensiveItemsIntoSeparateLeaves() {
+        // A single expensive item is followed by many cheap ones.
+        long[] costs = new long[1_001];
+        costs[0] = 1_000;
+        for (int i = 1; i < costs.length; i++)
+            costs[i] = 1;
+
+        List<List<Integer>> leaves = CostWeightedTask.of(costs, 2, () -> {
+                    List<List<Integer>> leaf = new ArrayList<>();
+                    leaf.add(new ArrayList<>());
+                    return leaf;
+                },
+                (leaf, i) -> leaf.get(0).add(i),
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                }).invoke();
+
+        assertThat(leaves.get(0), equalTo(List.of(0)));
+        assertThat(leaves.size(), is(greaterThan(2)));
+    }
+
+    @Test
+    public void usesAtMostParallelismWorkers() {
+        long[] costs = new long[200];
+        Arrays.fill(costs, 1);
+        Set<Thread> workers = ConcurrentHashMap.newKeySet();
+
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            pool.invoke(CostWeightedTask.<List<Integer>>of(costs, 2, ArrayList::new, (list, i) -> {
+                workers.add(Thread.currentThread());
+                sleep();
+                list.add(i);
+            }, (left, right) -> left));
+
+            assertThat(workers.size(), is(lessThanOrEqualTo(2)));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void emptyRange() {
+        List<Integer> visited = CostWeightedTask.<List<Integer>>of(new long[0], 4, ArrayList::new, List::add, (left, right) -> left)
+                .invoke();
+
+        assertThat(visited, is(empty()));
+    }
+
+    @Test
+    public void costMustNotBeNegative() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CostWeightedTask.<List<Integer>>of(new long[]{1, -2}, 4, ArrayList::new, List::add, (left, right) -> left));
+        assertThat(e.getMessage(), equalTo("Cost of item 1 must not be negative: -2"));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long[] randomCosts(int count) {
+        Random random = new Random(42);
+        long[] costs = new long[count];
+        for (int i = 0; i < count; i++)
+            // Mimic the skewed annotation counts of the diseases.
+            costs[i] = random.nextInt(10) == 0 ? random.nextInt(10_000) : random.nextInt(100);
+        return costs;
+    }
+}
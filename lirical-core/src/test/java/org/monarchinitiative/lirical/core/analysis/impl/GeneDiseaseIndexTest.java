@@ -0,0 +1,101 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.lirical.core.model.Gene2Genotype;
+import org.monarchinitiative.lirical.core.model.GenesAndGenotypes;
+import org.monarchinitiative.phenol.annotations.formats.GeneIdentifier;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoAssociationData;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class GeneDiseaseIndexTest {
+
+    private static final TermId GENE_A = TermId.of("NCBIGene:1");
+    private static final TermId GENE_B = TermId.of("NCBIGene:2");
+    private static final TermId GENE_C = TermId.of("NCBIGene:3");
+
+    private static List<HpoDisease> DISEASES;
+    private static GeneDiseaseIndex INDEX;
+
+    @BeforeAll
+    public static void setUp() {
+        DISEASES = TestResources.hpoDiseases().hpoDiseases().toList();
+        HpoAssociationData associationData = mock(HpoAssociationData.class, RETURNS_DEEP_STUBS);
+        Map<TermId, Collection<TermId>> geneToDiseases = Map.of(
+                GENE_A, List.of(DISEASES.get(0).id(), DISEASES.get(2).id()),
+                GENE_B, List.of(DISEASES.get(2).id()),
+                // The unknown disease is ignored.
+                GENE_C, List.of(TermId.of("OMIM:000000")));
+        when(associationData.associations().geneIdToDiseaseIds()).thenReturn(geneToDiseases);
+        INDEX = GeneDiseaseIndex.of(TestResources.hpoDiseases(), associationData);
+    }
+
+    @Test
+    public void mapsGenesToDiseasesAndBack() {
+        int a = INDEX.geneIndex(GENE_A);
+        int b = INDEX.geneIndex(GENE_B);
+        int c = INDEX.geneIndex(GENE_C);
+
+        assertThat(INDEX.diseases(), equalTo(DISEASES));
+        assertThat(INDEX.geneIndex(TermId.of("NCBIGene:4")), equalTo(-1));
+        assertThat(INDEX.diseaseCount(a), equalTo(2));
+        assertThat(List.of(INDEX.disease(a, 0), INDEX.disease(a, 1)), containsInAnyOrder(0, 2));
+        assertThat(INDEX.diseaseCount(b), equalTo(1));
+        assertThat(INDEX.disease(b, 0), equalTo(2));
+        assertThat(INDEX.diseaseCount(c), equalTo(0));
+
+        assertThat(INDEX.geneCount(0), equalTo(1));
+        assertThat(INDEX.gene(0, 0), equalTo(a));
+        assertThat(INDEX.geneCount(1), equalTo(0));
+        assertThat(INDEX.geneCount(2), equalTo(2));
+        assertThat(List.of(INDEX.gene(2, 0), INDEX.gene(2, 1)), containsInAnyOrder(a, b));
+    }
+
+    @Test
+    public void groupsSampleGenesByDisease() {
+        Gene2Genotype a = gene(GENE_A);
+        Gene2Genotype b = gene(GENE_B);
+        Gene2Genotype unknown = gene(TermId.of("NCBIGene:4"));
+
+        GeneDiseaseIndex.SampleGenes sampleGenes = INDEX.groupDiseasesByGene(GenesAndGenotypes.of(List.of("Sample"), List.of(b, unknown, a)));
+
+        assertThat(sampleGenes.hasAssociatedGenes(), equalTo(true));
+        assertThat(sampleGenes.genes(0), equalTo(List.of(a)));
+        assertThat(sampleGenes.genes(1), is(empty()));
+        // The genes of a disease follow the order of the sample genes.
+        assertThat(sampleGenes.genes(2), equalTo(List.of(b, a)));
+        assertThat(sampleGenes.geneCount(2), equalTo(2));
+    }
+
+    @Test
+    public void sampleWithGenesAssociatedWithUnknownDiseases() {
+        GeneDiseaseIndex.SampleGenes sampleGenes = INDEX.groupDiseasesByGene(GenesAndGenotypes.of(List.of("Sample"), List.of(gene(GENE_C))));
+
+        // The gene has an association, albeit with a disease that is not indexed.
+        assertThat(sampleGenes.hasAssociatedGenes(), equalTo(true));
+        assertThat(sampleGenes.genes(0), is(empty()));
+        assertThat(sampleGenes.genes(2), is(empty()));
+    }
+
+    @Test
+    public void sampleWithNoAssociatedGenes() {
+        GeneDiseaseIndex.SampleGenes sampleGenes = INDEX.groupDiseasesByGene(GenesAndGenotypes.of(List.of("Sample"), List.of(gene(TermId.of("NCBIGene:4")))));
+
+        assertThat(sampleGenes.hasAssociatedGenes(), equalTo(false));
+        assertThat(sampleGenes.genes(0), is(empty()));
+    }
+
+    private static Gene2Genotype gene(TermId geneId) {
+        return Gene2Genotype.of(GeneIdentifier.of(geneId, geneId.getId()), List.of(), 0);
+    }
+}
@@ -0,0 +1,85 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.likelihoodratio.GenotypeLikelihoodRatio;
+import org.monarchinitiative.lirical.core.likelihoodratio.GenotypeLrWithExplanation;
+import org.monarchinitiative.lirical.core.likelihoodratio.InheritanceModes;
+import org.monarchinitiative.lirical.core.model.Gene2Genotype;
+import org.monarchinitiative.phenol.annotations.constants.hpo.HpoModeOfInheritanceTermIds;
+import org.monarchinitiative.phenol.annotations.formats.GeneIdentifier;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.*;
+
+public class GenotypeLrCacheTest {
+
+    private static final InheritanceModes AD = InheritanceModes.of(List.of(HpoModeOfInheritanceTermIds.AUTOSOMAL_DOMINANT));
+    private static final InheritanceModes AR = InheritanceModes.of(List.of(HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE));
+
+    @Test
+    public void evaluatesEachGeneAndInheritanceModesOnce() {
+        Gene2Genotype first = gene("NCBIGene:1");
+        Gene2Genotype second = gene("NCBIGene:2");
+        GenotypeLikelihoodRatio evaluator = mock(GenotypeLikelihoodRatio.class);
+        when(evaluator.evaluateGenotype(eq("Sample"), any(Gene2Genotype.class), any(InheritanceModes.class))).thenAnswer(invocation -> mock(GenotypeLrWithExplanation.class));
+        GenotypeLrCache cache = new GenotypeLrCache(evaluator, "Sample");
+
+        GenotypeLrWithExplanation lr = cache.evaluateGenotype(first, AD);
+        // Equal modes of inheritance hit the cache.
+        assertThat(cache.evaluateGenotype(first, InheritanceModes.of(AD.modes())), is(sameInstance(lr)));
+        assertThat(cache.evaluateGenotype(first, AR), is(not(sameInstance(lr))));
+        assertThat(cache.evaluateGenotype(second, AD), is(not(sameInstance(lr))));
+
+        assertThat(cache.evaluationCount(), equalTo(4L));
+        assertThat(cache.computedCount(), equalTo(3L));
+        verify(evaluator, times(1)).evaluateGenotype("Sample", first, AD);
+        verify(evaluator, times(1)).evaluateGenotype("Sample", first, AR);
+        verify(evaluator, times(1)).evaluateGenotype("Sample", second, AD);
+    }
+
+    @Test
+    public void evaluatorsWithDifferentThresholdsShareTheLrsOfTheSameSummaries() {
+        // The deleterious variants of the first gene are the same for both thresholds.
+        Gene2Genotype first = mock(Gene2Genotype.class);
+        when(first.deleteriousAlleleCount(eq("Sample"), anyFloat())).thenReturn(1);
+        when(first.getSumOfPathBinScores(eq("Sample"), anyFloat())).thenReturn(.9);
+        Gene2Genotype second = mock(Gene2Genotype.class);
+        when(second.deleteriousAlleleCount("Sample", .5f)).thenReturn(2);
+        when(second.getSumOfPathBinScores("Sample", .5f)).thenReturn(1.5);
+        when(second.deleteriousAlleleCount("Sample", .8f)).thenReturn(1);
+        when(second.getSumOfPathBinScores("Sample", .8f)).thenReturn(.9);
+        GenotypeLikelihoodRatio lenient = evaluator(.5f);
+        GenotypeLikelihoodRatio strict = evaluator(.8f);
+        GenotypeLrCache lenientCache = new GenotypeLrCache(lenient, "Sample");
+        GenotypeLrCache strictCache = lenientCache.withEvaluator(strict);
+
+        GenotypeLrWithExplanation firstLr = lenientCache.evaluateGenotype(first, AD);
+        GenotypeLrWithExplanation secondLr = lenientCache.evaluateGenotype(second, AD);
+        assertThat(strictCache.evaluateGenotype(first, AD), is(sameInstance(firstLr)));
+        assertThat(strictCache.evaluateGenotype(second, AD), is(not(sameInstance(secondLr))));
+
+        assertThat(lenientCache.computedCount(), equalTo(2L));
+        assertThat(strictCache.evaluationCount(), equalTo(2L));
+        assertThat(strictCache.computedCount(), equalTo(1L));
+        verify(strict, never()).evaluateGenotype("Sample", first, AD);
+        verify(strict, times(1)).evaluateGenotype("Sample", second, AD);
+    }
+
+    private static GenotypeLikelihoodRatio evaluator(float threshold) {
+        GenotypeLikelihoodRatio evaluator = mock(GenotypeLikelihoodRatio.class);
+        when(evaluator.pathogenicityThreshold()).thenReturn(threshold);
+        when(evaluator.evaluateGenotype(eq("Sample"), any(Gene2Genotype.class), any(InheritanceModes.class))).thenAnswer(invocation -> mock(GenotypeLrWithExplanation.class));
+        return evaluator;
+    }
+
+    private static Gene2Genotype gene(String geneId) {
+        return Gene2Genotype.of(GeneIdentifier.of(TermId.of(geneId), geneId), List.of(), 0);
+    }
+}
@@ -0,0 +1,380 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.monarchinitiative.lirical.core.LiricalOptions;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.lirical.core.analysis.*;
+import org.monarchinitiative.lirical.core.analysis.probability.PretestDiseaseProbabilities;
+import org.monarchinitiative.lirical.core.model.*;
+import org.monarchinitiative.lirical.core.service.BackgroundVariantFrequencyService;
+import org.monarchinitiative.lirical.core.service.PhenotypeService;
+import org.monarchinitiative.phenol.annotations.formats.GeneIdentifier;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoAssociationData;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+public class LiricalAnalysisRunnerImplTest {
+
+    private static LiricalAnalysisRunnerImpl RUNNER;
+    private static List<TermId> TERMS;
+
+    @BeforeAll
+    public static void setUp() {
+        HpoAssociationData associationData = mock(HpoAssociationData.class, RETURNS_DEEP_STUBS);
+        when(associationData.associations().geneIdToDiseaseIds()).thenReturn(Map.of());
+        PhenotypeService phenotypeService = PhenotypeService.of(TestResources.hpo(), TestResources.hpoDiseases(), associationData);
+        RUNNER = LiricalAnalysisRunnerImpl.of(phenotypeService, (genomeBuild, frequency) -> Optional.empty(), 2);
+        TERMS = new ArrayList<>();
+        TestResources.hpo().nonObsoleteTermIds().forEach(TERMS::add);
+        Collections.sort(TERMS);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        RUNNER.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3})
+    public void pruningDoesNotChangeTheTopResults(int topResultCount) throws Exception {
+        Random random = new Random(topResultCount);
+        for (int i = 0; i < 20; i++) {
+            List<TermId> shuffled = new ArrayList<>(TERMS);
+            Collections.shuffle(shuffled, random);
+            AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN,
+                    shuffled.subList(0, 1 + random.nextInt(8)),
+                    shuffled.subList(10, 10 + random.nextInt(3)),
+                    GenesAndGenotypes.empty());
+
+            AnalysisResults all = RUNNER.run(data, options(0, false));
+            AnalysisResults pruned = RUNNER.run(data, options(topResultCount, true));
+
+            List<TestResult> expected = all.resultsWithDescendingPostTestProbability()
+                    .limit(topResultCount)
+                    .toList();
+            List<TestResult> actual = pruned.resultsWithDescendingPostTestProbability().toList();
+            assertThat(actual.stream().map(TestResult::diseaseId).toList(),
+                    equalTo(expected.stream().map(TestResult::diseaseId).toList()));
+            assertThat(actual.stream().map(TestResult::posttestProbability).toList(),
+                    equalTo(expected.stream().map(TestResult::posttestProbability).toList()));
+
+            AnalysisSummary summary = pruned.summary();
+            assertThat(summary.evaluatedDiseaseCount(), equalTo(all.size()));
+            assertThat(summary.discardedResultCount() + summary.prunedDiseaseCount(), equalTo(all.size() - expected.size()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2})
+    public void batchResultsMatchTheResultsOfIndividualSamples(int topResultCount) throws Exception {
+        Random random = new Random(topResultCount);
+        List<AnalysisData> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            List<TermId> shuffled = new ArrayList<>(TERMS);
+            Collections.shuffle(shuffled, random);
+            batch.add(AnalysisData.of("Sample" + i, null, Sex.UNKNOWN,
+                    shuffled.subList(0, 1 + random.nextInt(8)),
+                    shuffled.subList(10, 10 + random.nextInt(3)),
+                    GenesAndGenotypes.empty()));
+        }
+        AnalysisOptions options = options(topResultCount, false);
+
+        List<AnalysisResults> results = RUNNER.runBatch(batch, options);
+
+        assertThat(results, hasSize(batch.size()));
+        for (int i = 0; i < batch.size(); i++) {
+            AnalysisResults expected = RUNNER.run(batch.get(i), options);
+            List<TestResult> actual = results.get(i).resultsWithDescendingPostTestProbability().toList();
+            List<TestResult> expectedResults = expected.resultsWithDescendingPostTestProbability().toList();
+            assertThat(actual.stream().map(TestResult::diseaseId).toList(),
+                    equalTo(expectedResults.stream().map(TestResult::diseaseId).toList()));
+            assertThat(actual.stream().map(TestResult::posttestProbability).toList(),
+                    equalTo(expectedResults.stream().map(TestResult::posttestProbability).toList()));
+            assertThat(actual.stream().map(TestResult::observedTerms).toList(),
+                    everyItem(equalTo(batch.get(i).presentPhenotypeTerms())));
+            assertThat(results.get(i).summary(), equalTo(expected.summary()));
+        }
+    }
+
+    @Test
+    public void emptyBatch() throws Exception {
+        assertThat(RUNNER.runBatch(List.of(), options(0, false)), is(empty()));
+    }
+
+    @Test
+    public void resultsOfOptionsVariantsMatchTheResultsOfIndividualRuns() throws Exception {
+        Random random = new Random(12);
+        List<TermId> targetDiseases = TestResources.hpoDiseases().diseaseIds().stream()
+                .sorted()
+                .limit(10)
+                .toList();
+        List<AnalysisOptions> variants = List.of(
+                options(0, false),
+                options(3, true),
+                options(2, false),
+                AnalysisOptions.builder()
+                        .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                        .setTargetDiseases(targetDiseases)
+                        .build());
+        for (int i = 0; i < 10; i++) {
+            List<TermId> shuffled = new ArrayList<>(TERMS);
+            Collections.shuffle(shuffled, random);
+            AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN,
+                    shuffled.subList(0, 1 + random.nextInt(8)),
+                    shuffled.subList(10, 10 + random.nextInt(3)),
+                    GenesAndGenotypes.empty());
+
+            List<AnalysisResults> results = RUNNER.runWithOptions(data, variants);
+
+            assertThat(results, hasSize(variants.size()));
+            for (int v = 0; v < variants.size(); v++) {
+                AnalysisResults expected = RUNNER.run(data, variants.get(v));
+                List<TestResult> actual = results.get(v).resultsWithDescendingPostTestProbability().toList();
+                List<TestResult> expectedResults = expected.resultsWithDescendingPostTestProbability().toList();
+                assertThat(actual.stream().map(TestResult::diseaseId).toList(),
+                        equalTo(expectedResults.stream().map(TestResult::diseaseId).toList()));
+                assertThat(actual.stream().map(TestResult::posttestProbability).toList(),
+                        equalTo(expectedResults.stream().map(TestResult::posttestProbability).toList()));
+                assertThat(results.get(v).summary().evaluatedDiseaseCount(), equalTo(expected.summary().evaluatedDiseaseCount()));
+            }
+            assertThat(results.get(3).size(), lessThanOrEqualTo(targetDiseases.size()));
+        }
+    }
+
+    @Test
+    public void noOptionsVariants() throws Exception {
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 2), List.of(), GenesAndGenotypes.empty());
+
+        assertThat(RUNNER.runWithOptions(data, List.of()), is(empty()));
+    }
+
+    @Test
+    public void thresholdSweepMatchesTheResultsOfIndividualRuns() throws Exception {
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 4), TERMS.subList(6, 7), GenesAndGenotypes.empty());
+        AnalysisOptions options = options(3, true);
+        List<Float> thresholds = List.of(.5f, .8f, .95f);
+
+        List<AnalysisResults> results = RUNNER.runThresholdSweep(data, options, thresholds);
+
+        assertThat(AnalysisOptions.builder(options).build(), equalTo(options));
+        assertThat(results, hasSize(thresholds.size()));
+        for (int i = 0; i < thresholds.size(); i++) {
+            AnalysisOptions thresholdOptions = AnalysisOptions.builder(options)
+                    .variantDeleteriousnessThreshold(thresholds.get(i))
+                    .build();
+            AnalysisResults expected = RUNNER.run(data, thresholdOptions);
+            assertThat(results.get(i).resultsWithDescendingPostTestProbability().map(TestResult::diseaseId).toList(),
+                    equalTo(expected.resultsWithDescendingPostTestProbability().map(TestResult::diseaseId).toList()));
+            assertThat(results.get(i).summary(), equalTo(expected.summary()));
+        }
+    }
+
+    @Test
+    public void runAsyncMatchesRun() throws Exception {
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 4), TERMS.subList(6, 7), GenesAndGenotypes.empty());
+        AnalysisOptions options = options(3, true);
+
+        AnalysisResults actual = RUNNER.runAsync(data, options).get();
+
+        AnalysisResults expected = RUNNER.run(data, options);
+        assertThat(actual.resultsWithDescendingPostTestProbability().map(TestResult::diseaseId).toList(),
+                equalTo(expected.resultsWithDescendingPostTestProbability().map(TestResult::diseaseId).toList()));
+        assertThat(actual.summary(), equalTo(expected.summary()));
+    }
+
+    @Test
+    public void expiredTimeoutFailsTheAnalysis() {
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 4), List.of(), GenesAndGenotypes.empty());
+        AnalysisOptions options = AnalysisOptions.builder()
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .timeout(Duration.ofNanos(1))
+                .build();
+
+        LiricalAnalysisException e = assertThrows(LiricalAnalysisException.class, () -> RUNNER.run(data, options));
+        assertThat(e.getMessage(), equalTo("The analysis did not finish in PT0.000000001S"));
+
+        ExecutionException async = assertThrows(ExecutionException.class, () -> RUNNER.runAsync(data, options).get());
+        assertThat(async.getCause(), instanceOf(LiricalAnalysisException.class));
+    }
+
+    @Test
+    public void expiredTimeoutReturnsPartialResults() throws Exception {
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 4), List.of(), GenesAndGenotypes.empty());
+        AnalysisOptions options = AnalysisOptions.builder()
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .timeout(Duration.ofNanos(1))
+                .returnPartialResults(true)
+                .build();
+
+        AnalysisResults results = RUNNER.run(data, options);
+
+        AnalysisResults all = RUNNER.run(data, options(0, false));
+        assertThat(results.summary().evaluatedDiseaseCount(), lessThan(all.summary().evaluatedDiseaseCount()));
+        assertThat(results.size(), equalTo(results.summary().evaluatedDiseaseCount()));
+    }
+
+    @Test
+    public void cancelledAnalysisDoesNotAffectTheNextAnalysis() throws Exception {
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 4), List.of(), GenesAndGenotypes.empty());
+        AnalysisOptions options = options(0, false);
+
+        CompletableFuture<AnalysisResults> future = RUNNER.runAsync(data, options);
+        // The small analysis may finish before it is cancelled.
+        boolean cancelled = future.cancel(true);
+
+        assertThat(future.isCancelled(), is(cancelled));
+        if (cancelled)
+            assertThrows(CancellationException.class, future::get);
+        assertThat(RUNNER.run(data, options).size(), equalTo(RUNNER.runAsync(data, options).get().size()));
+    }
+
+    @Test
+    public void runnersShareThePoolWithPerRunParallelism() throws Exception {
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 4), TERMS.subList(6, 7), GenesAndGenotypes.empty());
+        AnalysisOptions options = AnalysisOptions.builder()
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .parallelism(1)
+                .build();
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            HpoAssociationData associationData = mock(HpoAssociationData.class, RETURNS_DEEP_STUBS);
+            when(associationData.associations().geneIdToDiseaseIds()).thenReturn(Map.of());
+            PhenotypeService phenotypeService = PhenotypeService.of(TestResources.hpo(), TestResources.hpoDiseases(), associationData);
+            LiricalOptions liricalOptions = new LiricalOptions(null, 1, 0, pool);
+            AnalysisResults first, second;
+            try (LiricalAnalysisRunnerImpl a = LiricalAnalysisRunnerImpl.of(phenotypeService, (genomeBuild, frequency) -> Optional.empty(), liricalOptions);
+                 LiricalAnalysisRunnerImpl b = LiricalAnalysisRunnerImpl.of(phenotypeService, (genomeBuild, frequency) -> Optional.empty(), liricalOptions)) {
+                CompletableFuture<AnalysisResults> future = a.runAsync(data, options);
+                second = b.run(data, options);
+                first = future.get();
+            }
+
+            AnalysisResults expected = RUNNER.run(data, options(0, false));
+            for (AnalysisResults actual : List.of(first, second))
+                assertThat(actual.resultsWithDescendingPostTestProbability().map(TestResult::posttestProbability).toList(),
+                        equalTo(expected.resultsWithDescendingPostTestProbability().map(TestResult::posttestProbability).toList()));
+            // Closing the runners must not shut down the shared pool.
+            assertThat(pool.isShutdown(), is(false));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void sampleWithGenesOfUnknownDiseasesIsScoredWithGenotypes(boolean useGlobal) throws Exception {
+        TermId geneId = TermId.of("NCBIGene:99");
+        HpoAssociationData associationData = mock(HpoAssociationData.class, RETURNS_DEEP_STUBS);
+        // The gene is only associated with a disease that is not present in the HPO diseases.
+        when(associationData.associations().geneIdToDiseaseIds()).thenReturn(Map.of(geneId, List.of(TermId.of("OMIM:000000"))));
+        PhenotypeService phenotypeService = PhenotypeService.of(TestResources.hpo(), TestResources.hpoDiseases(), associationData);
+        GenesAndGenotypes genes = GenesAndGenotypes.of(List.of("Sample"),
+                List.of(Gene2Genotype.of(GeneIdentifier.of(geneId, "GENE"), List.of(), 0)));
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 4), List.of(), genes);
+        AnalysisOptions options = AnalysisOptions.builder()
+                .genomeBuild(GenomeBuild.HG38)
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .includeDiseasesWithNoDeleteriousVariants(true)
+                .useGlobal(useGlobal)
+                .build();
+
+        AnalysisResults results;
+        try (LiricalAnalysisRunnerImpl runner = LiricalAnalysisRunnerImpl.of(phenotypeService,
+                (genomeBuild, frequency) -> Optional.of(BackgroundVariantFrequencyService.of(Map.of(), frequency)), 2)) {
+            results = runner.run(data, options);
+        }
+
+        // The sample has genotype data, hence the diseases with no associated genes are only retained in the global mode.
+        if (useGlobal) {
+            assertThat(results.size(), equalTo(RUNNER.run(data, options(0, false)).size()));
+            assertThat(results.resultsWithDescendingPostTestProbability().map(TestResult::genotypeLr).toList(),
+                    everyItem(equalTo(Optional.empty())));
+        } else {
+            assertThat(results.size(), equalTo(0));
+        }
+    }
+
+    @Test
+    public void thresholdSweepWithGenotypesMatchesTheResultsOfIndividualRuns() throws Exception {
+        // Each gene is associated with two diseases, and its variants have the pathogenicities around the thresholds.
+        List<TermId> diseaseIds = TestResources.hpoDiseases().diseaseIds().stream().sorted().toList();
+        float[][] pathogenicities = {{.3f, .6f}, {.85f, .9f, .97f}, {.55f, .99f}};
+        Map<TermId, Collection<TermId>> geneToDiseases = new HashMap<>();
+        List<Gene2Genotype> genes = new ArrayList<>();
+        for (int g = 0; g < pathogenicities.length; g++) {
+            TermId geneId = TermId.of("NCBIGene:" + (g + 1));
+            geneToDiseases.put(geneId, List.of(diseaseIds.get(g % diseaseIds.size()), diseaseIds.get((g + 1) % diseaseIds.size())));
+            List<LiricalVariant> variants = new ArrayList<>();
+            for (int v = 0; v < pathogenicities[g].length; v++)
+                variants.add(variant(100 * (g + 1) + v, VariantMetadata.of(.001f, pathogenicities[g][v], null)));
+            genes.add(Gene2Genotype.of(GeneIdentifier.of(geneId, "GENE" + (g + 1)), variants, 0));
+        }
+        HpoAssociationData associationData = mock(HpoAssociationData.class, RETURNS_DEEP_STUBS);
+        when(associationData.associations().geneIdToDiseaseIds()).thenReturn(geneToDiseases);
+        PhenotypeService phenotypeService = PhenotypeService.of(TestResources.hpo(), TestResources.hpoDiseases(), associationData);
+        AnalysisData data = AnalysisData.of("Sample", null, Sex.UNKNOWN, TERMS.subList(0, 4), List.of(),
+                GenesAndGenotypes.of(List.of("Sample"), genes));
+        AnalysisOptions options = AnalysisOptions.builder()
+                .genomeBuild(GenomeBuild.HG38)
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .build();
+        List<Float> thresholds = List.of(.5f, .8f, .95f, .5f);
+
+        try (LiricalAnalysisRunnerImpl runner = LiricalAnalysisRunnerImpl.of(phenotypeService,
+                (genomeBuild, frequency) -> Optional.of(BackgroundVariantFrequencyService.of(Map.of(), frequency)), 2)) {
+            List<AnalysisResults> results = runner.runThresholdSweep(data, options, thresholds);
+
+            assertThat(results, hasSize(thresholds.size()));
+            for (int i = 0; i < thresholds.size(); i++) {
+                AnalysisResults expected = runner.run(data, AnalysisOptions.builder(options)
+                        .variantDeleteriousnessThreshold(thresholds.get(i))
+                        .build());
+                assertThat(results.get(i).size(), greaterThan(0));
+                assertThat(results.get(i).resultsWithDescendingPostTestProbability().map(TestResult::diseaseId).toList(),
+                        equalTo(expected.resultsWithDescendingPostTestProbability().map(TestResult::diseaseId).toList()));
+                assertThat(results.get(i).resultsWithDescendingPostTestProbability().map(TestResult::posttestProbability).toList(),
+                        equalTo(expected.resultsWithDescendingPostTestProbability().map(TestResult::posttestProbability).toList()));
+                assertThat(results.get(i).summary(), equalTo(expected.summary()));
+            }
+        }
+    }
+
+    private static LiricalVariant variant(int pos, VariantMetadata metadata) {
+        return LiricalVariant.of(
+                GenotypedVariant.of(GenomeBuild.HG38,
+                        GenomicVariant.of(GenomicAssemblies.GRCh38p13().contigByName("1"), "SNP" + pos,
+                                Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos,
+                                "C", "G"),
+                        List.of(SampleAlleleCount.of("Sample", AlleleCount.zeroOne())),
+                        true),
+                List.of(), metadata);
+    }
+
+    private static AnalysisOptions options(int topResultCount, boolean useUpperBoundPruning) {
+        return AnalysisOptions.builder()
+                .pretestProbability(PretestDiseaseProbabilities.uniform(TestResources.hpoDiseases().diseaseIds()))
+                .topResultCount(topResultCount)
+                .useUpperBoundPruning(useUpperBoundPruning)
+                .build();
+    }
+}
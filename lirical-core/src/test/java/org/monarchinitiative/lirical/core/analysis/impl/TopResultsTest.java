@@ -0,0 +1,69 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.monarchinitiative.lirical.core.analysis.TestResult;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TopResultsTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 100, 1_000, 5_000})
+    public void retainsTheSameResultsAsStableSort(int capacity) {
+        List<TestResult> results = randomResults(2_000);
+
+        // Fill the containers of uneven shares of the results, as the workers do, and merge them.
+        TopResults topResults = null;
+        int start = 0;
+        for (int share : new int[]{1, 499, 300, 700, 500}) {
+            TopResults part = new TopResults(capacity);
+            for (int i = start; i < start + share; i++)
+                part.add(new TopResults.RankedResult(i, results.get(i)));
+            topResults = topResults == null ? part : topResults.merge(part);
+            start += share;
+        }
+
+        List<TestResult> expected = results.stream()
+                .sorted(Comparator.comparingDouble(TestResult::posttestProbability).reversed())
+                .limit(capacity)
+                .toList();
+        assertThat(topResults.results(), equalTo(expected));
+        assertThat(topResults.discardedCount(), equalTo(Math.max(0, results.size() - capacity)));
+    }
+
+    @Test
+    public void emptyContainer() {
+        TopResults topResults = new TopResults(10);
+
+        assertThat(topResults.results(), is(empty()));
+        assertThat(topResults.discardedCount(), equalTo(0));
+    }
+
+    @Test
+    public void capacityMustBePositive() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new TopResults(0));
+        assertThat(e.getMessage(), equalTo("Capacity 0 must be greater than 0"));
+    }
+
+    private static List<TestResult> randomResults(int count) {
+        Random random = new Random(13);
+        // Few distinct probabilities to have many ties.
+        return IntStream.range(0, count)
+                .mapToObj(i -> TestResult.of(TermId.of("OMIM:%06d".formatted(i)),
+                        random.nextInt(50) / 100.,
+                        List.of(),
+                        List.of(),
+                        null))
+                .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package org.monarchinitiative.lirical.core.analysis.impl;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.lirical.core.analysis.TestResult;
+import org.monarchinitiative.lirical.core.likelihoodratio.CompiledDisease;
+import org.monarchinitiative.lirical.core.likelihoodratio.LrWithExplanation;
+import org.monarchinitiative.lirical.core.likelihoodratio.PhenotypeLikelihoodRatio;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class UpperBoundPruningTest {
+
+    private static final List<TermId> OBSERVED = List.of(TermId.of("HP:0000028"), TermId.of("HP:0001265"), TermId.of("HP:0000185"));
+    private static final List<TermId> EXCLUDED = List.of(TermId.of("HP:0000047"));
+
+    private static PhenotypeLikelihoodRatio PHENOTYPE_LR;
+    private static CompiledDisease DISEASE;
+
+    @BeforeAll
+    public static void setUp() {
+        PHENOTYPE_LR = new PhenotypeLikelihoodRatio(TestResources.hpo(), TestResources.hpoDiseases());
+        DISEASE = PHENOTYPE_LR.compileDisease(TestResources.hpoDiseases().diseaseById().get(TermId.of("OMIM:216300")));
+    }
+
+    @Test
+    public void evaluateWithoutThreshold() {
+        UpperBoundPruning pruning = UpperBoundPruning.of(PHENOTYPE_LR, OBSERVED, EXCLUDED);
+
+        Optional<TestResult> result = pruning.evaluate(DISEASE, .1, null);
+
+        assertThat(result.isPresent(), equalTo(true));
+        assertThat(result.get().observedTerms(), equalTo(OBSERVED));
+        List<Double> expected = OBSERVED.stream()
+                .map(term -> PHENOTYPE_LR.lrForObservedTerm(term, DISEASE))
+                .map(LrWithExplanation::lr)
+                .toList();
+        assertThat(result.get().observedResults().stream().map(LrWithExplanation::lr).toList(), equalTo(expected));
+        assertThat(result.get().excludedTerms(), equalTo(EXCLUDED));
+        assertThat(pruning.prunedDiseaseCount(), equalTo(0L));
+    }
+
+    @Test
+    public void pruneDiseaseThatCannotReachThreshold() {
+        UpperBoundPruning pruning = UpperBoundPruning.of(PHENOTYPE_LR, OBSERVED, EXCLUDED);
+        pruning.raiseThreshold(1.);
+
+        Optional<TestResult> result = pruning.evaluate(DISEASE, .1, null);
+
+        assertThat(result.isEmpty(), equalTo(true));
+        assertThat(pruning.prunedDiseaseCount(), equalTo(1L));
+    }
+}
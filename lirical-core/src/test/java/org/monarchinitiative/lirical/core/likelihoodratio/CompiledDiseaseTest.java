@@ -0,0 +1,88 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.phenol.annotations.base.Ratio;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseaseAnnotation;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseaseAnnotationRecord;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompiledDiseaseTest {
+
+    private static final TermId LOW_SET_EARS = TermId.of("HP:0000369");
+    private static final TermId DEPRESSED_NASAL_TIP = TermId.of("HP:0000437");
+    private static final double ERROR = 1E-12;
+
+    private static TermIndex TERM_INDEX;
+    private static CompiledDisease DISEASE;
+
+    @BeforeAll
+    public static void setUp() {
+        TERM_INDEX = TermIndex.of(TestResources.hpo());
+        HpoDisease disease = HpoDisease.of(TermId.of("OMIM:123456"), "Example disease", null,
+                List.of(annotation(LOW_SET_EARS, Ratio.of(1, 2)), annotation(DEPRESSED_NASAL_TIP, Ratio.of(0, 5))),
+                List.of());
+        DISEASE = CompiledDisease.of(disease, TERM_INDEX, 0);
+    }
+
+    private static HpoDiseaseAnnotation annotation(TermId termId, Ratio ratio) {
+        return HpoDiseaseAnnotation.of(termId, List.of(HpoDiseaseAnnotationRecord.of(ratio, null, List.of(), null, List.of())));
+    }
+
+    @Test
+    public void annotations() {
+        assertThat(DISEASE.annotationCount(), equalTo(2));
+
+        int lowSetEars = DISEASE.firstAnnotationOf(TERM_INDEX.indexOf(LOW_SET_EARS));
+        assertThat(DISEASE.annotationId(lowSetEars), equalTo(LOW_SET_EARS));
+        assertThat((double) DISEASE.annotationFrequency(lowSetEars), closeTo(.5, ERROR));
+
+        assertThat(DISEASE.firstAnnotationOf(TERM_INDEX.indexOf(TermId.of("HP:0000356"))), equalTo(-1));
+        assertThat(DISEASE.presentTerms(), equalTo(new int[]{TERM_INDEX.indexOf(LOW_SET_EARS)}));
+        assertThat(DISEASE.absentTerms(), equalTo(new int[]{TERM_INDEX.indexOf(DEPRESSED_NASAL_TIP)}));
+        assertThat(DISEASE.maximumFrequency(), closeTo(.5, ERROR));
+    }
+
+    @Test
+    public void isExactExcludedMatch() {
+        assertThat(isExactExcludedMatch("HP:0000437"), is(true)); // Depressed nasal tip
+        assertThat(isExactExcludedMatch("HP:0000436"), is(true)); // Abnormality of the nasal tip
+        assertThat(isExactExcludedMatch("HP:0000271"), is(true)); // Abnormality of the face
+        assertThat(isExactExcludedMatch("HP:0000118"), is(true)); // Phenotypic abnormality
+
+        assertThat(isExactExcludedMatch("HP:0000369"), is(false)); // Low-set ears
+        assertThat(isExactExcludedMatch("HP:0000478"), is(false)); // Abnormality of the eye
+        assertThat(DISEASE.isExactExcludedMatch(-1), is(false));
+    }
+
+    private static boolean isExactExcludedMatch(String termId) {
+        return DISEASE.isExactExcludedMatch(TERM_INDEX.indexOf(TermId.of(termId)));
+    }
+
+    @Test
+    public void inducedFrequencies() {
+        assertThat(inducedFrequency("HP:0000357"), closeTo(.05, ERROR)); // Abnormal location of ears
+        assertThat(inducedFrequency("HP:0000356"), closeTo(.005, ERROR)); // Abnormality of the outer ear
+        assertThat(inducedFrequency("HP:0031703"), closeTo(.0005, ERROR)); // Abnormal ear morphology
+        // The ancestors of the absent annotation are induced with zero frequency.
+        assertThat(inducedFrequency("HP:0000436"), closeTo(0., ERROR)); // Abnormality of the nasal tip
+
+        // The annotated terms and the terms above Phenotypic abnormality are not induced.
+        assertThat(DISEASE.inducedTermPosition(TERM_INDEX.indexOf(LOW_SET_EARS)), lessThan(0));
+        assertThat(DISEASE.inducedTermPosition(TERM_INDEX.indexOf(TermId.of("HP:0000118"))), lessThan(0));
+        assertThat(DISEASE.inducedTermPosition(TERM_INDEX.indexOf(TermId.of("HP:0000001"))), lessThan(0));
+    }
+
+    private static double inducedFrequency(String termId) {
+        int position = DISEASE.inducedTermPosition(TERM_INDEX.indexOf(TermId.of(termId)));
+        assertThat(position, greaterThanOrEqualTo(0));
+        return DISEASE.inducedFrequency(position);
+    }
+}
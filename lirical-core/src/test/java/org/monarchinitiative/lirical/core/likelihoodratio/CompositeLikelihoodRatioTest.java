@@ -0,0 +1,56 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompositeLikelihoodRatioTest {
+
+    @Test
+    public void product() {
+        assertThat(CompositeLikelihoodRatio.product(new double[]{}), equalTo(1.));
+        assertThat(CompositeLikelihoodRatio.product(new double[]{2., .5, 10.}), equalTo(10.));
+    }
+
+    @Test
+    public void sumOfLogs() {
+        assertThat(CompositeLikelihoodRatio.sumOfLogs(new double[]{}), equalTo(0.));
+        assertThat(CompositeLikelihoodRatio.sumOfLogs(new double[]{2., .5, 10.}), closeTo(Math.log(10.), 1E-12));
+    }
+
+    @Test
+    public void isOutOfRange() {
+        assertThat(CompositeLikelihoodRatio.isOutOfRange(1E-300), equalTo(false));
+        assertThat(CompositeLikelihoodRatio.isOutOfRange(-2.), equalTo(false));
+        assertThat(CompositeLikelihoodRatio.isOutOfRange(0.), equalTo(true));
+        assertThat(CompositeLikelihoodRatio.isOutOfRange(Double.MIN_VALUE), equalTo(true));
+        assertThat(CompositeLikelihoodRatio.isOutOfRange(Double.POSITIVE_INFINITY), equalTo(true));
+        assertThat(CompositeLikelihoodRatio.isOutOfRange(Double.NaN), equalTo(true));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0.025,   20.",
+            "0.001,   1E-5",
+            "0.5,     1E6",
+            "0.00001, 3.",
+    })
+    public void posttestProbabilityMatchesTheLinearCalculation(double pretestProbability, double lr) {
+        double posttestOdds = pretestProbability / (1. - pretestProbability) * lr;
+
+        double posttestProbability = CompositeLikelihoodRatio.posttestProbability(pretestProbability, Math.log(lr));
+
+        assertThat(posttestProbability, closeTo(posttestOdds / (1. + posttestOdds), 1E-12));
+    }
+
+    @Test
+    public void posttestProbabilityOfExtremeLikelihoodRatios() {
+        assertThat(CompositeLikelihoodRatio.posttestProbability(.5, 1_000.), equalTo(1.));
+        assertThat(CompositeLikelihoodRatio.posttestProbability(.5, -1_000.), equalTo(0.));
+        // The posttest odds of the log LR -710 are about 4.5E-309, which is subnormal but still greater than 0.
+        assertThat(CompositeLikelihoodRatio.posttestProbability(.5, -710.), greaterThan(0.));
+    }
+}
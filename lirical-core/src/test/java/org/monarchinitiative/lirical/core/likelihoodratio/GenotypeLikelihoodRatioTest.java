@@ -15,6 +15,7 @@ import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.*;
 import static org.monarchinitiative.phenol.annotations.constants.hpo.HpoModeOfInheritanceTermIds.AUTOSOMAL_DOMINANT;
 import static org.monarchinitiative.phenol.annotations.constants.hpo.HpoModeOfInheritanceTermIds.AUTOSOMAL_RECESSIVE;
+import static org.monarchinitiative.phenol.annotations.constants.hpo.HpoModeOfInheritanceTermIds.X_LINKED_RECESSIVE;
 
 public class GenotypeLikelihoodRatioTest {
 
@@ -126,4 +127,27 @@ public class GenotypeLikelihoodRatioTest {
         assertThat(gle.lr(), is(closeTo(1.719420800179587e109, EPSILON)));
         assertThat(gle.explanation(), equalTo("log<sub>10</sub>(LR)=109.235 P(G|D)=0.0000. P(G|&#172;D)=0.0000.  Mode of inheritance: autosomal recessive. Observed weighted deleterious variant count: 44.80. &lambda;<sub>disease</sub>=2. &lambda;<sub>background</sub>=0.0070."));
     }
+
+    @Test
+    public void preparedInheritanceModes() {
+        InheritanceModes modes = InheritanceModes.of(List.of(AUTOSOMAL_DOMINANT, X_LINKED_RECESSIVE, AUTOSOMAL_RECESSIVE));
+        assertThat(modes.hasAutosomalRecessive(), equalTo(true));
+        assertThat(List.of(modes.isRecessive(0), modes.isRecessive(1), modes.isRecessive(2)), equalTo(List.of(false, true, true)));
+
+        Gene2Genotype g2g = mock(Gene2Genotype.class);
+        when(g2g.geneId()).thenReturn(MADE_UP_GENE);
+        when(g2g.hasVariants()).thenReturn(true);
+        when(g2g.pathogenicClinVarCount(SAMPLE_ID)).thenReturn(0);
+        when(g2g.deleteriousAlleleCount(SAMPLE_ID, PATHOGENICITY_THRESHOLD)).thenReturn(2);
+        when(g2g.getSumOfPathBinScores(SAMPLE_ID, PATHOGENICITY_THRESHOLD)).thenReturn(1.8);
+        GenotypeLikelihoodRatio glr = new GenotypeLikelihoodRatio(BackgroundVariantFrequencyService.of(Map.of(), 0.1), OPTIONS);
+
+        GenotypeLrWithExplanation gle = glr.evaluateGenotype(SAMPLE_ID, g2g, modes);
+
+        GenotypeLrWithExplanation expected = glr.evaluateGenotype(SAMPLE_ID, g2g, modes.modes());
+        assertThat(gle.lr(), equalTo(expected.lr()));
+        // The first of the recessive modes explains the count close to lambda-disease of 2 best.
+        assertThat(gle.explanation(), equalTo(expected.explanation()));
+        assertThat(gle.explanation(), containsString("X-chromosomal recessive"));
+    }
 }
@@ -0,0 +1,53 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.phenol.ontology.data.Term;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LrWithExplanationFactoryTest {
+
+    private static final TermId CRYPTORCHIDISM = TermId.of("HP:0000028");
+    private static final TermId UNKNOWN = TermId.of("HP:1234567");
+
+    private static LrWithExplanationFactory FACTORY;
+
+    @BeforeAll
+    public static void setUp() {
+        FACTORY = new LrWithExplanationFactory(TestResources.hpo());
+    }
+
+    @Test
+    public void createExplanationOnRequest() {
+        String name = TestResources.hpo().termForTermId(CRYPTORCHIDISM).map(Term::getName).orElseThrow();
+
+        LrWithExplanation lr = FACTORY.create(CRYPTORCHIDISM, LrMatchType.EXACT_MATCH, 100.);
+
+        assertThat(lr.queryTerm(), equalTo(CRYPTORCHIDISM));
+        assertThat(lr.matchingTerm(), equalTo(CRYPTORCHIDISM));
+        assertThat(lr.lr(), equalTo(100.));
+        String explanation = lr.explanation();
+        assertThat(explanation, equalTo("E:%s[HP:0000028][2.000]".formatted(name)));
+        // The explanation is created once.
+        assertThat(lr.explanation(), sameInstance(explanation));
+    }
+
+    @Test
+    public void explanationOfUnknownTerms() {
+        LrWithExplanation lr = FACTORY.create(UNKNOWN, CRYPTORCHIDISM, LrMatchType.QUERY_TERM_SUBCLASS_OF_DISEASE_TERM, .1);
+
+        assertThat(lr.explanation(), startsWith("Q<D:UNKNOWN[HP:1234567]<"));
+        assertThat(lr.escapedExplanation(), startsWith("Q&lt;D:UNKNOWN[HP:1234567]&lt;"));
+    }
+
+    @Test
+    public void explanationProvidedUpfront() {
+        LrWithExplanation lr = LrWithExplanation.of(CRYPTORCHIDISM, CRYPTORCHIDISM, LrMatchType.EXACT_MATCH, 1., "Explanation");
+
+        assertThat(lr.explanation(), equalTo("Explanation"));
+    }
+}
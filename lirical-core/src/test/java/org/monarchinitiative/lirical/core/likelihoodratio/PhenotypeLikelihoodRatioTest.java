@@ -4,13 +4,18 @@ package org.monarchinitiative.lirical.core.likelihoodratio;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.phenol.annotations.base.Ratio;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseaseAnnotation;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseaseAnnotationRecord;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseases;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
-import java.util.Map;
+import java.util.*;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -88,6 +93,94 @@ public class PhenotypeLikelihoodRatioTest {
         assertEquals(expected,  frq,EPSILON);
     }
 
+    @Test
+    public void upperBoundsAreNotLessThanLikelihoodRatios() {
+        for (HpoDisease disease : hpoDiseases) {
+            CompiledDisease compiled = phenotypeLrCalculator.compileDisease(disease);
+            for (TermId query : TestResources.hpo().nonObsoleteTermIds()) {
+                double observed = phenotypeLrCalculator.lrForObservedTerm(query, compiled).lr();
+                assertThat(query.getValue(), phenotypeLrCalculator.observedTermUpperBound(query).lr(compiled), greaterThanOrEqualTo(observed));
+
+                double excluded = phenotypeLrCalculator.lrForExcludedTerm(query, compiled).lr();
+                assertThat(query.getValue(), phenotypeLrCalculator.excludedTermUpperBound(query).lr(compiled), greaterThanOrEqualTo(excluded));
+            }
+        }
+    }
+
+    /**
+     * The frequencies are summed in the order of the diseases, as in a single-threaded loop over the diseases,
+     * hence they are exactly the same for any number of the diseases and the workers.
+     */
+    @Test
+    public void backgroundFrequenciesAreSummedInTheOrderOfTheDiseases() {
+        List<TermId> terms = new ArrayList<>();
+        TestResources.hpo().nonObsoleteTermIds().forEach(terms::add);
+        terms.sort(Comparator.naturalOrder());
+        Random random = new Random(17);
+        List<HpoDisease> diseases = new ArrayList<>();
+        for (int i = 0; i < 1_500; i++) {
+            List<HpoDiseaseAnnotation> annotations = new ArrayList<>();
+            for (int a = 0; a < 1 + random.nextInt(8); a++) {
+                // The frequencies are floats, and their sums are exact regardless of the order unless
+                // the tiny frequencies are added to the large sums.
+                int denominator = random.nextBoolean() ? 1 + random.nextInt(97) : 1_000_000 + random.nextInt(1_000_000_000);
+                Ratio ratio = Ratio.of(1 + random.nextInt(Math.min(denominator, 97)), denominator);
+                annotations.add(HpoDiseaseAnnotation.of(terms.get(random.nextInt(terms.size())),
+                        List.of(HpoDiseaseAnnotationRecord.of(ratio, null, List.of(), null, List.of()))));
+            }
+            diseases.add(HpoDisease.of(TermId.of("OMIM:%06d".formatted(i)), "Disease " + i, null, annotations, List.of()));
+        }
+
+        PhenotypeLikelihoodRatio evaluator = new PhenotypeLikelihoodRatio(TestResources.hpo(), HpoDiseases.of(diseases));
+
+        Map<TermId, Double> expected = sequentialBackgroundFrequencies(diseases);
+        for (TermId term : terms)
+            assertThat(term.getValue(), evaluator.getBackgroundFrequency(term), equalTo(Math.max(expected.get(term), 1. / 10_000)));
+    }
 
+    /**
+     * Sum the frequencies of the terms disease by disease, in a single thread.
+     */
+    private static Map<TermId, Double> sequentialBackgroundFrequencies(List<HpoDisease> diseases) {
+        Map<TermId, Double> sums = new HashMap<>();
+        TestResources.hpo().nonObsoleteTermIds().forEach(term -> sums.put(term, 0.));
+        for (HpoDisease disease : diseases) {
+            Map<TermId, Double> maxFrequencies = new HashMap<>();
+            for (HpoDiseaseAnnotation annotation : disease.annotations()) {
+                double frequency = annotation.frequency();
+                TestResources.hpo().graph().getAncestorsStream(annotation.id(), true)
+                        .forEach(term -> maxFrequencies.merge(term, frequency, Math::max));
+            }
+            maxFrequencies.forEach((term, frequency) -> sums.merge(term, frequency, Double::sum));
+        }
+        sums.replaceAll((term, sum) -> sum / diseases.size());
+        return sums;
+    }
+
+    @Test
+    public void selectTransposesTheLikelihoodRatios() {
+        List<TermId> queryTerms = new ArrayList<>();
+        TestResources.hpo().nonObsoleteTermIds().forEach(queryTerms::add);
+        List<PhenotypeLrList> rows = new ArrayList<>();
+        for (HpoDisease disease : hpoDiseases)
+            rows.add(phenotypeLrCalculator.lrsForObservedTerms(queryTerms, phenotypeLrCalculator.compileDisease(disease)));
+        // The lists other than `PhenotypeLrList`s are copied element by element.
+        List<List<LrWithExplanation>> copies = rows.stream().<List<LrWithExplanation>>map(List::copyOf).toList();
+
+        List<PhenotypeLrList> columns = new ArrayList<>();
+        for (int t = 0; t < queryTerms.size(); t++) {
+            PhenotypeLrList column = phenotypeLrCalculator.select(rows, t);
+            assertThat(describe(column), equalTo(describe(phenotypeLrCalculator.select(copies, t))));
+            columns.add(column);
+        }
+        for (int d = 0; d < rows.size(); d++)
+            assertThat(describe(phenotypeLrCalculator.select(columns, d)), equalTo(describe(rows.get(d))));
+    }
+
+    private static List<String> describe(List<LrWithExplanation> lrs) {
+        return lrs.stream()
+                .map(lr -> "%s %s %s %s %s".formatted(lr.queryTerm(), lr.matchingTerm(), lr.matchType(), lr.lr(), lr.explanation()))
+                .toList();
+    }
 
-}
\ No newline at end of file
+}
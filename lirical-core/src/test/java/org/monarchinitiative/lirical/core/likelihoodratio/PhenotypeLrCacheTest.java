@@ -0,0 +1,101 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseases;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PhenotypeLrCacheTest {
+
+    private static final LrWithExplanation LR = LrWithExplanation.of(TermId.of("HP:0000028"), null, LrMatchType.EXACT_MATCH, 2., "");
+
+    @Test
+    public void getAndPut() {
+        PhenotypeLrCache cache = PhenotypeLrCache.of(100);
+
+        assertThat(cache.get(1L), is(nullValue()));
+        cache.put(1L, LR);
+        assertThat(cache.get(1L), is(sameInstance(LR)));
+
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.hitCount(), equalTo(1L));
+        assertThat(cache.missCount(), equalTo(1L));
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        PhenotypeLrCache cache = PhenotypeLrCache.of(32);
+
+        for (long key = 0; key < 1_000; key++)
+            cache.put(key, LR);
+
+        assertThat(cache.size(), lessThanOrEqualTo(32));
+    }
+
+    @Test
+    public void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> PhenotypeLrCache.of(0));
+    }
+
+    @Test
+    public void cachedLikelihoodRatiosMatchTheComputedOnes() {
+        HpoDiseases diseases = TestResources.hpoDiseases();
+        PhenotypeLikelihoodRatio uncached = new PhenotypeLikelihoodRatio(TestResources.hpo(), diseases);
+        PhenotypeLikelihoodRatio cached = new PhenotypeLikelihoodRatio(TestResources.hpo(), diseases, 1_000);
+        List<TermId> terms = List.of(TermId.of("HP:0000028"), TermId.of("HP:0000047"), TermId.of("HP:0000035"),
+                TermId.of("HP:0000478"), TermId.of("HP:0001263"));
+
+        List<HpoDisease> diseaseList = diseases.hpoDiseases().toList();
+        List<CompiledDisease> compiledDiseases = IntStream.range(0, diseaseList.size())
+                .mapToObj(ordinal -> cached.compileDisease(diseaseList.get(ordinal), ordinal))
+                .toList();
+
+        for (int round = 0; round < 2; round++) {
+            for (CompiledDisease compiled : compiledDiseases) {
+                CompiledDisease reference = uncached.compileDisease(compiled.disease());
+                for (TermId term : terms) {
+                    assertThat(cached.lrForObservedTerm(term, compiled).lr(), equalTo(uncached.lrForObservedTerm(term, reference).lr()));
+                    assertThat(cached.lrForExcludedTerm(term, compiled).lr(), equalTo(uncached.lrForExcludedTerm(term, reference).lr()));
+                }
+            }
+        }
+
+        PhenotypeLrCache cache = cached.cache().orElseThrow();
+        // The second round is served from the cache.
+        assertThat(cache.missCount(), equalTo(2L * terms.size() * diseases.size()));
+        assertThat(cache.hitCount(), equalTo(cache.missCount()));
+        assertThat(uncached.cache().isEmpty(), is(true));
+    }
+
+    @Test
+    public void diseasesWithoutOrdinalAreNotCached() {
+        HpoDiseases diseases = TestResources.hpoDiseases();
+        PhenotypeLikelihoodRatio cached = new PhenotypeLikelihoodRatio(TestResources.hpo(), diseases, 1_000);
+        TermId term = TermId.of("HP:0000028");
+
+        for (int round = 0; round < 2; round++) {
+            CompiledDisease compiled = cached.compileDisease(diseases.hpoDiseases().findFirst().orElseThrow());
+            cached.lrForObservedTerm(term, compiled);
+        }
+
+        PhenotypeLrCache cache = cached.cache().orElseThrow();
+        assertThat(cache.size(), equalTo(0));
+        assertThat(cache.missCount(), equalTo(0L));
+    }
+
+    @Test
+    public void invalidOrdinal() {
+        HpoDiseases diseases = TestResources.hpoDiseases();
+        PhenotypeLikelihoodRatio cached = new PhenotypeLikelihoodRatio(TestResources.hpo(), diseases, 1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> cached.compileDisease(diseases.hpoDiseases().findFirst().orElseThrow(), -2));
+    }
+}
@@ -0,0 +1,80 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.lirical.core.analysis.TestResult;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PhenotypeLrListTest {
+
+    private static final List<TermId> TERMS = List.of(TermId.of("HP:0000028"), TermId.of("HP:0000047"),
+            TermId.of("HP:0000035"), TermId.of("HP:0000478"), TermId.of("HP:0001263"), TermId.of("HP:1234567"));
+
+    private static PhenotypeLikelihoodRatio PHENOTYPE_LR;
+    private static List<CompiledDisease> DISEASES;
+
+    @BeforeAll
+    public static void setUp() {
+        PHENOTYPE_LR = new PhenotypeLikelihoodRatio(TestResources.hpo(), TestResources.hpoDiseases());
+        DISEASES = TestResources.hpoDiseases().hpoDiseases().map(PHENOTYPE_LR::compileDisease).toList();
+    }
+
+    @Test
+    public void elementsMatchTheLikelihoodRatiosOfIndividualTerms() {
+        for (CompiledDisease disease : DISEASES) {
+            PhenotypeLrList observed = PHENOTYPE_LR.lrsForObservedTerms(TERMS, disease);
+            PhenotypeLrList excluded = PHENOTYPE_LR.lrsForExcludedTerms(TERMS, disease);
+
+            assertThat(observed.queryTerms(), equalTo(TERMS));
+            for (int i = 0; i < TERMS.size(); i++) {
+                assertSameLr(observed.get(i), PHENOTYPE_LR.lrForObservedTerm(TERMS.get(i), disease));
+                assertSameLr(excluded.get(i), PHENOTYPE_LR.lrForExcludedTerm(TERMS.get(i), disease));
+                assertThat(observed.lr(i), equalTo(observed.get(i).lr()));
+                assertThat(observed.matchType(i), equalTo(observed.get(i).matchType()));
+                assertThat(observed.matchingTerm(i), equalTo(observed.get(i).matchingTerm()));
+            }
+        }
+    }
+
+    @Test
+    public void testResultIsTheSameAsWithListOfLikelihoodRatios() {
+        for (CompiledDisease disease : DISEASES) {
+            PhenotypeLrList observed = PHENOTYPE_LR.lrsForObservedTerms(TERMS, disease);
+            PhenotypeLrList excluded = PHENOTYPE_LR.lrsForExcludedTerms(TERMS.subList(0, 2), disease);
+
+            TestResult compact = TestResult.of(disease.id(), .1, observed, excluded, null);
+            TestResult expanded = TestResult.of(disease.id(), .1, new ArrayList<>(observed), new ArrayList<>(excluded), null);
+
+            assertThat(compact.getCompositeLR(), equalTo(expanded.getCompositeLR()));
+            assertThat(compact.posttestProbability(), equalTo(expanded.posttestProbability()));
+            assertThat(compact.getMaximumIndividualLR(), equalTo(expanded.getMaximumIndividualLR()));
+            assertThat(compact.observedTerms(), equalTo(expanded.observedTerms()));
+            assertThat(compact.excludedTerms(), equalTo(expanded.excludedTerms()));
+            assertThat(compact.getExcludedPhenotypeRatio(1), equalTo(expanded.getExcludedPhenotypeRatio(1)));
+        }
+    }
+
+    @Test
+    public void emptyList() {
+        PhenotypeLrList lrs = PHENOTYPE_LR.lrsForObservedTerms(List.of(), DISEASES.get(0));
+
+        assertThat(lrs, is(empty()));
+        assertThat(lrs.lrProduct(), equalTo(1.));
+        assertThat(lrs.maximumAbsoluteLr(), equalTo(0.));
+    }
+
+    private static void assertSameLr(LrWithExplanation actual, LrWithExplanation expected) {
+        assertThat(actual.queryTerm(), equalTo(expected.queryTerm()));
+        assertThat(actual.matchingTerm(), equalTo(expected.matchingTerm()));
+        assertThat(actual.matchType(), equalTo(expected.matchType()));
+        assertThat(actual.lr(), equalTo(expected.lr()));
+        assertThat(actual.explanation(), equalTo(expected.explanation()));
+    }
+}
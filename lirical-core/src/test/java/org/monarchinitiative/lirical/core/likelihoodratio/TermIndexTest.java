@@ -0,0 +1,73 @@
+package org.monarchinitiative.lirical.core.likelihoodratio;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.lirical.core.TestResources;
+import org.monarchinitiative.phenol.ontology.data.MinimalOntology;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TermIndexTest {
+
+    private static final MinimalOntology HPO = TestResources.hpo();
+    private static TermIndex INDEX;
+
+    @BeforeAll
+    public static void setUp() {
+        INDEX = TermIndex.of(HPO);
+    }
+
+    @Test
+    public void indexOf() {
+        int phenotypicAbnormality = INDEX.indexOf(TermId.of("HP:0000118"));
+
+        assertThat(phenotypicAbnormality, greaterThanOrEqualTo(0));
+        assertThat(INDEX.termId(phenotypicAbnormality), equalTo(TermId.of("HP:0000118")));
+        assertThat(INDEX.indexOf(TermId.of("HP:1234567")), equalTo(-1));
+    }
+
+    @Test
+    public void parentsAreIndexedBeforeChildren() {
+        for (int i = 0; i < INDEX.size(); i++) {
+            for (TermId parent : HPO.graph().getParents(INDEX.termId(i)))
+                assertThat(INDEX.indexOf(parent), lessThan(i));
+        }
+    }
+
+    @Test
+    public void ancestorQueriesAgreeWithOntologyGraph() {
+        List<TermId> terms = new ArrayList<>();
+        HPO.graph().forEach(terms::add);
+
+        for (TermId a : terms) {
+            int ai = INDEX.indexOf(a);
+            for (TermId d : terms) {
+                int di = INDEX.indexOf(d);
+                boolean expected = HPO.graph().isAncestorOf(a, d);
+                assertThat(a + " -> " + d, INDEX.isAncestorOf(ai, di), equalTo(expected));
+                assertThat(a + " -> " + d, INDEX.isAncestorOrSelf(ai, di), equalTo(expected || a.equals(d)));
+                assertThat(a + " -> " + d, INDEX.isParentOf(ai, di), equalTo(HPO.graph().getParents(d).contains(a)));
+            }
+        }
+    }
+
+    @Test
+    public void childCount() {
+        for (int i = 0; i < INDEX.size(); i++)
+            assertThat(INDEX.childCount(i), equalTo(HPO.graph().getChildren(INDEX.termId(i)).size()));
+    }
+
+    @Test
+    public void unknownTermIsNotRelatedToAnyTerm() {
+        int phenotypicAbnormality = INDEX.indexOf(TermId.of("HP:0000118"));
+
+        assertThat(INDEX.isAncestorOf(-1, phenotypicAbnormality), is(false));
+        assertThat(INDEX.isAncestorOf(phenotypicAbnormality, -1), is(false));
+        assertThat(INDEX.isAncestorOrSelf(-1, -1), is(false));
+    }
+}
@@ -145,6 +145,37 @@ public class TestResultTest {
     }
 
 
+    @Test
+    public void compositeLrOfManyTermsDoesNotOverflow() {
+        TermId some = TermId.of("HP:0000006");
+        List<LrWithExplanation> observed = new ArrayList<>();
+        for (int i = 0; i < 40; i++)
+            observed.add(FACTORY.create(some, some, LrMatchType.EXACT_MATCH, 1E10));
+
+        TestResult tresult = TestResult.of(glaucoma.id(), 0.025, observed, List.of(), null);
+
+        // The product of the LRs is 1E400 which is not representable as a double.
+        assertEquals(Double.POSITIVE_INFINITY, tresult.getCompositeLR());
+        assertEquals(1.0, tresult.posttestProbability(), EPSILON);
+    }
+
+    @Test
+    public void compositeLrOfManyTermsDoesNotUnderflow() {
+        TermId some = TermId.of("HP:0000006");
+        List<LrWithExplanation> observed = new ArrayList<>();
+        List<LrWithExplanation> excluded = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            observed.add(FACTORY.create(some, some, LrMatchType.EXACT_MATCH, 1E-3));
+            excluded.add(FACTORY.create(some, some, LrMatchType.EXCLUDED_QUERY_TERM_NOT_PRESENT_IN_DISEASE, 1E3));
+        }
+
+        TestResult tresult = TestResult.of(glaucoma.id(), 0.025, observed, excluded, null);
+
+        // The observed LRs underflow to 0 and the excluded LRs overflow to infinity, but the composite LR is 1.
+        assertEquals(1.0, tresult.getCompositeLR(), EPSILON);
+        assertEquals(0.025, tresult.posttestProbability(), EPSILON);
+    }
+
     @Test
     public void testTestResultSorting() {
 
@@ -3,6 +3,10 @@ package org.monarchinitiative.lirical.core.likelihoodratio.poisson;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -46,4 +50,72 @@ public class PoissonTest {
         double prob = poissonDistribution.probability(observedCount);
         assertEquals(expectedProbability,prob,EPSILON);
     }
+
+    private static final double[] MEANS = {1., 2., 1e-4, .0123, .5, 3.2, 17.};
+    private static final double[] VALUES = {-1., 0., .3, .9, 1., 1.4, 1.5, 1.8, 2., 2.3, 3., 7.25, 14.9, 15., 22.4, Double.NaN};
+
+    @Test
+    public void probabilitiesAreTheSameAsTheReferenceProbabilities() {
+        for (double mean : MEANS) {
+            PoissonDistribution distribution = new PoissonDistribution(mean);
+            PoissonDistribution memoized = PoissonDistribution.memoized(mean);
+            // Evaluate twice to check the memoized Stirling errors and probabilities.
+            for (int i = 0; i < 2; i++) {
+                for (double x : VALUES) {
+                    double expected = referenceProbability(mean, x);
+                    assertThat(distribution.probability(x), equalTo(expected));
+                    assertThat(memoized.probability(x), equalTo(expected));
+                }
+            }
+        }
+    }
+
+    /**
+     * The observed weighted counts of the genotype LR are sums of float pathogenicities. There are more distinct
+     * counts than the memoized probabilities, hence the probabilities are evicted and calculated again.
+     */
+    @Test
+    public void memoizedProbabilitiesOfWeightedCountsAreTheSameAsTheProbabilities() {
+        Random random = new Random(42);
+        double[] counts = new double[2_000];
+        for (int i = 0; i < counts.length; i++) {
+            double count = 0;
+            int variantCount = 1 + random.nextInt(4);
+            for (int j = 0; j < variantCount; j++)
+                count += random.nextFloat();
+            counts[i] = count;
+        }
+
+        for (double mean : new double[]{1., 2., .0017}) {
+            PoissonDistribution distribution = new PoissonDistribution(mean);
+            PoissonDistribution memoized = PoissonDistribution.memoized(mean);
+            for (int i = 0; i < 20_000; i++) {
+                double x = counts[random.nextInt(i < 10_000 ? 20 : counts.length)];
+                double expected = referenceProbability(mean, x);
+                assertThat(distribution.probability(x), equalTo(expected));
+                assertThat(memoized.probability(x), equalTo(expected));
+            }
+        }
+    }
+
+    /**
+     * The probability calculated without the memoized Stirling errors, as in the adapted Apache Math implementation.
+     */
+    private static double referenceProbability(double mean, double x) {
+        double logProbability;
+        if (x < 0 || x == Integer.MAX_VALUE) {
+            logProbability = Double.NEGATIVE_INFINITY;
+        } else if (x == 0) {
+            logProbability = -mean;
+        } else {
+            try {
+                logProbability = -SaddlePointExpansion.getStirlingError(x) -
+                        SaddlePointExpansion.getDeviancePart(x, mean) -
+                        0.5 * Math.log(SaddlePointExpansion.TWO_PI) - 0.5 * Math.log(x);
+            } catch (NumberIsTooSmallException | NumberIsTooLargeException e) {
+                logProbability = Double.NEGATIVE_INFINITY;
+            }
+        }
+        return logProbability == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logProbability);
+    }
 }
@@ -0,0 +1,136 @@
+package org.monarchinitiative.lirical.core.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.monarchinitiative.phenol.annotations.formats.GeneIdentifier;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+public class Gene2GenotypeTest {
+
+    private static final GenomicAssembly HG38 = GenomicAssemblies.GRCh38p13();
+    private static final double ERROR = 1e-12;
+    private static final GeneIdentifier GENE_ID = GeneIdentifier.of(TermId.of("NCBIGene:1234"), "FAKE1234");
+    private static final List<LiricalVariant> VARIANTS = List.of(
+            variant(101, AlleleCount.zeroOne(), AlleleCount.zeroTwo(), VariantMetadata.of(.001f, .9f, null)),
+            variant(201, AlleleCount.zeroTwo(), AlleleCount.zeroOne(), VariantMetadata.of(.1f, .7f, ClinVarAlleleData.of(ClinvarClnSig.PATHOGENIC, 1L))),
+            variant(301, AlleleCount.zeroOne(), AlleleCount.zeroZero(), VariantMetadata.of(.0f, .95f, ClinVarAlleleData.of(ClinvarClnSig.BENIGN, 2L))),
+            variant(401, AlleleCount.zeroOne(), AlleleCount.zeroOne(), VariantMetadata.of(1.5f, .6f, ClinVarAlleleData.of(ClinvarClnSig.UNCERTAIN_SIGNIFICANCE, 3L))),
+            // No frequency, hence no pathogenicity score.
+            variant(501, AlleleCount.zeroOne(), AlleleCount.zeroOne(), VariantMetadata.of(Float.NaN, .3f, null))
+    );
+
+    @ParameterizedTest
+    @ValueSource(floats = {-1f, 0f, .3f, .5f, .8f, .9f, .95f, 1f, 1.1f, Float.NaN})
+    public void summariesMatchTheVariants(float threshold) {
+        Gene2Genotype g2g = Gene2Genotype.of(GENE_ID, VARIANTS, 0);
+        Gene2Genotype reference = new StreamingGene2Genotype(VARIANTS);
+
+        for (String sampleId : List.of("Mother", "Proband", "Unknown")) {
+            assertThat(g2g.pathogenicClinVarCount(sampleId), equalTo(reference.pathogenicClinVarCount(sampleId)));
+            assertThat(g2g.deleteriousAlleleCount(sampleId, threshold), equalTo(reference.deleteriousAlleleCount(sampleId, threshold)));
+            assertThat(g2g.getSumOfPathBinScores(sampleId, threshold), equalTo(reference.getSumOfPathBinScores(sampleId, threshold)));
+        }
+    }
+
+    @Test
+    public void summaries() {
+        Gene2Genotype g2g = Gene2Genotype.of(GENE_ID, VARIANTS, 0);
+
+        assertThat(g2g.pathogenicClinVarCount("Proband"), equalTo(2));
+        assertThat(g2g.deleteriousAlleleCount("Proband", .8f), equalTo(3));
+        assertThat(g2g.deleteriousAlleleCount("Mother", .8f), equalTo(3));
+        assertThat(g2g.deleteriousAlleleCount("Proband", .95f), equalTo(2));
+        assertThat(g2g.getSumOfPathBinScores("Proband", .95f), closeTo(2 * .7f, ERROR));
+        assertThat(g2g.getSumOfPathBinScores("Proband", .8f), closeTo((double) .9f + 2 * .7f, ERROR));
+        assertThat(g2g.pathogenicClinVarCount(null), equalTo(0));
+        assertThat(g2g.deleteriousAlleleCount(null, .8f), equalTo(0));
+        assertThat(g2g.getSumOfPathBinScores(null, .8f), equalTo(0.));
+    }
+
+    @Test
+    public void sumsOfManyVariantsMatchTheVariantsExactly() {
+        Random random = new Random(42);
+        List<AlleleCount> alleleCounts = List.of(AlleleCount.zeroZero(), AlleleCount.zeroOne(), AlleleCount.zeroTwo());
+        List<LiricalVariant> variants = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // Few distinct frequencies, to have many variants with the same score.
+            float frequency = random.nextInt(10) == 0 ? Float.NaN : random.nextInt(20) / 10f;
+            variants.add(variant(1_000 + i,
+                    alleleCounts.get(random.nextInt(3)),
+                    alleleCounts.get(random.nextInt(3)),
+                    // The pathogenicities of different magnitudes make the sums sensitive to the summation order.
+                    VariantMetadata.of(frequency, (float) (random.nextDouble() / Math.pow(10, random.nextInt(30))), null)));
+        }
+        Gene2Genotype g2g = Gene2Genotype.of(GENE_ID, variants, 0);
+        Gene2Genotype reference = new StreamingGene2Genotype(variants);
+
+        for (int i = 0; i < 100; i++) {
+            float threshold = random.nextFloat();
+            for (String sampleId : List.of("Mother", "Proband")) {
+                assertThat(g2g.deleteriousAlleleCount(sampleId, threshold), equalTo(reference.deleteriousAlleleCount(sampleId, threshold)));
+                assertThat(g2g.getSumOfPathBinScores(sampleId, threshold), equalTo(reference.getSumOfPathBinScores(sampleId, threshold)));
+            }
+        }
+    }
+
+    @Test
+    public void sumOfPathBinScoresFollowsTheOrderOfTheVariants() {
+        // The compensated sum of these variants in the order of the descending scores differs in the last bit.
+        List<LiricalVariant> variants = List.of(
+                variant(101, AlleleCount.zeroOne(), AlleleCount.zeroOne(), VariantMetadata.of(.001f, 1.0E-10f, null)),
+                variant(201, AlleleCount.zeroOne(), AlleleCount.zeroOne(), VariantMetadata.of(.001f, 3.27E-9f, null)),
+                variant(301, AlleleCount.zeroTwo(), AlleleCount.zeroOne(), VariantMetadata.of(.001f, .453f, null)),
+                variant(401, AlleleCount.zeroTwo(), AlleleCount.zeroOne(), VariantMetadata.of(.001f, .708f, null)));
+        Gene2Genotype g2g = Gene2Genotype.of(GENE_ID, variants, 0);
+        Gene2Genotype reference = new StreamingGene2Genotype(variants);
+
+        assertThat(g2g.getSumOfPathBinScores("Proband", 0f), equalTo(reference.getSumOfPathBinScores("Proband", 0f)));
+    }
+
+    private static LiricalVariant variant(int pos, AlleleCount proband, AlleleCount mother, VariantMetadata metadata) {
+        return LiricalVariant.of(
+                GenotypedVariant.of(GenomeBuild.HG38,
+                        GenomicVariant.of(HG38.contigByName("1"), "SNP" + pos,
+                                Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos,
+                                "C", "G"),
+                        List.of(SampleAlleleCount.of("Proband", proband), SampleAlleleCount.of("Mother", mother)),
+                        true),
+                List.of(), metadata);
+    }
+
+    /**
+     * Uses the default implementations of the summary methods.
+     */
+    private record StreamingGene2Genotype(List<LiricalVariant> variantList) implements Gene2Genotype {
+
+        @Override
+        public GeneIdentifier geneId() {
+            return GENE_ID;
+        }
+
+        @Override
+        public Stream<LiricalVariant> variants() {
+            return variantList.stream();
+        }
+
+        @Override
+        public int variantCount() {
+            return variantList.size();
+        }
+    }
+}
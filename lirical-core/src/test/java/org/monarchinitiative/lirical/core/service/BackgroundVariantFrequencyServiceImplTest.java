@@ -0,0 +1,58 @@
+package org.monarchinitiative.lirical.core.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BackgroundVariantFrequencyServiceImplTest {
+
+    private static final BackgroundVariantFrequencyService SERVICE = BackgroundVariantFrequencyService.of(Map.of(
+            TermId.of("NCBIGene:2200"), .01,
+            TermId.of("NCBIGene:7273"), .5,
+            TermId.of("NCBIGene:1"), .002,
+            TermId.of("HGNC:3603"), .03
+    ), .1);
+
+    @ParameterizedTest
+    @CsvSource({
+            "NCBIGene:2200, .01",
+            "NCBIGene:7273, .5",
+            "NCBIGene:1,    .002",
+            "HGNC:3603,     .03",
+    })
+    public void frequencyForGene(String geneId, double expected) {
+        TermId id = TermId.of(geneId);
+
+        assertThat(SERVICE.frequencyForGene(id), equalTo(Optional.of(expected)));
+        assertThat(SERVICE.frequencyForGeneOrDefault(id), equalTo(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "NCBIGene:2201",
+            "NCBIGene:0",
+            "NCBIGene:02200",
+            "HGNC:2200",
+    })
+    public void missingGene(String geneId) {
+        TermId id = TermId.of(geneId);
+
+        assertThat(SERVICE.frequencyForGene(id).isEmpty(), equalTo(true));
+        assertThat(SERVICE.frequencyForGeneOrDefault(id), equalTo(.1));
+    }
+
+    @Test
+    public void emptyService() {
+        BackgroundVariantFrequencyService service = BackgroundVariantFrequencyService.of(Map.of(), .2);
+
+        assertThat(service.frequencyForGene(TermId.of("NCBIGene:2200")).isEmpty(), equalTo(true));
+        assertThat(service.frequencyForGeneOrDefault(TermId.of("NCBIGene:2200")), equalTo(.2));
+    }
+}
@@ -0,0 +1,27 @@
+package org.monarchinitiative.lirical.core.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class GeneIdsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "NCBIGene:2200, 2200",
+            "NCBIGene:0, 0",
+            "NCBIGene:999999999, 999999999",
+            // Not canonical or out of the integer range.
+            "NCBIGene:02200, -1",
+            "NCBIGene:1000000000, -1",
+            "NCBIGene:-1, -1",
+            "NCBIGene:22a, -1",
+            "HGNC:2200, -1",
+    })
+    public void ncbiGeneId(String geneId, int expected) {
+        assertThat(GeneIds.ncbiGeneId(TermId.of(geneId)), equalTo(expected));
+    }
+}
@@ -0,0 +1,179 @@
+package org.monarchinitiative.lirical.io.background;
+
+import org.monarchinitiative.lirical.core.service.BackgroundVariantFrequencyService;
+import org.monarchinitiative.lirical.core.util.GeneIds;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * The binary format of the background variant frequencies, a converter from the TSV format
+ * (see {@link BackgroundVariantFrequencyParser}), and a loader.
+ * <p>
+ * The file starts with a header with the magic number, the format version, and the number of genes {@code n}.
+ * The header is followed by {@code n} NCBIGene IDs in ascending order, as 4-byte integers, and by {@code n}
+ * frequencies of the genes, as 8-byte doubles. All values are big-endian.
+ * <p>
+ * The loader memory-maps the file and looks up the frequency of a gene by a binary search over the mapped gene IDs.
+ * Therefore, the frequencies need not be parsed nor copied to heap when the service is created.
+ */
+public final class BinaryBackgroundVariantFrequencies {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryBackgroundVariantFrequencies.class);
+
+    // `LRBF` in ASCII.
+    private static final int MAGIC = 0x4C524246;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    private BinaryBackgroundVariantFrequencies() {
+    }
+
+    /**
+     * Convert the background variant frequencies from the TSV format to the binary format.
+     *
+     * @param tsv a reader of the TSV file.
+     * @param output the path of the binary file.
+     */
+    public static void convert(BufferedReader tsv, Path output) throws IOException {
+        write(BackgroundVariantFrequencyParser.parse(tsv), output);
+    }
+
+    /**
+     * Write the {@code frequencies} in the binary format. Only the canonical NCBIGene IDs are written,
+     * the other IDs are skipped.
+     *
+     * @param frequencies a map with the frequencies of the genes.
+     * @param output the path of the binary file.
+     */
+    public static void write(Map<TermId, Double> frequencies, Path output) throws IOException {
+        Map<Integer, Double> sorted = new TreeMap<>();
+        for (Map.Entry<TermId, Double> e : frequencies.entrySet()) {
+            int geneId = GeneIds.ncbiGeneId(e.getKey());
+            if (geneId < 0)
+                LOGGER.warn("Skipping the frequency of {}, only NCBIGene IDs are supported", e.getKey().getValue());
+            else
+                sorted.put(geneId, e.getValue());
+        }
+
+        try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            os.writeInt(MAGIC);
+            os.writeInt(VERSION);
+            os.writeInt(sorted.size());
+            for (int geneId : sorted.keySet())
+                os.writeInt(geneId);
+            for (double frequency : sorted.values())
+                os.writeDouble(frequency);
+        }
+    }
+
+    /**
+     * @return {@code true} if the {@code file} starts with the magic number of the binary format.
+     */
+    public static boolean isBinaryFormat(Path file) throws IOException {
+        try (DataInputStream is = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return is.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Memory-map the binary {@code file} and create the frequency service.
+     *
+     * @param file the path of the binary file.
+     * @param defaultVariantBackgroundFrequency the frequency of the genes that are not present in the file.
+     * @throws IOException if the file cannot be read or if it is not a valid binary file.
+     */
+    public static BackgroundVariantFrequencyService load(Path file, double defaultVariantBackgroundFrequency) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping remains valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a background variant frequency file: " + file.toAbsolutePath());
+        int version = buffer.getInt(Integer.BYTES);
+        if (version != VERSION)
+            throw new IOException("Unsupported version %d of the background variant frequency file: %s".formatted(version, file.toAbsolutePath()));
+        int geneCount = buffer.getInt(2 * Integer.BYTES);
+        long expectedSize = HEADER_SIZE + (long) geneCount * (Integer.BYTES + Double.BYTES);
+        if (geneCount < 0 || buffer.capacity() != expectedSize)
+            throw new IOException("Expected %d bytes for %d genes but the file has %d bytes: %s"
+                    .formatted(expectedSize, geneCount, buffer.capacity(), file.toAbsolutePath()));
+
+        LOGGER.debug("Mapped background variant frequencies of {} genes from {}", geneCount, file.toAbsolutePath());
+        return new MappedBackgroundVariantFrequencyService(buffer, geneCount, defaultVariantBackgroundFrequency);
+    }
+
+    /**
+     * The service backed by the mapped file. The service only uses the absolute reads of the buffer,
+     * hence it is thread safe.
+     */
+    private static final class MappedBackgroundVariantFrequencyService implements BackgroundVariantFrequencyService {
+
+        private final ByteBuffer buffer;
+        private final int geneCount;
+        private final int frequenciesOffset;
+        private final double defaultVariantBackgroundFrequency;
+
+        private MappedBackgroundVariantFrequencyService(ByteBuffer buffer, int geneCount, double defaultVariantBackgroundFrequency) {
+            this.buffer = buffer;
+            this.geneCount = geneCount;
+            this.frequenciesOffset = HEADER_SIZE + geneCount * Integer.BYTES;
+            this.defaultVariantBackgroundFrequency = defaultVariantBackgroundFrequency;
+        }
+
+        @Override
+        public double defaultVariantBackgroundFrequency() {
+            return defaultVariantBackgroundFrequency;
+        }
+
+        @Override
+        public Optional<Double> frequencyForGene(TermId geneId) {
+            int position = position(geneId);
+            return position < 0
+                    ? Optional.empty()
+                    : Optional.of(buffer.getDouble(frequenciesOffset + position * Double.BYTES));
+        }
+
+        @Override
+        public double frequencyForGeneOrDefault(TermId geneId) {
+            int position = position(geneId);
+            return position < 0
+                    ? defaultVariantBackgroundFrequency
+                    : buffer.getDouble(frequenciesOffset + position * Double.BYTES);
+        }
+
+        /**
+         * @return the position of the {@code geneId} in the file or {@code -1} if the gene is not present.
+         */
+        private int position(TermId geneId) {
+            int id = GeneIds.ncbiGeneId(geneId);
+            if (id < 0)
+                return -1;
+            int low = 0, high = geneCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = buffer.getInt(HEADER_SIZE + mid * Integer.BYTES);
+                if (midId < id)
+                    low = mid + 1;
+                else if (midId > id)
+                    high = mid - 1;
+                else
+                    return mid;
+            }
+            return -1;
+        }
+    }
+}
@@ -14,15 +14,21 @@ import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link BackgroundVariantFrequencyServiceFactory} implementation that uses user-provided frequency files.
+ * <p>
+ * The frequency file of a genome build is parsed on the first request, and the service is cached
+ * for the subsequent requests with the same default frequency. The files in the binary format
+ * (see {@link BinaryBackgroundVariantFrequencies}) are memory-mapped instead of being parsed.
  */
 public class CustomBackgroundVariantFrequencyServiceFactory implements BackgroundVariantFrequencyServiceFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CustomBackgroundVariantFrequencyServiceFactory.class);
 
     private final Map<GenomeBuild, Path> backgroundFilePaths;
+    private final Map<CacheKey, BackgroundVariantFrequencyService> services = new ConcurrentHashMap<>();
 
     public static CustomBackgroundVariantFrequencyServiceFactory of(Map<GenomeBuild, Path> backgroundFilePaths) {
         return new CustomBackgroundVariantFrequencyServiceFactory(backgroundFilePaths);
@@ -35,17 +41,32 @@ public class CustomBackgroundVariantFrequencyServiceFactory implements Backgroun
     @Override
     public Optional<BackgroundVariantFrequencyService> forGenomeBuild(GenomeBuild genomeBuild, double defaultVariantBackgroundFrequency) {
         Path backgroundFile = backgroundFilePaths.get(genomeBuild);
-        if (backgroundFile == null) {
+        if (backgroundFile == null)
             return Optional.empty();
-        } else {
-            try (BufferedReader reader = Files.newBufferedReader(backgroundFile)) {
-                Map<TermId, Double> frequencyMap = BackgroundVariantFrequencyParser.parse(reader);
-                return Optional.of(BackgroundVariantFrequencyService.of(frequencyMap, defaultVariantBackgroundFrequency));
-            } catch (IOException e) {
-                LOGGER.warn("Unable to read background frequency file at {}", backgroundFile.toAbsolutePath());
-                return Optional.empty();
-            }
+        // The services that cannot be created are not cached.
+        return Optional.ofNullable(services.computeIfAbsent(new CacheKey(genomeBuild, defaultVariantBackgroundFrequency),
+                key -> createService(backgroundFile, key.defaultVariantBackgroundFrequency())));
+    }
+
+    private static BackgroundVariantFrequencyService createService(Path backgroundFile, double defaultVariantBackgroundFrequency) {
+        try {
+            if (BinaryBackgroundVariantFrequencies.isBinaryFormat(backgroundFile))
+                return BinaryBackgroundVariantFrequencies.load(backgroundFile, defaultVariantBackgroundFrequency);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read background frequency file at {}: {}", backgroundFile.toAbsolutePath(), e.getMessage());
+            return null;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(backgroundFile)) {
+            Map<TermId, Double> frequencyMap = BackgroundVariantFrequencyParser.parse(reader);
+            return BackgroundVariantFrequencyService.of(frequencyMap, defaultVariantBackgroundFrequency);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read background frequency file at {}", backgroundFile.toAbsolutePath());
+            return null;
         }
     }
 
+    private record CacheKey(GenomeBuild genomeBuild, double defaultVariantBackgroundFrequency) {
+    }
+
 }
@@ -0,0 +1,90 @@
+package org.monarchinitiative.lirical.io.background;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.lirical.core.service.BackgroundVariantFrequencyService;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BinaryBackgroundVariantFrequenciesTest {
+
+    private static final String TSV = """
+            Gene\tEntrezId\tAFR\tAMR\tASJ\tEAS\tFIN\tNFE\tSAS\tMean
+            A1BG\t1\t0.1\t0.1\t0.1\t0.1\t0.1\t0.1\t0.1\t0.1
+            NAT2\t10\t0.2\t0.2\t0.2\t0.2\t0.2\t0.2\t0.2\t0.2
+            ADA\t100\t0.03\t0.03\t0.03\t0.03\t0.03\t0.03\t0.03\t0.03
+            CDH2\t1000\t0.004\t0.004\t0.004\t0.004\t0.004\t0.004\t0.004\t0.004
+            AKT3\t10000\t0.05\t0.05\t0.05\t0.05\t0.05\t0.05\t0.05\t0.05
+            NOID\t\t0.6\t0.6\t0.6\t0.6\t0.6\t0.6\t0.6\t0.6
+            ZNF77\t58492\t0.007\t0.007\t0.007\t0.007\t0.007\t0.007\t0.007\t0.007
+            """;
+
+    private static final double DEFAULT_FREQUENCY = .1234;
+
+    private static final List<TermId> GENES = List.of(
+            TermId.of("NCBIGene:1"), TermId.of("NCBIGene:10"), TermId.of("NCBIGene:100"),
+            TermId.of("NCBIGene:1000"), TermId.of("NCBIGene:10000"), TermId.of("NCBIGene:58492"),
+            // Absent genes.
+            TermId.of("NCBIGene:2"), TermId.of("NCBIGene:99999"), TermId.of("NCBIGene:010"),
+            TermId.of("HGNC:10"));
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void convertAndLoad() throws Exception {
+        Path binary = tempDir.resolve("background.bin");
+        BinaryBackgroundVariantFrequencies.convert(new BufferedReader(new StringReader(TSV)), binary);
+
+        BackgroundVariantFrequencyService expected = BackgroundVariantFrequencyService.of(
+                BackgroundVariantFrequencyParser.parse(new BufferedReader(new StringReader(TSV))), DEFAULT_FREQUENCY);
+        BackgroundVariantFrequencyService actual = BinaryBackgroundVariantFrequencies.load(binary, DEFAULT_FREQUENCY);
+
+        assertThat(actual.defaultVariantBackgroundFrequency(), equalTo(DEFAULT_FREQUENCY));
+        for (TermId gene : GENES) {
+            assertThat(actual.frequencyForGene(gene), equalTo(expected.frequencyForGene(gene)));
+            assertThat(actual.frequencyForGeneOrDefault(gene), equalTo(expected.frequencyForGeneOrDefault(gene)));
+        }
+    }
+
+    @Test
+    public void loadEmpty() throws Exception {
+        Path binary = tempDir.resolve("empty.bin");
+        BinaryBackgroundVariantFrequencies.write(Map.of(), binary);
+
+        BackgroundVariantFrequencyService service = BinaryBackgroundVariantFrequencies.load(binary, DEFAULT_FREQUENCY);
+
+        assertThat(service.frequencyForGene(TermId.of("NCBIGene:1")).isPresent(), equalTo(false));
+        assertThat(service.frequencyForGeneOrDefault(TermId.of("NCBIGene:1")), equalTo(DEFAULT_FREQUENCY));
+    }
+
+    @Test
+    public void isBinaryFormat() throws Exception {
+        Path binary = tempDir.resolve("background.bin");
+        BinaryBackgroundVariantFrequencies.convert(new BufferedReader(new StringReader(TSV)), binary);
+        Path tsv = Files.writeString(tempDir.resolve("background.tsv"), TSV);
+        Path empty = Files.createFile(tempDir.resolve("empty.tsv"));
+
+        assertThat(BinaryBackgroundVariantFrequencies.isBinaryFormat(binary), equalTo(true));
+        assertThat(BinaryBackgroundVariantFrequencies.isBinaryFormat(tsv), equalTo(false));
+        assertThat(BinaryBackgroundVariantFrequencies.isBinaryFormat(empty), equalTo(false));
+    }
+
+    @Test
+    public void loadingTsvFails() throws Exception {
+        Path tsv = Files.writeString(tempDir.resolve("background.tsv"), TSV);
+
+        assertThrows(IOException.class, () -> BinaryBackgroundVariantFrequencies.load(tsv, DEFAULT_FREQUENCY));
+    }
+}